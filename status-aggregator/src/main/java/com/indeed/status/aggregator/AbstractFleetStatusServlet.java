@@ -0,0 +1,69 @@
+package com.indeed.status.aggregator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Serves the fleet status of an aggregator as JSON. No endpoint is polled to serve a request; the
+ * response is the status as of the most recent poll of each endpoint.
+ *
+ * <p>The aggregator is created and started when the servlet is initialized, and shut down when it
+ * is destroyed.
+ */
+public abstract class AbstractFleetStatusServlet extends HttpServlet {
+    private static final ObjectWriter WRITER = new ObjectMapper().writer();
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    // Set-once, read-many
+    private FleetAggregator aggregator;
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            final FleetStatus status = getAggregator().getFleetStatus();
+
+            response.setContentType("application/json");
+            response.setHeader("Cache-Control", "no-cache");
+            WRITER.writeValue(response.getOutputStream(), status);
+
+        } catch (final Throwable t) {
+            log.error("Received an unexpected top-level throwable.", t);
+
+            response.sendError(
+                    HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Error reading the fleet status.");
+        }
+    }
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+
+        this.aggregator = newAggregator(config);
+        this.aggregator.start();
+    }
+
+    @Override
+    public void destroy() {
+        if (null != aggregator) {
+            aggregator.shutdown();
+        }
+        super.destroy();
+    }
+
+    /** @return A new aggregator with its endpoints added, which the servlet starts. */
+    protected abstract FleetAggregator newAggregator(final ServletConfig config);
+
+    protected FleetAggregator getAggregator() {
+        return this.aggregator;
+    }
+}
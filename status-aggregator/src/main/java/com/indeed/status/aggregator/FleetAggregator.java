@@ -0,0 +1,474 @@
+package com.indeed.status.aggregator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import com.google.common.net.HttpHeaders;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Polls the detailed reports of many status endpoints, such as those served by the <code>
+ * AbstractDaemonCheckReportServlet</code> of each service in a fleet, and merges them into a {@link
+ * FleetStatus} keyed by app name and host.
+ *
+ * <pre>
+ * final FleetAggregator aggregator = FleetAggregator.newBuilder()
+ *         .setMaxConcurrency(32)
+ *         .setPollPeriod(30000)
+ *         .build();
+ * aggregator.addTarget(new URL("http://search-1:8080/private/healthcheck"));
+ * aggregator.start();
+ * ...
+ * final FleetStatus fleet = aggregator.getFleetStatus();
+ * </pre>
+ *
+ * <p>Each endpoint is polled on its own schedule, offset at random so that the polls of a fleet
+ * spread across the period. At most {@link Builder#setMaxConcurrency(int) maxConcurrency} polls run
+ * at once on a dedicated pool; reading the fleet status never waits for a poll. Polls ask for the
+ * compact Smile encoding and for gzip, and name the entity tag of the last report, so that an
+ * unchanged report costs a 304 rather than a download. An endpoint whose poll fails is polled again
+ * after a delay doubling with each consecutive failure, up to {@link Builder#setMaxBackoff(long)
+ * maxBackoff}.
+ */
+@ThreadSafe
+public class FleetAggregator {
+    private static final Logger log = LoggerFactory.getLogger(FleetAggregator.class);
+    private static final AtomicInteger AGGREGATOR_COUNT = new AtomicInteger();
+
+    /// App name of endpoints whose reports carry none.
+    public static final String UNKNOWN_APP = "unknown";
+
+    static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+    static final String ACCEPT = CONTENT_TYPE_SMILE + ", application/json;q=0.5";
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 16;
+    public static final long DEFAULT_POLL_PERIOD = 30000;
+    public static final long DEFAULT_TIMEOUT = 5000;
+    public static final long DEFAULT_MAX_BACKOFF = 600000;
+
+    private final long pollPeriod;
+    private final long timeout;
+    private final long maxBackoff;
+    @Nonnull private final WallClock wallClock;
+
+    @Nonnull private final ObjectMapper jsonMapper = new ObjectMapper();
+    @Nonnull private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    /// Runs the polls, bounding their concurrency.
+    @Nonnull private final ThreadPoolExecutor pollExecutor;
+    /// Hands due polls to the poll executor.
+    @Nonnull private final ScheduledExecutorService scheduler;
+
+    /// Polled endpoints, keyed by URL.
+    @Nonnull private final ConcurrentMap<String, Target> targets = Maps.newConcurrentMap();
+
+    private volatile boolean started = false;
+
+    /// Incremented with every endpoint added or removed, and every change to a fleet status host.
+    @Nonnull private final AtomicLong version = new AtomicLong();
+    /// Fleet status as of a version, rebuilt on read once the version moves on.
+    @Nonnull
+    private volatile VersionedFleetStatus fleetStatus =
+            new VersionedFleetStatus(0L, FleetStatus.EMPTY);
+
+    private FleetAggregator(@Nonnull final Builder builder) {
+        this.pollPeriod = builder.pollPeriod;
+        this.timeout = builder.timeout;
+        this.maxBackoff = builder.maxBackoff;
+        this.wallClock = builder.wallClock;
+
+        final String name = "fleet-aggregator-" + AGGREGATOR_COUNT.getAndIncrement();
+        this.pollExecutor =
+                new ThreadPoolExecutor(
+                        builder.maxConcurrency,
+                        builder.maxConcurrency,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        newThreadFactory(name + "-poll-%d"));
+        this.pollExecutor.allowCoreThreadTimeOut(true);
+        this.scheduler =
+                Executors.newSingleThreadScheduledExecutor(
+                        newThreadFactory(name + "-scheduler-%d"));
+    }
+
+    @Nonnull
+    private static ThreadFactory newThreadFactory(@Nonnull final String nameFormat) {
+        return new ThreadFactoryBuilder()
+                .setNameFormat(nameFormat)
+                .setDaemon(true)
+                .setUncaughtExceptionHandler(
+                        (t, e) ->
+                                log.error(
+                                        "Uncaught throwable in thread "
+                                                + t.getName()
+                                                + "/"
+                                                + t.getId(),
+                                        e))
+                .build();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /** Starts polling every endpoint, and every endpoint added from now on, on its schedule. */
+    public void start() {
+        Preconditions.checkState(!scheduler.isShutdown(), "The aggregator was shut down");
+        started = true;
+        for (final Target target : targets.values()) {
+            target.scheduleFirst();
+        }
+    }
+
+    /** Stops polling. Polls in progress are interrupted. */
+    public void shutdown() {
+        started = false;
+        scheduler.shutdownNow();
+        pollExecutor.shutdownNow();
+    }
+
+    /** @return true if the endpoint was not already polled. */
+    public boolean addTarget(@Nonnull final URL url) {
+        final Target target = new Target(url);
+        if (null != targets.putIfAbsent(target.key, target)) {
+            return false;
+        }
+        version.incrementAndGet();
+        if (started) {
+            target.scheduleFirst();
+        }
+        return true;
+    }
+
+    /** @return true if the endpoint was polled. Its status is dropped from the fleet status. */
+    public boolean removeTarget(@Nonnull final URL url) {
+        final Target target = targets.remove(url.toExternalForm());
+        if (null == target) {
+            return false;
+        }
+        target.cancel();
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Polls every endpoint now, in addition to the scheduled polls, within the same bound on
+     * concurrent polls.
+     *
+     * @return A future completed once every endpoint was polled.
+     */
+    @Nonnull
+    public CompletableFuture<Void> pollNow() {
+        final CompletableFuture<?>[] polls = new CompletableFuture<?>[targets.size()];
+        final Iterator<Target> iterator = targets.values().iterator();
+        int count = 0;
+        while (count < polls.length && iterator.hasNext()) {
+            polls[count++] = CompletableFuture.runAsync(iterator.next()::poll, pollExecutor);
+        }
+        return CompletableFuture.allOf(count == polls.length ? polls : Arrays.copyOf(polls, count));
+    }
+
+    /**
+     * @return The status of every endpoint as of its most recent change. The poll times and failure
+     *     counts of its hosts are those of that change; see {@link #getHostStatus(URL)} for those
+     *     of the most recent poll.
+     */
+    @Nonnull
+    public FleetStatus getFleetStatus() {
+        final VersionedFleetStatus current = fleetStatus;
+        final long observed = version.get();
+        if (current.version == observed) {
+            return current.status;
+        }
+
+        final List<HostStatus> statuses = Lists.newArrayListWithCapacity(targets.size());
+        for (final Target target : targets.values()) {
+            statuses.add(target.status);
+        }
+        final FleetStatus rebuilt = FleetStatus.of(statuses);
+        fleetStatus = new VersionedFleetStatus(observed, rebuilt);
+        return rebuilt;
+    }
+
+    /** @return The status of the given endpoint, or null if it is not polled. */
+    @Nullable
+    public HostStatus getHostStatus(@Nonnull final URL url) {
+        final Target target = targets.get(url.toExternalForm());
+        return null == target ? null : target.status;
+    }
+
+    @Nonnegative
+    public int getActivePolls() {
+        return pollExecutor.getActiveCount();
+    }
+
+    @Nonnegative
+    public int getQueuedPolls() {
+        return pollExecutor.getQueue().size();
+    }
+
+    /** @return The delay before the next poll of an endpoint after the given number of failures. */
+    long getDelay(@Nonnegative final int consecutiveFailures) {
+        long delay = pollPeriod;
+        for (int i = 0; i < consecutiveFailures && delay < maxBackoff; i++) {
+            delay <<= 1;
+        }
+        return Math.min(delay, maxBackoff);
+    }
+
+    @Nonnull
+    private HostStatus fetch(@Nonnull final Target target, final long now) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) target.url.openConnection();
+        connection.setConnectTimeout((int) timeout);
+        connection.setReadTimeout((int) timeout);
+        connection.setUseCaches(false);
+        connection.setRequestProperty(HttpHeaders.ACCEPT, ACCEPT);
+        connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (null != target.etag && target.status.isReported()) {
+            connection.setRequestProperty(HttpHeaders.IF_NONE_MATCH, target.etag);
+        }
+
+        final int code = connection.getResponseCode();
+        if (HttpURLConnection.HTTP_NOT_MODIFIED == code) {
+            // Close the empty body, so that the connection can be reused.
+            try (final InputStream in = connection.getInputStream()) {
+                ByteStreams.exhaust(in);
+            }
+            return target.status.notModified(now);
+        }
+
+        // Status endpoints answer with an error code when the system is unhealthy, but still
+        //  send the report.
+        final InputStream body =
+                code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (null == body) {
+            return target.status.failed(now, "HTTP " + code + " without a body");
+        }
+
+        final JsonNode report;
+        try (final InputStream in =
+                "gzip".equalsIgnoreCase(connection.getContentEncoding())
+                        ? new GZIPInputStream(body)
+                        : body) {
+            final String contentType = connection.getContentType();
+            final ObjectMapper mapper =
+                    null != contentType && contentType.startsWith(CONTENT_TYPE_SMILE)
+                            ? smileMapper
+                            : jsonMapper;
+            report = mapper.readTree(in);
+
+        } catch (final IOException e) {
+            return target.status.failed(now, "HTTP " + code + " without a status report: " + e);
+        }
+
+        final CheckStatus condition = CheckStatus.infer(report.path("condition").asText(null));
+        if (null == condition) {
+            return target.status.failed(now, "HTTP " + code + " without a status report");
+        }
+
+        final ImmutableSortedMap.Builder<String, CheckStatus> dependencies =
+                ImmutableSortedMap.naturalOrder();
+        final Iterator<Map.Entry<String, JsonNode>> groups = report.path("results").fields();
+        while (groups.hasNext()) {
+            final Map.Entry<String, JsonNode> group = groups.next();
+            final CheckStatus groupStatus = CheckStatus.infer(group.getKey());
+            for (final JsonNode result : group.getValue()) {
+                final String id = result.path("id").asText(null);
+                final CheckStatus status = CheckStatus.infer(result.path("status").asText(null));
+                if (null != id && (null != status || null != groupStatus)) {
+                    dependencies.put(id, null != status ? status : groupStatus);
+                }
+            }
+        }
+
+        final String appName = report.path("appname").asText(null);
+        final String hostname = report.path("hostname").asText(target.url.getHost());
+        target.etag = connection.getHeaderField(HttpHeaders.ETAG);
+        return target.status.reported(
+                null == appName ? UNKNOWN_APP : appName,
+                hostname + ':' + target.port,
+                condition,
+                dependencies.build(),
+                report.path("leastRecentlyExecutedTimestamp").asLong(0L),
+                now);
+    }
+
+    private static final class VersionedFleetStatus {
+        private final long version;
+        @Nonnull private final FleetStatus status;
+
+        private VersionedFleetStatus(final long version, @Nonnull final FleetStatus status) {
+            this.version = version;
+            this.status = status;
+        }
+    }
+
+    // A polled endpoint. Polls of the same endpoint never overlap.
+    private final class Target {
+        @Nonnull private final URL url;
+        @Nonnull private final String key;
+        private final int port;
+
+        @Nonnull private volatile HostStatus status;
+
+        /// Entity tag of the most recent report.
+        @GuardedBy("this")
+        @Nullable
+        private String etag;
+
+        @Nullable private volatile ScheduledFuture<?> next;
+        private volatile boolean cancelled = false;
+
+        private Target(@Nonnull final URL url) {
+            this.url = url;
+            this.key = url.toExternalForm();
+            this.port = -1 == url.getPort() ? url.getDefaultPort() : url.getPort();
+            this.status = HostStatus.unreported(key, url.getHost() + ':' + port);
+        }
+
+        private void scheduleFirst() {
+            schedule(ThreadLocalRandom.current().nextLong(Math.max(1L, pollPeriod)));
+        }
+
+        private void schedule(final long delay) {
+            if (!started || cancelled) {
+                return;
+            }
+            try {
+                next =
+                        scheduler.schedule(
+                                () -> pollExecutor.execute(this::pollAndReschedule),
+                                delay,
+                                TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException e) {
+                // Shut down.
+            }
+        }
+
+        private void pollAndReschedule() {
+            poll();
+            final long delay = getDelay(status.getConsecutiveFailures());
+            // Jitter keeps endpoints that failed together from being retried together.
+            schedule(delay + ThreadLocalRandom.current().nextLong(1L + delay / 10));
+        }
+
+        private synchronized void poll() {
+            if (cancelled) {
+                return;
+            }
+
+            final long now = wallClock.currentTimeMillis();
+            HostStatus updated;
+            try {
+                updated = fetch(this, now);
+            } catch (final IOException | RuntimeException e) {
+                updated = status.failed(now, e.toString());
+            }
+
+            if (updated.getConsecutiveFailures() == 1) {
+                log.warn("Failed to poll the status of " + key + ": " + updated.getError());
+            }
+            final HostStatus previous = status;
+            status = updated;
+            // Most polls confirm an unchanged report, and need not rebuild the fleet status.
+            if (updated.isChangedFrom(previous)) {
+                version.incrementAndGet();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            final ScheduledFuture<?> scheduled = next;
+            if (null != scheduled) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+
+    public static class Builder {
+        @Nonnegative private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        @Nonnegative private long pollPeriod = DEFAULT_POLL_PERIOD;
+        @Nonnegative private long timeout = DEFAULT_TIMEOUT;
+        @Nonnegative private long maxBackoff = DEFAULT_MAX_BACKOFF;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+
+        protected Builder() {}
+
+        /** @param maxConcurrency Polls allowed to run at once. */
+        public Builder setMaxConcurrency(final int maxConcurrency) {
+            Preconditions.checkArgument(maxConcurrency > 0, "The concurrency must be positive");
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /** @param pollPeriod Milliseconds between the polls of each endpoint. */
+        public Builder setPollPeriod(final long pollPeriod) {
+            Preconditions.checkArgument(pollPeriod > 0, "The poll period must be positive");
+            this.pollPeriod = pollPeriod;
+            return this;
+        }
+
+        /** @param timeout Milliseconds allowed to connect, and then to read each response. */
+        public Builder setTimeout(final long timeout) {
+            Preconditions.checkArgument(
+                    timeout > 0 && timeout <= Integer.MAX_VALUE, "The timeout is out of range");
+            this.timeout = timeout;
+            return this;
+        }
+
+        /** @param maxBackoff Upper bound, in milliseconds, of the delay after failed polls. */
+        public Builder setMaxBackoff(final long maxBackoff) {
+            Preconditions.checkArgument(maxBackoff > 0, "The backoff must be positive");
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = Preconditions.checkNotNull(wallClock, "Missing wall clock");
+            return this;
+        }
+
+        public FleetAggregator build() {
+            return new FleetAggregator(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.indeed.status.aggregator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import com.indeed.status.core.CheckStatus;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The statuses of every polled endpoint at one point in time, keyed by app name and then by host.
+ * Endpoints that never reported have no app name to be keyed by, and are listed separately.
+ */
+@Immutable
+public final class FleetStatus {
+    static final FleetStatus EMPTY = of(ImmutableList.of());
+
+    @Nonnull private final ImmutableSortedMap<String, ImmutableSortedMap<String, HostStatus>> apps;
+    @Nonnull private final ImmutableSortedMap<String, CheckStatus> conditions;
+    @Nonnull private final ImmutableList<HostStatus> unreported;
+
+    private FleetStatus(
+            @Nonnull final ImmutableSortedMap<String, ImmutableSortedMap<String, HostStatus>> apps,
+            @Nonnull final ImmutableSortedMap<String, CheckStatus> conditions,
+            @Nonnull final ImmutableList<HostStatus> unreported) {
+        this.apps = apps;
+        this.conditions = conditions;
+        this.unreported = unreported;
+    }
+
+    @Nonnull
+    static FleetStatus of(@Nonnull final Collection<HostStatus> statuses) {
+        final Map<String, ImmutableSortedMap.Builder<String, HostStatus>> hosts = Maps.newHashMap();
+        final Map<String, CheckStatus> conditions = Maps.newHashMap();
+        final ImmutableList.Builder<HostStatus> unreported = ImmutableList.builder();
+
+        for (final HostStatus status : statuses) {
+            if (!status.isReported()) {
+                unreported.add(status);
+                continue;
+            }
+
+            hosts.computeIfAbsent(status.getAppName(), app -> ImmutableSortedMap.naturalOrder())
+                    .put(status.getHost(), status);
+            conditions.merge(status.getAppName(), status.getEffectiveCondition(), CheckStatus::min);
+        }
+
+        final ImmutableSortedMap.Builder<String, ImmutableSortedMap<String, HostStatus>> apps =
+                ImmutableSortedMap.naturalOrder();
+        for (final Map.Entry<String, ImmutableSortedMap.Builder<String, HostStatus>> entry :
+                hosts.entrySet()) {
+            apps.put(entry.getKey(), entry.getValue().build());
+        }
+
+        return new FleetStatus(
+                apps.build(), ImmutableSortedMap.copyOf(conditions), unreported.build());
+    }
+
+    /** @return The status of each host of each app, keyed by app name and then by host. */
+    @Nonnull
+    public SortedMap<String, ImmutableSortedMap<String, HostStatus>> getApps() {
+        return apps;
+    }
+
+    /**
+     * @return The condition of each app, the worst effective condition of its hosts, keyed by app
+     *     name.
+     */
+    @Nonnull
+    public SortedMap<String, CheckStatus> getConditions() {
+        return conditions;
+    }
+
+    @Nullable
+    public CheckStatus getCondition(@Nonnull final String appName) {
+        return conditions.get(appName);
+    }
+
+    /** @return The endpoints that never answered with a report, in no defined order. */
+    @Nonnull
+    public List<HostStatus> getUnreported() {
+        return unreported;
+    }
+}
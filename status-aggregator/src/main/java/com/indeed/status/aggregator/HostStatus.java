@@ -0,0 +1,200 @@
+package com.indeed.status.aggregator;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.indeed.status.core.CheckStatus;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.SortedMap;
+
+/**
+ * The most recent report of one polled status endpoint, and the outcome of the most recent poll. A
+ * failed poll keeps the last report, so that consumers can tell a host that stopped answering from
+ * one that never did.
+ */
+@Immutable
+public final class HostStatus {
+    @Nonnull private final String url;
+    @Nonnull private final String appName;
+    @Nonnull private final String host;
+    @Nullable private final CheckStatus condition;
+    @Nonnull private final ImmutableSortedMap<String, CheckStatus> dependencies;
+    private final long leastRecentlyExecutedTimestamp;
+    private final long polledAt;
+    private final long reportedAt;
+    private final int consecutiveFailures;
+    @Nullable private final String error;
+
+    private HostStatus(
+            @Nonnull final String url,
+            @Nonnull final String appName,
+            @Nonnull final String host,
+            @Nullable final CheckStatus condition,
+            @Nonnull final ImmutableSortedMap<String, CheckStatus> dependencies,
+            final long leastRecentlyExecutedTimestamp,
+            final long polledAt,
+            final long reportedAt,
+            final int consecutiveFailures,
+            @Nullable final String error) {
+        this.url = url;
+        this.appName = appName;
+        this.host = host;
+        this.condition = condition;
+        this.dependencies = dependencies;
+        this.leastRecentlyExecutedTimestamp = leastRecentlyExecutedTimestamp;
+        this.polledAt = polledAt;
+        this.reportedAt = reportedAt;
+        this.consecutiveFailures = consecutiveFailures;
+        this.error = error;
+    }
+
+    /** @return The status of an endpoint not yet polled. */
+    @Nonnull
+    static HostStatus unreported(@Nonnull final String url, @Nonnull final String host) {
+        return new HostStatus(
+                url,
+                FleetAggregator.UNKNOWN_APP,
+                host,
+                null,
+                ImmutableSortedMap.of(),
+                0L,
+                0L,
+                0L,
+                0,
+                null);
+    }
+
+    @Nonnull
+    HostStatus reported(
+            @Nonnull final String appName,
+            @Nonnull final String host,
+            @Nonnull final CheckStatus condition,
+            @Nonnull final ImmutableSortedMap<String, CheckStatus> dependencies,
+            final long leastRecentlyExecutedTimestamp,
+            final long now) {
+        return new HostStatus(
+                url,
+                appName,
+                host,
+                condition,
+                dependencies,
+                leastRecentlyExecutedTimestamp,
+                now,
+                now,
+                0,
+                null);
+    }
+
+    /** @return This status, confirmed unchanged by the endpoint at the given time. */
+    @Nonnull
+    HostStatus notModified(final long now) {
+        return new HostStatus(
+                url,
+                appName,
+                host,
+                condition,
+                dependencies,
+                leastRecentlyExecutedTimestamp,
+                now,
+                now,
+                0,
+                null);
+    }
+
+    @Nonnull
+    HostStatus failed(final long now, @Nonnull final String error) {
+        return new HostStatus(
+                url,
+                appName,
+                host,
+                condition,
+                dependencies,
+                leastRecentlyExecutedTimestamp,
+                now,
+                reportedAt,
+                consecutiveFailures + 1,
+                error);
+    }
+
+    /**
+     * @return true if this status differs from the given one in what the fleet status is built
+     *     from: the app, the host, the reported conditions, or whether the host is failing. Poll
+     *     times and failure counts are not compared.
+     */
+    boolean isChangedFrom(@Nonnull final HostStatus previous) {
+        return !appName.equals(previous.appName)
+                || !host.equals(previous.host)
+                || condition != previous.condition
+                || !dependencies.equals(previous.dependencies)
+                || (consecutiveFailures > 0) != (previous.consecutiveFailures > 0);
+    }
+
+    @Nonnull
+    public String getUrl() {
+        return url;
+    }
+
+    /** @return The app name of the most recent report, or {@link FleetAggregator#UNKNOWN_APP}. */
+    @Nonnull
+    public String getAppName() {
+        return appName;
+    }
+
+    /** @return The reported host name and the port of the endpoint, which identify an instance. */
+    @Nonnull
+    public String getHost() {
+        return host;
+    }
+
+    /** @return The condition of the most recent report, or null if the endpoint never reported. */
+    @Nullable
+    public CheckStatus getCondition() {
+        return condition;
+    }
+
+    /** @return The status of each dependency of the most recent report, keyed by id. */
+    @Nonnull
+    public SortedMap<String, CheckStatus> getDependencies() {
+        return dependencies;
+    }
+
+    public long getLeastRecentlyExecutedTimestamp() {
+        return leastRecentlyExecutedTimestamp;
+    }
+
+    /** @return The time of the most recent poll, or zero before the first. */
+    public long getPolledAt() {
+        return polledAt;
+    }
+
+    /** @return The time the endpoint last answered with a report, or zero if it never did. */
+    public long getReportedAt() {
+        return reportedAt;
+    }
+
+    /** @return The number of polls that failed since the most recent one that succeeded. */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /** @return The reason the most recent poll failed, or null if it succeeded. */
+    @Nullable
+    public String getError() {
+        return error;
+    }
+
+    /** @return true if the endpoint reported at least once. */
+    public boolean isReported() {
+        return null != condition;
+    }
+
+    /**
+     * @return The condition of this host as seen by the fleet: the reported condition, or outage if
+     *     the most recent poll failed.
+     */
+    @Nonnull
+    public CheckStatus getEffectiveCondition() {
+        return null == condition || consecutiveFailures > 0 ? CheckStatus.OUTAGE : condition;
+    }
+}
@@ -0,0 +1,230 @@
+package com.indeed.status.aggregator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckResult;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.ImmutableDependencyManagerParams;
+import com.indeed.status.core.SimpleDependency;
+import com.indeed.status.core.Urgency;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FleetAggregatorTest {
+    private HttpServer server;
+    private FleetAggregator aggregator;
+
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicBoolean searchDown = new AtomicBoolean();
+
+    @Before
+    public void setUp() throws Exception {
+        final byte[] search =
+                new ObjectMapper().writeValueAsBytes(newReport("search", CheckStatus.OK));
+        final byte[] billing =
+                gzip(
+                        new ObjectMapper(new SmileFactory())
+                                .writeValueAsBytes(newReport("billing", CheckStatus.MAJOR)));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/search",
+                exchange -> {
+                    if (searchDown.get()) {
+                        send(exchange, 503, "text/html", "<html>Unavailable</html>".getBytes());
+                    } else if ("\"v1\""
+                            .equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        exchange.close();
+                    } else {
+                        exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                        send(exchange, 200, "application/json", search);
+                    }
+                });
+        server.createContext(
+                "/billing",
+                exchange -> {
+                    assertEquals(
+                            FleetAggregator.ACCEPT,
+                            exchange.getRequestHeaders().getFirst("Accept"));
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    // Unhealthy systems answer with an error code, but still send the report.
+                    send(exchange, 512, FleetAggregator.CONTENT_TYPE_SMILE, billing);
+                });
+        server.createContext(
+                "/down", exchange -> send(exchange, 503, "text/plain", "down".getBytes()));
+        server.start();
+
+        aggregator = FleetAggregator.newBuilder().setMaxConcurrency(2).setTimeout(2000).build();
+    }
+
+    @After
+    public void tearDown() {
+        aggregator.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testAggregatesByAppAndHost() throws Exception {
+        aggregator.addTarget(url("/search"));
+        aggregator.addTarget(url("/billing"));
+        aggregator.addTarget(url("/down"));
+        aggregator.pollNow().get();
+
+        final FleetStatus fleet = aggregator.getFleetStatus();
+        assertEquals(ImmutableSet.of("billing", "search"), fleet.getApps().keySet());
+        assertEquals(
+                ImmutableMap.of("billing", CheckStatus.MAJOR, "search", CheckStatus.OK),
+                fleet.getConditions());
+
+        final HostStatus search = fleet.getApps().get("search").values().iterator().next();
+        assertTrue(search.getHost().endsWith(":" + server.getAddress().getPort()));
+        assertEquals(ImmutableMap.of("mysql", CheckStatus.OK), search.getDependencies());
+
+        final HostStatus billing = fleet.getApps().get("billing").values().iterator().next();
+        assertEquals(ImmutableMap.of("mysql", CheckStatus.MAJOR), billing.getDependencies());
+
+        assertEquals(1, fleet.getUnreported().size());
+        final HostStatus down = fleet.getUnreported().get(0);
+        assertEquals(url("/down").toExternalForm(), down.getUrl());
+        assertEquals(1, down.getConsecutiveFailures());
+        assertNotNull(down.getError());
+
+        // The fleet status is rebuilt only once an endpoint changes.
+        assertTrue(fleet == aggregator.getFleetStatus());
+    }
+
+    @Test
+    public void testConditionalPolls() throws Exception {
+        aggregator.addTarget(url("/search"));
+        aggregator.pollNow().get();
+        aggregator.pollNow().get();
+
+        assertEquals(1, notModified.get());
+        final FleetStatus fleet = aggregator.getFleetStatus();
+        aggregator.pollNow().get();
+        assertEquals(2, notModified.get());
+        // Unchanged reports do not rebuild the fleet status.
+        assertTrue(fleet == aggregator.getFleetStatus());
+
+        final HostStatus search = aggregator.getHostStatus(url("/search"));
+        assertEquals(CheckStatus.OK, search.getCondition());
+        assertEquals(0, search.getConsecutiveFailures());
+        assertNull(search.getError());
+    }
+
+    @Test
+    public void testFailedPollKeepsReport() throws Exception {
+        aggregator.addTarget(url("/search"));
+        aggregator.pollNow().get();
+        searchDown.set(true);
+        aggregator.pollNow().get();
+
+        final HostStatus search = aggregator.getHostStatus(url("/search"));
+        assertEquals(CheckStatus.OK, search.getCondition());
+        assertEquals(1, search.getConsecutiveFailures());
+        assertEquals(CheckStatus.OUTAGE, search.getEffectiveCondition());
+        final FleetStatus failing = aggregator.getFleetStatus();
+        assertEquals(CheckStatus.OUTAGE, failing.getCondition("search"));
+
+        // Further failures do not change the fleet status, however many.
+        aggregator.pollNow().get();
+        assertEquals(2, aggregator.getHostStatus(url("/search")).getConsecutiveFailures());
+        assertTrue(failing == aggregator.getFleetStatus());
+
+        searchDown.set(false);
+        aggregator.pollNow().get();
+        assertEquals(CheckStatus.OK, aggregator.getFleetStatus().getCondition("search"));
+    }
+
+    @Test
+    public void testBackoff() {
+        final FleetAggregator backoff =
+                FleetAggregator.newBuilder().setPollPeriod(1000).setMaxBackoff(5000).build();
+        try {
+            assertEquals(1000, backoff.getDelay(0));
+            assertEquals(2000, backoff.getDelay(1));
+            assertEquals(4000, backoff.getDelay(2));
+            assertEquals(5000, backoff.getDelay(3));
+            assertEquals(5000, backoff.getDelay(Integer.MAX_VALUE));
+        } finally {
+            backoff.shutdown();
+        }
+    }
+
+    @Test
+    public void testRemoveTarget() throws Exception {
+        assertTrue(aggregator.addTarget(url("/search")));
+        assertFalse(aggregator.addTarget(url("/search")));
+        aggregator.pollNow().get();
+        assertEquals(1, aggregator.getFleetStatus().getApps().size());
+
+        assertTrue(aggregator.removeTarget(url("/search")));
+        assertNull(aggregator.getHostStatus(url("/search")));
+        assertTrue(aggregator.getFleetStatus().getApps().isEmpty());
+    }
+
+    private URL url(final String path) throws IOException {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static Object newReport(final String appName, final CheckStatus status) {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder().appName(appName).build()) {};
+        try {
+            manager.addDependency(
+                    SimpleDependency.newBuilder()
+                            .setId("mysql")
+                            .setUrgency(Urgency.REQUIRED)
+                            .setCheckMethod(d -> CheckResult.newBuilder(d, status, "").build())
+                            .build());
+            return manager.evaluate().summarizeBySystemReporter(true);
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (final OutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static void send(
+            final HttpExchange exchange,
+            final int code,
+            final String contentType,
+            final byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -2,10 +2,14 @@ package com.indeed.status.core;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * The {@link AbstractDependency} provides a convenience base class for implementers of the {@link
@@ -63,6 +67,7 @@ public abstract class AbstractDependency implements Dependency {
         this.type = type;
         this.servicePool = servicePool;
         this.documentationUrl = DEFAULT_DOCUMENTATION_URL;
+        this.tags = ImmutableSet.of();
     }
 
     protected AbstractDependency(
@@ -75,6 +80,7 @@ public abstract class AbstractDependency implements Dependency {
         this.type = Preconditions.checkNotNull(builder.getType(), "Missing type");
         this.servicePool = Strings.nullToEmpty(builder.getServicePool());
         this.documentationUrl = Strings.nullToEmpty(builder.getDocumentationUrl());
+        this.tags = ImmutableSet.copyOf(builder.getTags());
     }
 
     @Override
@@ -116,6 +122,12 @@ public abstract class AbstractDependency implements Dependency {
         return servicePool;
     }
 
+    @Nonnull
+    @Override
+    public Set<String> getTags() {
+        return tags;
+    }
+
     public String toString() {
         final StringBuilder sb = new StringBuilder();
         sb.append("Dependency");
@@ -135,6 +147,7 @@ public abstract class AbstractDependency implements Dependency {
     private final DependencyType type;
     private final String servicePool;
     private final String documentationUrl;
+    private final Set<String> tags;
 
     public abstract static class Builder<T extends AbstractDependency, B extends Builder<T, B>> {
         /** @deprecated Direct field access deprecated; use {@link #getId()} instead. */
@@ -156,6 +169,8 @@ public abstract class AbstractDependency implements Dependency {
          */
         @Nonnull protected String documentationUrl = DEFAULT_DOCUMENTATION_URL;
 
+        @Nonnull private final Set<String> tags = new LinkedHashSet<>();
+
         protected Builder() {}
 
         public abstract AbstractDependency build();
@@ -262,6 +277,28 @@ public abstract class AbstractDependency implements Dependency {
             return cast();
         }
 
+        @Nonnull
+        protected Set<String> getTags() {
+            return tags;
+        }
+
+        @Nonnull
+        public B addTag(@Nonnull final String tag) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(tag), "Tags must be non-empty");
+            this.tags.add(tag);
+            return cast();
+        }
+
+        /** Replaces any tags added so far with the given tags. */
+        @Nonnull
+        public B setTags(@Nonnull final Collection<String> tags) {
+            this.tags.clear();
+            for (final String tag : tags) {
+                addTag(tag);
+            }
+            return cast();
+        }
+
         private B cast() {
             //noinspection unchecked
             return (B) this;
@@ -2,6 +2,7 @@ package com.indeed.status.core;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.indeed.util.core.time.WallClock;
@@ -13,11 +14,21 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -25,6 +36,7 @@ import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -38,6 +50,7 @@ public abstract class AbstractDependencyManager
     private static final int DEFAULT_PING_PERIOD = 30 * 1000; // 30 seconds
     private static final AtomicInteger DEFAULT_THREAD_POOL_COUNT = new AtomicInteger(1);
     private static final AtomicInteger MANAGEMENT_THREAD_POOL_COUNT = new AtomicInteger(1);
+    private static final AtomicInteger WARM_UP_THREAD_POOL_COUNT = new AtomicInteger(1);
 
     @Nonnull private final Logger log;
     @Nullable private final String appName;
@@ -54,12 +67,13 @@ public abstract class AbstractDependencyManager
     /// Delegate for handling event propagation
     private final StatusUpdateDelegate updateHandler = new StatusUpdateDelegate();
 
-    /// Collection of all dependencies governed by this manager. The keys of this map are the unique
-    ///  String identifiers of each dependency. The values are the immutable objects representing
-    // the
-    ///  canonical view of each dependency. This map does <em>not</em> indicate the current status
-    ///  of dependencies, but rather the set of dependencies that are registered with the system.
-    @Nonnull private final ConcurrentMap<String, Dependency> dependencies = Maps.newConcurrentMap();
+    /// Snapshot of all dependencies governed by this manager, keyed by their unique String
+    ///  identifiers. The snapshot does <em>not</em> indicate the current status of dependencies,
+    ///  but rather the set of dependencies that are registered with the system. It is replaced,
+    ///  never modified, with registryLock held.
+    @Nonnull private volatile RegistrySnapshot registry = RegistrySnapshot.EMPTY;
+
+    @Nonnull private final Object registryLock = new Object();
 
     /// Collection of all dependency pingers that have been created to monitor the health of a
     // dependency.
@@ -68,6 +82,28 @@ public abstract class AbstractDependencyManager
     private final ConcurrentMap<String, ScheduledFuture<?>> dependencyPingers =
             Maps.newConcurrentMap();
 
+    /// Prerequisite edges between the registered dependencies, keyed by dependency id.
+    @Nonnull private final DependencyGraph graph = new DependencyGraph();
+
+    /// File holding the most recent results across restarts, if enabled.
+    @Nullable private final File snapshotFile;
+
+    /// Results loaded from the snapshot file on startup, keyed by dependency id.
+    @Nonnull
+    private final ConcurrentMap<String, ResultSnapshot.Entry> restoredResults =
+            Maps.newConcurrentMap();
+
+    /// Overall status of the background-pinged dependencies, maintained as their checks complete.
+    @Nonnull private final ReadinessTracker readiness = new ReadinessTracker();
+
+    /// Check counts and durations of the background-pinged dependencies.
+    @Nonnull private final DependencyMetrics metrics = new DependencyMetrics();
+
+    /// Progress of the most recent warm-up.
+    private final AtomicInteger warmUpPending = new AtomicInteger();
+    private final AtomicInteger warmUpCompleted = new AtomicInteger();
+    private volatile boolean warmUpComplete;
+
     private long pingPeriod = DEFAULT_PING_PERIOD;
 
     public static class Qualifiers {
@@ -289,6 +325,18 @@ public abstract class AbstractDependencyManager
         this.threadPool = params.threadPool();
 
         this.checker = params.checker();
+        this.warmUpComplete = !params.requireWarmUp();
+
+        this.snapshotFile = params.snapshotFile();
+        if (null != snapshotFile) {
+            loadSnapshot();
+
+            final long snapshotPeriod = params.snapshotPeriod();
+            if (snapshotPeriod > 0) {
+                executor.scheduleWithFixedDelay(
+                        this::saveSnapshot, snapshotPeriod, snapshotPeriod, TimeUnit.MILLISECONDS);
+            }
+        }
 
         VarExporter.forNamespace(getClass().getSimpleName()).includeInGlobal().export(this, "");
     }
@@ -362,24 +410,35 @@ public abstract class AbstractDependencyManager
 
     @SuppressWarnings("UnusedDeclaration")
     public Collection<String> getDependencyIds() {
-        return Collections.unmodifiableCollection(dependencies.keySet());
+        return registry.dependencies.keySet();
     }
 
     @Nonnull
     public CheckResultSet evaluate() {
-        return evaluate(getDependencies());
+        final RegistrySnapshot snapshot = registry;
+        return evaluate(snapshot.dependencies.values(), snapshot.slots);
     }
 
     @Nullable
     public CheckResult evaluate(@Nonnull final String id) {
         final Dependency dependency =
-                checkNotNull(dependencies.get(id), "Missing dependency '%s'", id);
-        return evaluate(Collections.singleton(dependency)).get(id);
+                checkNotNull(registry.dependencies.get(id), "Missing dependency '%s'", id);
+        return evaluate(Collections.singleton(dependency), null).get(id);
+    }
+
+    /** Evaluates only the dependencies selected by the given query, in one result set. */
+    @Nonnull
+    public CheckResultSet evaluate(@Nonnull final TagQuery query) {
+        final RegistrySnapshot snapshot = registry;
+        final Collection<Dependency> selected = select(snapshot, query);
+        return evaluate(selected, snapshot.slotsOf(selected));
     }
 
     @Nonnull
-    private CheckResultSet evaluate(Collection<Dependency> dependencies) {
-        final CheckResultSet result = checker.evaluate(dependencies);
+    private CheckResultSet evaluate(
+            @Nonnull final Collection<Dependency> dependencies,
+            @Nullable final Map<String, Integer> slots) {
+        final CheckResultSet result = checker.evaluate(dependencies, graph, slots);
 
         result.setAppName(appName);
 
@@ -393,24 +452,136 @@ public abstract class AbstractDependencyManager
      * @param dependency
      */
     public void launchPinger(final Dependency dependency) {
+        final DependencyPinger pinger = preparePinger(dependency);
+
+        // Register first, so that the id is known to be unique and the dependency has joined its
+        // group by the time it is first pinged.
+        addDependency(pinger);
+
+        synchronized (registryLock) {
+            // Unless removed meanwhile, in which case the removal has released it already.
+            if (registry.dependencies.get(pinger.getId()) == pinger) {
+                readiness.onAdded(pinger);
+                dependencyPingers.computeIfAbsent(pinger.getId(), dependencyId -> schedule(pinger));
+            }
+        }
+    }
+
+    // Creates the pinger of the given dependency, ready to be registered and scheduled.
+    @Nonnull
+    private DependencyPinger preparePinger(@Nonnull final Dependency dependency) {
         final DependencyPinger pinger = newPingerFor(dependency);
 
+        // Serve the result from before the restart until the first ping completes.
+        final ResultSnapshot.Entry restored = restoredResults.get(dependency.getId());
+        if (null != restored) {
+            pinger.restore(restored.toResult(pinger));
+        }
+
         // Add a listener so that objects that want to listen for updates to ANY dependency
         // can do so. Note that this is done ONLY for background-pinger type dependency
         // checks, because it makes less sense to monitor checks that are evaluated
         // unpredictably.
         pinger.addListener(updateHandler);
+        pinger.addListener(readiness);
+        pinger.addListener(metrics);
+        metrics.onAdded(pinger);
 
-        // Note: we can assume the id is unique and the dependency is not duplicated because of the
-        // check
-        // in AbstractDependencyManager#addDependency
-        dependencyPingers.computeIfAbsent(
-                dependency.getId(),
-                dependencyId ->
-                        executor.scheduleWithFixedDelay(
-                                pinger, 0, pinger.getPingPeriod(), TimeUnit.MILLISECONDS));
+        return pinger;
+    }
 
-        addDependency(pinger);
+    @Nonnull
+    private ScheduledFuture<?> schedule(@Nonnull final DependencyPinger pinger) {
+        return executor.scheduleWithFixedDelay(
+                pinger, 0, pinger.getPingPeriod(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replaces the registered dependencies with the given ones in a single step. Dependencies whose
+     * ids are not yet registered are launched as background pingers; registered dependencies whose
+     * ids are absent are removed. Registered dependencies whose ids are present are kept as they
+     * are, along with their pingers and results.
+     *
+     * <p>The change is published at once, so an evaluation running concurrently covers either the
+     * registered dependencies from before the call or those from after it, never a mix.
+     *
+     * @throws IllegalArgumentException if two of the given dependencies share an id.
+     */
+    public void reconcile(@Nonnull final Collection<? extends Dependency> dependencies) {
+        reconcile(null, dependencies);
+    }
+
+    /**
+     * Like {@link #reconcile(Collection)}, but removes only the registered dependencies selected by
+     * the given query, so that several independently discovered sets of dependencies can be
+     * maintained side by side, each under its own tag.
+     */
+    public void reconcile(
+            @Nullable final TagQuery scope,
+            @Nonnull final Collection<? extends Dependency> dependencies) {
+        final Map<String, Dependency> desired = Maps.newLinkedHashMap();
+        for (final Dependency dependency : dependencies) {
+            Preconditions.checkArgument(
+                    null == desired.put(dependency.getId(), dependency),
+                    "Can't have two dependencies with the same ID [%s]. Check your setup.",
+                    dependency.getId());
+        }
+
+        final List<Dependency> removed = Lists.newArrayList();
+        final List<DependencyPinger> added = Lists.newArrayList();
+        synchronized (registryLock) {
+            final RegistrySnapshot current = registry;
+            for (final Dependency existing : current.dependencies.values()) {
+                if (!desired.containsKey(existing.getId())
+                        && (null == scope || scope.matches(existing.getTags()))) {
+                    removed.add(existing);
+                }
+            }
+            for (final Dependency dependency : desired.values()) {
+                if (!current.dependencies.containsKey(dependency.getId())) {
+                    added.add(preparePinger(dependency));
+                }
+            }
+
+            for (int i = 0; i < added.size(); i++) {
+                try {
+                    joinGroup(added.get(i));
+                } catch (final RuntimeException e) {
+                    for (final DependencyPinger joined : added.subList(0, i)) {
+                        leaveGroup(joined);
+                    }
+                    throw e;
+                }
+            }
+            registry = current.apply(Lists.transform(removed, Dependency::getId), added);
+
+            // Schedule and cancel under the lock, so that a concurrent removal of an added id
+            // cannot run in between and leave its pinger scheduled.
+            for (final Dependency dependency : removed) {
+                cancelPinger(dependency.getId());
+                leaveGroup(dependency);
+            }
+            for (final DependencyPinger pinger : added) {
+                readiness.onAdded(pinger);
+                dependencyPingers.computeIfAbsent(pinger.getId(), dependencyId -> schedule(pinger));
+            }
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            log.info(
+                    "Reconciled dependencies: "
+                            + added.size()
+                            + " added, "
+                            + removed.size()
+                            + " removed.");
+        }
+
+        for (final Dependency dependency : removed) {
+            release(dependency);
+        }
+        for (final DependencyPinger pinger : added) {
+            updateHandler.onAdded(pinger);
+        }
     }
 
     protected DependencyPinger newPingerFor(final Dependency dependency) {
@@ -425,6 +596,8 @@ public abstract class AbstractDependencyManager
                                     .dependency(dependency)
                                     .pingPeriod(pingPeriod)
                                     .checker(checker)
+                                    .graph(graph)
+                                    .prerequisiteResults(this::getLastResult)
                                     .build());
 
         } else {
@@ -434,31 +607,67 @@ public abstract class AbstractDependencyManager
                             ImmutableDependencyPingerParams.builder()
                                     .dependency(dependency)
                                     .checker(checker)
+                                    .graph(graph)
+                                    .prerequisiteResults(this::getLastResult)
                                     .build());
         }
         return pinger;
     }
 
     public Dependency getDependency(final String id) {
-        return dependencies.get(id);
+        return registry.dependencies.get(id);
+    }
+
+    /**
+     * Declares that the dependency <code>dependentId</code> cannot be available unless the
+     * dependency <code>prerequisiteId</code> is. Evaluations check prerequisites first, and skip
+     * dependents of a prerequisite in OUTAGE, reporting the prerequisite as the root cause. Either
+     * dependency may be registered before or after the edge is declared.
+     *
+     * @throws IllegalArgumentException if the edge would introduce a cycle.
+     */
+    public void addPrerequisite(
+            @Nonnull final String dependentId, @Nonnull final String prerequisiteId) {
+        graph.addEdge(dependentId, prerequisiteId);
+    }
+
+    @Nonnull
+    public DependencyGraph getDependencyGraph() {
+        return graph;
+    }
+
+    // The most recent background result for the given dependency, if it is pinged.
+    @Nullable
+    private CheckResult getLastResult(@Nonnull final String id) {
+        final Dependency dependency = registry.dependencies.get(id);
+        return dependency instanceof DependencyPinger
+                ? ((DependencyPinger) dependency).getLastResult()
+                : null;
     }
 
     public void addDependency(final Dependency dependency) {
         final Dependency dependencyToAdd;
 
-        if (checker.getThrottle() && !(dependency instanceof DependencyPinger)) {
+        // Asynchronous checks hold no thread, so they are not throttled.
+        if (checker.getThrottle()
+                && !(dependency instanceof DependencyPinger)
+                && !(dependency instanceof AsyncDependency)) {
             dependencyToAdd = new ThrottledDependencyWrapper(dependency);
         } else {
             dependencyToAdd = dependency;
         }
 
-        final Dependency existing =
-                dependencies.putIfAbsent(dependencyToAdd.getId(), dependencyToAdd);
+        synchronized (registryLock) {
+            final RegistrySnapshot current = registry;
+            Preconditions.checkState(
+                    !current.dependencies.containsKey(dependencyToAdd.getId()),
+                    "Can't have two dependencies with the same ID [%s]. Check your setup.",
+                    dependencyToAdd.getId());
 
-        Preconditions.checkState(
-                null == existing,
-                "Can't have two dependencies with the same ID [%s]. Check your setup.",
-                dependencyToAdd.getId());
+            joinGroup(dependencyToAdd);
+            registry =
+                    current.apply(Collections.emptyList(), Collections.singleton(dependencyToAdd));
+        }
 
         // Direct this through the update-handler so that we don't inadvertently alert ourselves
         // that we added a dependency
@@ -466,23 +675,119 @@ public abstract class AbstractDependencyManager
     }
 
     public Dependency removeDependency(final String id) {
+        final Dependency removedDependency;
+        synchronized (registryLock) {
+            // Cancelled under the lock, so that a pinger scheduled by reconcile is either found
+            // here or scheduled only after the removal.
+            cancelPinger(id);
+
+            final RegistrySnapshot current = registry;
+            removedDependency = current.dependencies.get(id);
+            registry = current.apply(Collections.singleton(id), Collections.emptyList());
+            // Left under the lock, so that group membership follows the registry and a
+            // replacement with the same id can join as soon as this one is removed.
+            if (removedDependency != null) {
+                leaveGroup(removedDependency);
+            }
+        }
+
+        if (removedDependency != null) {
+            release(removedDependency);
+        } else {
+            // Prerequisites and restored results may be held for ids never registered.
+            graph.remove(id);
+            restoredResults.remove(id);
+        }
+
+        return removedDependency;
+    }
+
+    // Cancel all future pings for this dependency, interrupting any current pings
+    private void cancelPinger(@Nonnull final String id) {
         final ScheduledFuture<?> pinger = dependencyPingers.remove(id);
-        // Cancel all future pings for this dependency, interrupting any current pings
         if (pinger != null) {
             pinger.cancel(true);
         }
+    }
 
-        final Dependency removedDependency = dependencies.remove(id);
+    // Releases the state held for a dependency no longer registered.
+    private void release(@Nonnull final Dependency removedDependency) {
+        graph.remove(removedDependency.getId());
+        restoredResults.remove(removedDependency.getId());
+        readiness.onRemoved(removedDependency);
+        metrics.onRemoved(removedDependency);
+        updateHandler.onRemoved(removedDependency);
+    }
 
-        if (removedDependency != null) {
-            updateHandler.onRemoved(removedDependency);
+    // Have the group of an added grouped dependency probe on its behalf.
+    private static void joinGroup(@Nonnull final Dependency dependency) {
+        final GroupedDependency member = asGroupMember(dependency);
+        if (null != member) {
+            member.getGroup().register(member);
         }
+    }
 
-        return removedDependency;
+    // Stop the group of a removed grouped dependency from probing on its behalf.
+    private static void leaveGroup(@Nonnull final Dependency dependency) {
+        final GroupedDependency member = asGroupMember(dependency);
+        if (null != member) {
+            member.getGroup().unregister(member);
+        }
+    }
+
+    @Nullable
+    private static GroupedDependency asGroupMember(@Nonnull final Dependency dependency) {
+        if (dependency instanceof DependencyPinger) {
+            return asGroupMember(((DependencyPinger) dependency).getDependency());
+        } else if (dependency instanceof ThrottledDependencyWrapper) {
+            return asGroupMember(((ThrottledDependencyWrapper) dependency).getDependency());
+        } else if (dependency instanceof CachingDependency) {
+            return asGroupMember(((CachingDependency) dependency).getDependency());
+        } else if (dependency instanceof GroupedDependency) {
+            return (GroupedDependency) dependency;
+        }
+        return null;
     }
 
     public Collection<Dependency> getDependencies() {
-        return Collections.unmodifiableCollection(dependencies.values());
+        return registry.dependencies.values();
+    }
+
+    /** @return The registered dependencies selected by the given query. */
+    @Nonnull
+    public Collection<Dependency> getDependencies(@Nonnull final TagQuery query) {
+        return select(registry, query);
+    }
+
+    @Nonnull
+    private static Collection<Dependency> select(
+            @Nonnull final RegistrySnapshot snapshot, @Nonnull final TagQuery query) {
+        // Any-of queries visit the ids under each tag; all-of queries need only the smallest.
+        final List<Set<String>> candidates = Lists.newArrayList();
+        for (final String tag : query.getTags()) {
+            final Set<String> ids = snapshot.tagIndex.get(tag);
+            if (!ids.isEmpty()) {
+                candidates.add(ids);
+            } else if (query.isAll()) {
+                return Collections.emptyList();
+            }
+        }
+        if (query.isAll() && !candidates.isEmpty()) {
+            candidates.sort((a, b) -> Integer.compare(a.size(), b.size()));
+            candidates.subList(1, candidates.size()).clear();
+        }
+
+        final Map<String, Dependency> selected = Maps.newLinkedHashMap();
+        for (final Set<String> ids : candidates) {
+            for (final String id : ids) {
+                final Dependency dependency = snapshot.dependencies.get(id);
+                // All-of queries must check the other tags.
+                if (query.matches(dependency.getTags())) {
+                    selected.put(id, dependency);
+                }
+            }
+        }
+        return selected.values();
     }
 
     @Override
@@ -530,15 +835,255 @@ public abstract class AbstractDependencyManager
     /*@Override todo(cameron)*/
     @PreDestroy
     public void shutdown() {
+        saveSnapshot();
         this.checker.shutdown();
         this.executor.shutdownNow();
     }
 
+    /**
+     * Liveness covers only the state of this process and never touches a dependency, so it is cheap
+     * enough to be probed as often as desired. A process that is not live should be restarted.
+     *
+     * @return OK if {@link #isAlive()}, or OUTAGE otherwise.
+     */
+    @Nonnull
+    public CheckStatus getLivenessStatus() {
+        return isAlive() ? CheckStatus.OK : CheckStatus.OUTAGE;
+    }
+
+    /**
+     * Override to add in-process conditions to liveness, such as the state of a critical worker
+     * thread. Implementations must not block or perform I/O.
+     */
+    protected boolean isAlive() {
+        return !executor.isShutdown();
+    }
+
+    /**
+     * Readiness is the overall status of the background-pinged dependencies as of their most recent
+     * pings, maintained as each ping completes, so reading it costs no evaluation. A pinger with no
+     * result yet counts as an OUTAGE, and until warm-up is complete, the process is reported in
+     * OUTAGE. A process that is not ready should receive no traffic.
+     *
+     * @see #isWarmUpComplete()
+     */
+    @Nonnull
+    public CheckStatus getReadinessStatus() {
+        return isWarmUpComplete() ? readiness.getStatus() : CheckStatus.OUTAGE;
+    }
+
+    /**
+     * @return Check counts and durations of the background-pinged dependencies, accumulated as each
+     *     ping completes.
+     */
+    @Nonnull
+    public DependencyMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs the first check of every background pinger that has no result of its own yet, several at
+     * a time, rather than waiting for the management thread to reach each one in turn.
+     *
+     * <p>Each check runs on the checker pool, within the timeout of its dependency, and is waited
+     * for by a thread of a pool of its own, created for the warm-up. The number of concurrent
+     * checks is kept to half of the maximum size of the checker pool, so that the other half
+     * remains for the live and background checks that also draw from it. Checks still running at
+     * the deadline are allowed to finish in the background; checks not yet started are skipped and
+     * left to their regular pings.
+     *
+     * @return true if every check completed before the deadline.
+     */
+    public boolean warmUp(@Nonnull final Duration deadline) throws InterruptedException {
+        return warmUp(deadline, Math.max(1, threadPool.getMaximumPoolSize() / 2));
+    }
+
+    /**
+     * @param parallelism The maximum number of checks to run at once, further limited to half of
+     *     the maximum size of the checker pool.
+     * @see #warmUp(Duration)
+     */
+    public boolean warmUp(@Nonnull final Duration deadline, final int parallelism)
+            throws InterruptedException {
+        Preconditions.checkArgument(parallelism > 0, "Parallelism must be positive");
+
+        final List<DependencyPinger> pingers = Lists.newArrayList();
+        for (final Dependency dependency : registry.dependencies.values()) {
+            if (dependency instanceof DependencyPinger
+                    && needsWarmUp((DependencyPinger) dependency)) {
+                pingers.add((DependencyPinger) dependency);
+            }
+        }
+
+        warmUpComplete = false;
+        warmUpPending.set(pingers.size());
+        warmUpCompleted.set(0);
+        if (pingers.isEmpty()) {
+            return true;
+        }
+
+        final Queue<DependencyPinger> queue = new ConcurrentLinkedQueue<>(pingers);
+        final CountDownLatch remaining = new CountDownLatch(pingers.size());
+        final AtomicBoolean expired = new AtomicBoolean(false);
+        final Runnable worker =
+                () -> {
+                    DependencyPinger pinger;
+                    while (null != (pinger = queue.poll())) {
+                        try {
+                            if (!expired.get()) {
+                                if (needsWarmUp(pinger)) {
+                                    pinger.ping().join();
+                                }
+                                warmUpCompleted.incrementAndGet();
+                            }
+                        } finally {
+                            warmUpPending.decrementAndGet();
+                            remaining.countDown();
+                        }
+                    }
+                };
+
+        final int workers =
+                Math.min(
+                        pingers.size(),
+                        Math.min(parallelism, Math.max(1, threadPool.getMaximumPoolSize() / 2)));
+        // The waiting is done off the checker pool, so that each check takes a single thread of it.
+        final ExecutorService waiters =
+                Executors.newFixedThreadPool(
+                        workers,
+                        new ThreadFactoryBuilder()
+                                .setNameFormat(
+                                        "dependency-warm-up-"
+                                                + WARM_UP_THREAD_POOL_COUNT.getAndIncrement()
+                                                + "-thread-%d")
+                                .setDaemon(true)
+                                .build());
+
+        final long start = getWallClock().currentTimeMillis();
+        try {
+            for (int i = 0; i < workers; i++) {
+                waiters.execute(worker);
+            }
+
+            final boolean completed = remaining.await(deadline.toMillis(), TimeUnit.MILLISECONDS);
+            log.info(
+                    "Warmed up "
+                            + warmUpCompleted.get()
+                            + " of "
+                            + pingers.size()
+                            + " dependencies in "
+                            + (getWallClock().currentTimeMillis() - start)
+                            + " ms.");
+            return completed;
+
+        } finally {
+            // Checks already started finish in the background; the others are skipped.
+            expired.set(true);
+            waiters.shutdown();
+        }
+    }
+
+    private static boolean needsWarmUp(@Nonnull final DependencyPinger pinger) {
+        return null == pinger.getLastResult() || pinger.isProvisional();
+    }
+
+    /**
+     * @return false while a warm-up requested by {@link #warmUp} or required by the manager
+     *     parameters is waiting for a pinger to complete its first check.
+     */
+    @Export(name = "warm-up-complete")
+    public boolean isWarmUpComplete() {
+        if (!warmUpComplete) {
+            boolean warmedUp = false;
+            for (final Dependency dependency : registry.dependencies.values()) {
+                if (dependency instanceof DependencyPinger) {
+                    if (needsWarmUp((DependencyPinger) dependency)) {
+                        return false;
+                    }
+                    warmedUp = true;
+                }
+            }
+            // Latch, so that pingers launched later do not revoke it, but only once a pinger was
+            //  waited for, so that probes before the pingers are launched do not skip the warm-up.
+            if (warmedUp) {
+                warmUpComplete = true;
+            }
+        }
+        return true;
+    }
+
+    @Export(name = "warm-up-pending", doc = "Dependencies awaiting their warm-up check")
+    public int getWarmUpPending() {
+        return warmUpPending.get();
+    }
+
+    @Export(name = "warm-up-completed", doc = "Dependencies done with their warm-up check")
+    public int getWarmUpCompleted() {
+        return warmUpCompleted.get();
+    }
+
+    /**
+     * Saves the most recent result of every background-pinged dependency to the snapshot file, if
+     * one is configured. Called periodically and on shutdown.
+     */
+    public void saveSnapshot() {
+        if (null == snapshotFile) {
+            return;
+        }
+
+        final ResultSnapshot snapshot = new ResultSnapshot();
+        snapshot.savedAt = getWallClock().currentTimeMillis();
+
+        for (final Dependency dependency : registry.dependencies.values()) {
+            if (!(dependency instanceof DependencyPinger)) {
+                continue;
+            }
+
+            final DependencyPinger pinger = (DependencyPinger) dependency;
+            final CheckResult lastResult = pinger.getLastResult();
+            final ResultSnapshot.Entry restored = restoredResults.get(pinger.getId());
+
+            if (null != lastResult && !pinger.isProvisional()) {
+                snapshot.results.put(pinger.getId(), ResultSnapshot.Entry.of(lastResult));
+            } else if (null != restored) {
+                // Carry the restored result forward until the dependency has been checked.
+                snapshot.results.put(pinger.getId(), restored);
+            }
+        }
+
+        try {
+            snapshot.write(snapshotFile);
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Unable to save dependency results to " + snapshotFile, e);
+        }
+    }
+
+    private void loadSnapshot() {
+        try {
+            final ResultSnapshot snapshot = ResultSnapshot.read(snapshotFile);
+            if (null != snapshot) {
+                restoredResults.putAll(snapshot.results);
+                log.info(
+                        "Restored "
+                                + snapshot.results.size()
+                                + " dependency results from "
+                                + snapshotFile);
+            }
+        } catch (final IOException | RuntimeException e) {
+            log.warn("Unable to restore dependency results from " + snapshotFile, e);
+        }
+    }
+
     @Export(name = "active-threads")
     public int getActiveDependencyThreads() {
         return threadPool.getActiveCount();
     }
 
+    @Export(name = "max-pool-size")
+    public int getMaxPoolSize() {
+        return threadPool.getMaximumPoolSize();
+    }
+
     @Export(name = "core-pool-size")
     public int getCorePoolSize() {
         return threadPool.getCorePoolSize();
@@ -549,4 +1094,53 @@ public abstract class AbstractDependencyManager
         final BlockingQueue<Runnable> queue = threadPool.getQueue();
         return null == queue ? 0 : queue.size();
     }
+
+    @Export(name = "zombie-threads", doc = "Checks still running after being cancelled")
+    public int getZombieThreads() {
+        int zombies = 0;
+        for (final int count : checker.getZombieCounts().values()) {
+            zombies += count;
+        }
+        return zombies;
+    }
+
+    @Export(
+            name = "dependency-total-successes",
+            doc = "Background checks completed with a status of OK, by dependency id")
+    public Map<String, Long> getTotalSuccessesByDependency() {
+        final Map<String, Long> successes = Maps.newTreeMap();
+        for (final DependencyMetrics.Series series : metrics.getSeries()) {
+            successes.put(series.getId(), series.getChecks(CheckStatus.OK));
+        }
+        return successes;
+    }
+
+    @Export(
+            name = "dependency-total-failures",
+            doc = "Background checks completed with any other status, by dependency id")
+    public Map<String, Long> getTotalFailuresByDependency() {
+        final Map<String, Long> failures = Maps.newTreeMap();
+        for (final DependencyMetrics.Series series : metrics.getSeries()) {
+            failures.put(series.getId(), series.getFailures());
+        }
+        return failures;
+    }
+
+    @Export(
+            name = "dependency-consecutive-failures",
+            doc = "Background checks since the last with a status of OK, by dependency id")
+    public Map<String, Integer> getConsecutiveFailuresByDependency() {
+        final Map<String, Integer> failures = Maps.newTreeMap();
+        for (final DependencyMetrics.Series series : metrics.getSeries()) {
+            failures.put(series.getId(), series.getConsecutiveFailures());
+        }
+        return failures;
+    }
+
+    @Export(
+            name = "zombie-threads-by-dependency",
+            doc = "Checks still running after being cancelled, by dependency id")
+    public Map<String, Integer> getZombieThreadsByDependency() {
+        return checker.getZombieCounts();
+    }
 }
@@ -4,7 +4,9 @@ import com.indeed.util.core.time.WallClock;
 import org.immutables.value.Value;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.indeed.status.core.AbstractDependencyManager.newDefaultThreadPool;
 
@@ -39,14 +41,50 @@ public abstract class AbstractDependencyManagerParams {
         return false;
     }
 
+    /// File to which the most recent results are saved periodically and on shutdown, and from
+    ///  which they are restored as provisional results on startup. Disabled when null.
+    @Nullable
+    public abstract File snapshotFile();
+
+    /// Milliseconds between periodic saves of the snapshot file; non-positive to save only on
+    ///  shutdown.
+    @Value.Default
+    public long snapshotPeriod() {
+        return TimeUnit.MINUTES.toMillis(1);
+    }
+
+    /// Whether the manager reports warm-up as incomplete until {@link
+    ///  AbstractDependencyManager#warmUp} has checked every pinger.
+    @Value.Default
+    public boolean requireWarmUp() {
+        return false;
+    }
+
+    /// Executor running the checks in place of the thread pool, such as a {@link
+    ///  BulkheadDependencyExecutor} isolating the checks of each dependency type.
+    @Nullable
+    public abstract DependencyExecutor dependencyExecutor();
+
+    /// Number of cancelled checks of one dependency allowed to keep running, holding their
+    ///  threads, before further checks of it are refused and it is reported as hung.
+    @Value.Default
+    public int zombieLimit() {
+        return DependencyChecker.DependencyExecutorSet.DEFAULT_ZOMBIE_LIMIT;
+    }
+
     @Value.Default
     public DependencyChecker checker() {
-        return new DependencyChecker(
+        final ImmutableDependencyCheckerParams.Builder params =
                 ImmutableDependencyCheckerParams.builder()
                         .executorService(threadPool())
                         .loggerName(loggerName())
                         .systemReporter(systemReporter())
                         .throttle(throttleDependencyChecks())
-                        .build());
+                        .zombieLimit(zombieLimit());
+        final DependencyExecutor dependencyExecutor = dependencyExecutor();
+        if (null != dependencyExecutor) {
+            params.dependencyExecutor(dependencyExecutor);
+        }
+        return new DependencyChecker(params.build());
     }
 }
@@ -0,0 +1,22 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The asynchronous counterpart of {@link CheckMethod}: starts an evaluation of the given dependency
+ * and returns a stage completed with its result, without blocking the calling thread.
+ *
+ * <p>The method may be triggered by multiple threads simultaneously and thus must be implemented in
+ * a thread-safe manner.
+ *
+ * @see SimpleAsyncDependency
+ */
+public interface AsyncCheckMethod {
+    /**
+     * @param dependency The dependency being executed. Effectively a metadata provider so that the
+     *     ID, description, et cetera, can be recorded on the CheckResult
+     */
+    @Nonnull
+    CompletionStage<CheckResult> call(@Nonnull Dependency dependency);
+}
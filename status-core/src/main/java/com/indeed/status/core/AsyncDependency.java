@@ -0,0 +1,41 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An <code>AsyncDependency</code> is a {@link Dependency} whose check completes a {@link
+ * CompletionStage} rather than occupying a thread until it finishes, so that checks built on
+ * non-blocking clients can be in flight in large numbers on a handful of threads.
+ *
+ * <p>The dependency checker and background pingers start the check on the calling thread and
+ * enforce the {@link #getTimeout() timeout} with a timer of the checker; the stage itself need not
+ * time out. A stage that completes exceptionally is reported as an OUTAGE carrying the exception.
+ *
+ * @see SimpleAsyncDependency
+ */
+@ThreadSafe
+public interface AsyncDependency extends Dependency {
+    /**
+     * Starts the check. Implementations should return promptly, doing any blocking work on a thread
+     * of their own client rather than the calling thread.
+     */
+    @Nonnull
+    CompletionStage<CheckResult> callAsync();
+
+    /** Blocks until the asynchronous check completes, for callers unaware of asynchrony. */
+    @Override
+    default CheckResult call() throws Exception {
+        try {
+            return callAsync().toCompletableFuture().get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The <code>BatchProbe</code> evaluates every member of a {@link DependencyGroup} in one combined
+ * operation against the resource they share, such as a single connection and query against a
+ * database server hosting several pools or collections.
+ *
+ * <p>The probe is executed by at most one thread at a time per group. Members missing from the
+ * returned map are reported in OUTAGE, and an exception thrown by the probe is reported as an
+ * OUTAGE of every member.
+ *
+ * @see DependencyGroup
+ */
+public interface BatchProbe {
+    /**
+     * @param members The dependencies currently registered with the group. Effectively metadata
+     *     providers so that the ID, description, et cetera, can be recorded on each CheckResult
+     * @return The result for each member, keyed by dependency id
+     */
+    @Nonnull
+    Map<String, CheckResult> call(@Nonnull Collection<GroupedDependency> members) throws Exception;
+}
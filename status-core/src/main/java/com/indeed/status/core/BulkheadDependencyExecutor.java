@@ -0,0 +1,318 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.indeed.util.varexport.Export;
+import com.indeed.util.varexport.VarExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The <code>BulkheadDependencyExecutor</code> runs checks on separate, bounded thread pools per
+ * partition of the dependencies, by default per {@link DependencyType}, so that checks hanging on
+ * one unhealthy backend exhaust only the threads of their own partition and cannot starve the
+ * checks of healthy ones.
+ *
+ * <pre>
+ * final DependencyExecutor bulkheads = BulkheadDependencyExecutor.newBuilder()
+ *         .setPartitioner(BulkheadDependencyExecutor.BY_SERVICE_POOL)
+ *         .setDefaultLimit(4)
+ *         .setLimit("mongo-primary", 8)
+ *         .build();
+ * new DependencyManager(ImmutableDependencyManagerParams.builder()
+ *         .dependencyExecutor(bulkheads)
+ *         .build());
+ * </pre>
+ *
+ * <p>Each partition is exported under its own namespace with its limit, active and queued checks,
+ * and the number of checks refused because the partition was saturated.
+ */
+@ThreadSafe
+public class BulkheadDependencyExecutor implements DependencyExecutor {
+    private static final Logger log = LoggerFactory.getLogger(BulkheadDependencyExecutor.class);
+    private static final AtomicInteger BULKHEAD_COUNT = new AtomicInteger();
+
+    /// Partitions dependencies by the name of their type
+    public static final Function<Dependency, String> BY_TYPE =
+            dependency -> String.valueOf(dependency.getType());
+    /// Partitions dependencies by their service pool
+    public static final Function<Dependency, String> BY_SERVICE_POOL =
+            dependency -> String.valueOf(dependency.getServicePool());
+
+    public static final int DEFAULT_LIMIT = 4;
+
+    @Nonnull private final String name;
+    @Nonnull private final Function<Dependency, String> partitioner;
+    private final int defaultLimit;
+    @Nonnull private final Map<String, Integer> limits;
+    private final int queueCapacity;
+    private final int zombieLimit;
+
+    /// Partitions created on first use, keyed by partition key.
+    @Nonnull private final ConcurrentMap<String, Partition> partitions = Maps.newConcurrentMap();
+
+    private volatile boolean shutdown = false;
+
+    private BulkheadDependencyExecutor(@Nonnull final Builder builder) {
+        this.name = builder.name;
+        this.partitioner = builder.partitioner;
+        this.defaultLimit = builder.defaultLimit;
+        this.limits = ImmutableMap.copyOf(builder.limits);
+        this.queueCapacity = builder.queueCapacity;
+        this.zombieLimit = builder.zombieLimit;
+    }
+
+    @Override
+    public Future<CheckResult> submit(final Dependency dependency) {
+        return partitionFor(dependency).submit(dependency);
+    }
+
+    @Override
+    public void resolve(final Dependency dependency) {
+        partitionFor(dependency).executors.resolve(dependency);
+    }
+
+    @Nonnull
+    private Partition partitionFor(@Nonnull final Dependency dependency) {
+        final String key = partitioner.apply(dependency);
+        final Partition existing = partitions.get(key);
+        if (null != existing) {
+            return existing;
+        }
+
+        Preconditions.checkState(!shutdown, "The bulkhead executor has been shut down.");
+        return partitions.computeIfAbsent(key, this::newPartition);
+    }
+
+    @Nonnull
+    private Partition newPartition(@Nonnull final String key) {
+        final Partition partition = new Partition(key, limits.getOrDefault(key, defaultLimit));
+        log.debug("Created bulkhead partition '" + key + "' of " + name + ".");
+        VarExporter.forNamespace(name + "-" + key).includeInGlobal().export(partition, "");
+        return partition;
+    }
+
+    /** @return The partitions created so far, keyed by partition key. */
+    @Nonnull
+    public Map<String, Partition> getPartitions() {
+        return ImmutableMap.copyOf(partitions);
+    }
+
+    @Nonnull
+    @Override
+    public Map<String, Integer> getZombieCounts() {
+        final Map<String, Integer> counts = Maps.newHashMap();
+        for (final Partition partition : partitions.values()) {
+            counts.putAll(partition.executors.getZombieCounts());
+        }
+        return counts;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (final Partition partition : partitions.values()) {
+            partition.executors.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public void awaitTermination(final long duration, final TimeUnit unit)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(duration);
+        for (final Partition partition : partitions.values()) {
+            partition.executors.awaitTermination(
+                    Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** The bounded pool serving one partition of the dependencies. */
+    public class Partition {
+        @Nonnull private final String key;
+        @Nonnull private final ThreadPoolExecutor threadPool;
+        @Nonnull private final DependencyChecker.DependencyExecutorSet executors;
+        @Nonnull private final AtomicLong rejected = new AtomicLong();
+
+        private Partition(@Nonnull final String key, final int limit) {
+            this.key = key;
+
+            final BlockingQueue<Runnable> queue =
+                    queueCapacity > 0
+                            ? new ArrayBlockingQueue<>(queueCapacity)
+                            : new SynchronousQueue<>();
+            this.threadPool =
+                    new ThreadPoolExecutor(
+                            limit,
+                            limit,
+                            30,
+                            TimeUnit.SECONDS,
+                            queue,
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat(name + "-" + key + "-checker-%d")
+                                    .setDaemon(true)
+                                    .build(),
+                            // Refuse checks once the partition is saturated, so that they fail
+                            //  fast rather than queue behind the hung checks.
+                            new AbortPolicy());
+            this.threadPool.allowCoreThreadTimeOut(true);
+            this.executors = new DependencyChecker.DependencyExecutorSet(threadPool, zombieLimit);
+        }
+
+        @Nonnull
+        private Future<CheckResult> submit(@Nonnull final Dependency dependency) {
+            try {
+                return executors.submit(dependency);
+            } catch (final DependencyChecker.HungCheckException e) {
+                // Refused because the dependency is hung, not because the partition is full.
+                throw e;
+            } catch (final IllegalStateException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    rejected.incrementAndGet();
+                    log.warn(
+                            "Bulkhead partition '"
+                                    + key
+                                    + "' is saturated; refusing the check of '"
+                                    + dependency.getId()
+                                    + "'.");
+                }
+                throw e;
+            }
+        }
+
+        @Nonnull
+        public String getKey() {
+            return key;
+        }
+
+        @Export(name = "limit", doc = "Maximum number of concurrent checks in this partition")
+        public int getLimit() {
+            return threadPool.getMaximumPoolSize();
+        }
+
+        @Export(name = "active", doc = "Number of checks running in this partition")
+        public int getActive() {
+            return threadPool.getActiveCount();
+        }
+
+        @Export(name = "queued", doc = "Number of checks waiting for a thread in this partition")
+        public int getQueued() {
+            return threadPool.getQueue().size();
+        }
+
+        @Export(name = "rejected", doc = "Checks refused because this partition was saturated")
+        public long getRejected() {
+            return rejected.get();
+        }
+
+        @Export(
+                name = "zombies",
+                doc = "Checks in this partition still running after being cancelled")
+        public int getZombies() {
+            int zombies = 0;
+            for (final int count : executors.getZombieCounts().values()) {
+                zombies += count;
+            }
+            return zombies;
+        }
+
+        @Export(name = "saturation", doc = "Fraction of the limit of this partition in use")
+        public double getSaturation() {
+            return (double) getActive() / getLimit();
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        @Nonnull private String name = "dependency-bulkhead-" + BULKHEAD_COUNT.getAndIncrement();
+
+        @Nonnull private Function<Dependency, String> partitioner = BY_TYPE;
+        private int defaultLimit = DEFAULT_LIMIT;
+        @Nonnull private final Map<String, Integer> limits = Maps.newHashMap();
+        @Nonnegative private int queueCapacity = 0;
+
+        private int zombieLimit = DependencyChecker.DependencyExecutorSet.DEFAULT_ZOMBIE_LIMIT;
+
+        protected Builder() {}
+
+        /** @param name Prefix of the thread names and exported namespaces of the partitions. */
+        public Builder setName(@Nonnull final String name) {
+            this.name = name;
+            return this;
+        }
+
+        /** @param partitioner Maps each dependency to the key of its partition. */
+        public Builder setPartitioner(@Nonnull final Function<Dependency, String> partitioner) {
+            this.partitioner = partitioner;
+            return this;
+        }
+
+        /** @param limit Concurrent checks allowed per partition without a limit of its own. */
+        public Builder setDefaultLimit(final int limit) {
+            Preconditions.checkArgument(limit > 0, "Limits must be positive");
+            this.defaultLimit = limit;
+            return this;
+        }
+
+        /** @param limit Concurrent checks allowed in the partition with the given key. */
+        public Builder setLimit(@Nonnull final String key, final int limit) {
+            Preconditions.checkArgument(limit > 0, "Limits must be positive");
+            this.limits.put(key, limit);
+            return this;
+        }
+
+        /** @param limit Concurrent checks allowed in the partition of the given type. */
+        public Builder setLimit(@Nonnull final DependencyType type, final int limit) {
+            return setLimit(String.valueOf(type), limit);
+        }
+
+        /**
+         * @param queueCapacity Checks allowed to wait per saturated partition before further checks
+         *     are refused. Zero, the default, refuses checks as soon as the partition is saturated.
+         */
+        public Builder setQueueCapacity(@Nonnegative final int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param zombieLimit Cancelled checks of one dependency allowed to keep running before
+         *     further checks of it are refused.
+         */
+        public Builder setZombieLimit(final int zombieLimit) {
+            Preconditions.checkArgument(zombieLimit > 0, "The zombie limit must be positive");
+            this.zombieLimit = zombieLimit;
+            return this;
+        }
+
+        public BulkheadDependencyExecutor build() {
+            return new BulkheadDependencyExecutor(this);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>BurnRateDependency</code> tracks the failure ratio reported by in-process counters over
+ * several windows at once and maps the rate at which the error budget is being consumed onto a
+ * {@link CheckStatus}.
+ *
+ * <p>The burn rate over a window is the observed failure ratio divided by the failure ratio allowed
+ * by the SLO target, so a burn rate of 1 consumes the error budget exactly over the SLO period.
+ * Each {@link Alert} pairs a long window with a short window, and fires only when both burn faster
+ * than its threshold; the short window lets the alert clear quickly once the failures stop. The
+ * worst status among firing alerts is reported.
+ *
+ * <p>All windows are served from a single ring of fixed-width buckets sized for the longest window.
+ * The counters are sampled on each call, so the bucket width should be no smaller than the ping
+ * period of the dependency.
+ *
+ * @see SlideWindowDependency
+ */
+@ThreadSafe
+public class BurnRateDependency extends AbstractDependency {
+    public static final long DEFAULT_BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    @Nonnull private final CounterSource counterSource;
+    @Nonnull private final WallClock wallClock;
+    @Nonnull private final List<Alert> alerts;
+    private final double allowedFailureRatio;
+    private final long bucketMillis;
+
+    /// Bucket ring shared by every window. Guarded by this.
+    private final long[] bucketIds;
+    private final long[] bucketTotals;
+    private final long[] bucketFailures;
+    private long lastTotal = -1;
+    private long lastFailures = -1;
+
+    /** Source of the cumulative counters sampled by the dependency. */
+    public interface CounterSource {
+        /** @return The number of events observed since the counters were created. */
+        long getTotalCount();
+
+        /** @return The number of failed events observed since the counters were created. */
+        long getFailureCount();
+    }
+
+    /** A status to report when the error budget burns too fast over a pair of windows. */
+    public static final class Alert {
+        @Nonnull private final CheckStatus status;
+        private final double burnRate;
+        private final long longWindowMillis;
+        private final long shortWindowMillis;
+
+        private Alert(
+                @Nonnull final CheckStatus status,
+                final double burnRate,
+                final long longWindowMillis,
+                final long shortWindowMillis) {
+            this.status = status;
+            this.burnRate = burnRate;
+            this.longWindowMillis = longWindowMillis;
+            this.shortWindowMillis = shortWindowMillis;
+        }
+
+        @Nonnull
+        public CheckStatus getStatus() {
+            return status;
+        }
+
+        public double getBurnRate() {
+            return burnRate;
+        }
+
+        public long getLongWindowMillis() {
+            return longWindowMillis;
+        }
+
+        public long getShortWindowMillis() {
+            return shortWindowMillis;
+        }
+    }
+
+    protected BurnRateDependency(@Nonnull final Builder builder) {
+        super(builder);
+
+        this.counterSource =
+                Preconditions.checkNotNull(builder.counterSource, "Missing counter source");
+        this.wallClock = Preconditions.checkNotNull(builder.wallClock, "Missing wall clock");
+        this.alerts = builder.alerts.build();
+        Preconditions.checkArgument(!alerts.isEmpty(), "At least one alert is required");
+        Preconditions.checkArgument(
+                builder.sloTarget > 0 && builder.sloTarget < 1, "SLO target must be in (0, 1)");
+        Preconditions.checkArgument(builder.bucketMillis > 0, "Bucket width must be positive");
+
+        this.allowedFailureRatio = 1 - builder.sloTarget;
+        this.bucketMillis = builder.bucketMillis;
+
+        long longestWindow = 0;
+        for (final Alert alert : alerts) {
+            longestWindow = Math.max(longestWindow, alert.longWindowMillis);
+            longestWindow = Math.max(longestWindow, alert.shortWindowMillis);
+        }
+        final int bucketCount = (int) (bucketsIn(longestWindow) + 1);
+        this.bucketIds = new long[bucketCount];
+        this.bucketTotals = new long[bucketCount];
+        this.bucketFailures = new long[bucketCount];
+    }
+
+    @Override
+    public CheckResult call() throws Exception {
+        final long timestamp = wallClock.currentTimeMillis();
+
+        CheckStatus status = CheckStatus.OK;
+        @Nullable Alert firing = null;
+        double firingBurnRate = 0;
+
+        synchronized (this) {
+            // Sample under the lock, so that concurrent checks record their samples in order; a
+            //  sample older than the last one recorded would pass for a counter reset.
+            final long total = counterSource.getTotalCount();
+            final long failures = counterSource.getFailureCount();
+            final long currentBucket = wallClock.currentTimeMillis() / bucketMillis;
+            record(currentBucket, total, failures);
+
+            for (final Alert alert : alerts) {
+                final double longBurnRate = burnRate(currentBucket, alert.longWindowMillis);
+                final double shortBurnRate = burnRate(currentBucket, alert.shortWindowMillis);
+
+                if (longBurnRate >= alert.burnRate && shortBurnRate >= alert.burnRate) {
+                    final CheckStatus worse = CheckStatus.min(status, alert.status);
+                    if (null == firing || worse != status) {
+                        firing = alert;
+                        firingBurnRate = longBurnRate;
+                    }
+                    status = worse;
+                }
+            }
+        }
+
+        final String errorMessage =
+                null == firing
+                        ? "ok"
+                        : String.format(
+                                Locale.US,
+                                "Error budget burning at %.2fx over %d ms (threshold %.2fx)",
+                                firingBurnRate,
+                                firing.longWindowMillis,
+                                firing.burnRate);
+
+        return CheckResult.newBuilder(this, status, errorMessage)
+                .setTimestamp(timestamp)
+                .setDuration(wallClock.currentTimeMillis() - timestamp)
+                .build();
+    }
+
+    // Attribute the counter deltas since the previous sample to the current bucket.
+    private void record(final long currentBucket, final long total, final long failures) {
+        if (lastTotal < 0) {
+            // Nothing to attribute on the first sample; prior history has no known timing.
+            lastTotal = total;
+            lastFailures = failures;
+            return;
+        }
+
+        // Tolerate counters that were reset underneath us by treating the new value as the delta.
+        final long totalDelta = total >= lastTotal ? total - lastTotal : total;
+        final long failureDelta = failures >= lastFailures ? failures - lastFailures : failures;
+        lastTotal = total;
+        lastFailures = failures;
+
+        final int index = (int) (currentBucket % bucketIds.length);
+        if (bucketIds[index] != currentBucket) {
+            bucketIds[index] = currentBucket;
+            bucketTotals[index] = 0;
+            bucketFailures[index] = 0;
+        }
+        bucketTotals[index] += totalDelta;
+        bucketFailures[index] += failureDelta;
+    }
+
+    private double burnRate(final long currentBucket, final long windowMillis) {
+        final long oldestBucket = currentBucket - bucketsIn(windowMillis) + 1;
+        long total = 0;
+        long failures = 0;
+
+        for (int i = 0; i < bucketIds.length; i++) {
+            final long bucketId = bucketIds[i];
+            if (bucketId >= oldestBucket && bucketId <= currentBucket) {
+                total += bucketTotals[i];
+                failures += bucketFailures[i];
+            }
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+        return ((double) failures / total) / allowedFailureRatio;
+    }
+
+    private long bucketsIn(final long windowMillis) {
+        return Math.max(1, (windowMillis + bucketMillis - 1) / bucketMillis);
+    }
+
+    @Nonnull
+    public List<Alert> getAlerts() {
+        return alerts;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractDependency.Builder<BurnRateDependency, Builder> {
+        @Nullable private CounterSource counterSource;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+        @Nonnull private final ImmutableList.Builder<Alert> alerts = ImmutableList.builder();
+        private double sloTarget = 0.999;
+        @Nonnegative private long bucketMillis = DEFAULT_BUCKET_MILLIS;
+
+        protected Builder() {}
+
+        public Builder setCounterSource(@Nonnull final CounterSource counterSource) {
+            this.counterSource = counterSource;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return this;
+        }
+
+        /** @param sloTarget The fraction of events that are expected to succeed, e.g. 0.999 */
+        public Builder setSloTarget(final double sloTarget) {
+            this.sloTarget = sloTarget;
+            return this;
+        }
+
+        public Builder setBucketMillis(@Nonnegative final long bucketMillis) {
+            this.bucketMillis = bucketMillis;
+            return this;
+        }
+
+        /**
+         * Report the given status when the error budget burns at least <code>burnRate</code> times
+         * faster than allowed over both windows.
+         */
+        public Builder addAlert(
+                @Nonnull final CheckStatus status,
+                final double burnRate,
+                @Nonnegative final long longWindowMillis,
+                @Nonnegative final long shortWindowMillis) {
+            Preconditions.checkArgument(burnRate > 0, "Burn rate must be positive");
+            Preconditions.checkArgument(
+                    shortWindowMillis <= longWindowMillis,
+                    "The short window may not exceed the long window");
+            alerts.add(new Alert(status, burnRate, longWindowMillis, shortWindowMillis));
+            return this;
+        }
+
+        @Override
+        public BurnRateDependency build() {
+            return new BurnRateDependency(this);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.indeed.status.core;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The <code>CachingDependency</code> is a wrapper around another dependency that reuses its most
+ * recent result for a time-to-live, so that an expensive check registered with {@link
+ * AbstractDependencyManager#addDependency(Dependency)} runs at most once per time-to-live however
+ * often the manager is evaluated, without a background pinger.
+ *
+ * <p>Once the cached result expires, the first caller refreshes it on its own thread. Until the
+ * result has also outlived the stale window, concurrent callers are served the stale result rather
+ * than waiting; afterwards they wait for the refresh and share its result.
+ *
+ * <pre>
+ * manager.addDependency(CachingDependency.newBuilder()
+ *         .setDependency(new MongoDBDatabaseDependency("users", client))
+ *         .setTtl(TimeUnit.MINUTES.toMillis(1))
+ *         .build());
+ * </pre>
+ */
+@ThreadSafe
+public class CachingDependency implements Dependency {
+    public static final long DEFAULT_TTL = TimeUnit.SECONDS.toMillis(30);
+    public static final long DEFAULT_MAX_STALE = TimeUnit.SECONDS.toMillis(30);
+
+    @Nonnull private final Dependency dependency;
+    @Nonnull private final WallClock wallClock;
+    private final long ttl;
+    private final long maxStale;
+
+    /// Held while refreshing. Waiting is interruptible, so that callers waiting on a hung refresh
+    ///  can be cancelled by the checker when they time out.
+    @Nonnull private final ReentrantLock lock = new ReentrantLock();
+
+    /// Incremented by every invalidation; results of checks started before are not reused.
+    @Nonnull private final AtomicLong generation = new AtomicLong();
+    /// The most recent result, written by refreshes only while holding the lock.
+    @Nullable private volatile Entry cached = null;
+
+    private CachingDependency(@Nonnull final Builder builder) {
+        this.dependency =
+                Preconditions.checkNotNull(builder.dependency, "Missing dependency to cache");
+        this.wallClock = builder.wallClock;
+        this.ttl = builder.ttl;
+        this.maxStale = builder.maxStale;
+    }
+
+    @Override
+    public CheckResult call() throws Exception {
+        final Entry entry = current();
+        final long now = wallClock.currentTimeMillis();
+
+        if (null != entry) {
+            final long age = now - entry.checkedAt;
+            if (age < ttl) {
+                return entry.result;
+            }
+            // Stale but servable: let one caller refresh and serve the rest from the cache.
+            if (age < ttl + maxStale) {
+                if (!lock.tryLock()) {
+                    return entry.result;
+                }
+                try {
+                    return refresh(entry);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        lock.lockInterruptibly();
+        try {
+            return refresh(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called with the lock held. Reuses a result refreshed by another caller since the given entry
+    //  was read.
+    @Nonnull
+    private CheckResult refresh(@Nullable final Entry observed) throws InterruptedException {
+        final Entry current = current();
+        if (null != current && current != observed) {
+            return current.result;
+        }
+
+        final long checkGeneration = generation.get();
+        final long checkedAt = wallClock.currentTimeMillis();
+        CheckResult result;
+        try {
+            result = dependency.call();
+
+        } catch (final InterruptedException e) {
+            throw e;
+
+        } catch (final Exception e) {
+            result =
+                    CheckResult.newBuilder(this, CheckStatus.OUTAGE, "Exception thrown during ping")
+                            .setThrowable(e)
+                            .build();
+        }
+
+        cached = new Entry(result, checkedAt, checkGeneration);
+        return result;
+    }
+
+    // The cached entry, unless invalidated since its check started.
+    @Nullable
+    private Entry current() {
+        final Entry entry = cached;
+        return null != entry && entry.generation == generation.get() ? entry : null;
+    }
+
+    /**
+     * Discards the cached result, so that the next caller refreshes it. The result of a refresh in
+     * progress is discarded as well, without waiting for the refresh.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cached = null;
+    }
+
+    /** @return true if a caller is waiting for a refresh in progress. */
+    @VisibleForTesting
+    boolean hasWaitingCallers() {
+        return lock.hasQueuedThreads();
+    }
+
+    @Override
+    public String getId() {
+        return dependency.getId();
+    }
+
+    @Override
+    public String getDescription() {
+        return dependency.getDescription();
+    }
+
+    @Override
+    public String getDocumentationUrl() {
+        return dependency.getDocumentationUrl();
+    }
+
+    @Override
+    public long getTimeout() {
+        return dependency.getTimeout();
+    }
+
+    @Override
+    public long getPingPeriod() {
+        return dependency.getPingPeriod();
+    }
+
+    @Override
+    public Urgency getUrgency() {
+        return dependency.getUrgency();
+    }
+
+    @Override
+    public DependencyType getType() {
+        return dependency.getType();
+    }
+
+    @Override
+    public String getServicePool() {
+        return dependency.getServicePool();
+    }
+
+    @Nonnull
+    @Override
+    public Set<String> getTags() {
+        return dependency.getTags();
+    }
+
+    // Access to the wrapped dependency
+    @Nonnull
+    public Dependency getDependency() {
+        return dependency;
+    }
+
+    private static class Entry {
+        @Nonnull private final CheckResult result;
+        private final long checkedAt;
+        private final long generation;
+
+        private Entry(
+                @Nonnull final CheckResult result, final long checkedAt, final long generation) {
+            this.result = result;
+            this.checkedAt = checkedAt;
+            this.generation = generation;
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        @Nullable private Dependency dependency;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+        @Nonnegative private long ttl = DEFAULT_TTL;
+        @Nonnegative private long maxStale = DEFAULT_MAX_STALE;
+
+        protected Builder() {}
+
+        public Builder setDependency(@Nonnull final Dependency dependency) {
+            this.dependency = dependency;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return this;
+        }
+
+        /** @param ttl How long, in milliseconds, a result is served without refreshing it. */
+        public Builder setTtl(@Nonnegative final long ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * @param maxStale How long, in milliseconds, an expired result may still be served to
+         *     callers while another caller refreshes it.
+         */
+        public Builder setMaxStale(@Nonnegative final long maxStale) {
+            this.maxStale = maxStale;
+            return this;
+        }
+
+        public CachingDependency build() {
+            return new CachingDependency(this);
+        }
+    }
+}
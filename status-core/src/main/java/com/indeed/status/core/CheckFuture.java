@@ -0,0 +1,124 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Future of a dependency check running on an executor, completed by the task itself so that callers
+ * can compose on the result rather than block for it. Cancelling the future also cancels the task.
+ *
+ * <p>Package-protected, because callers see it as the future returned by a {@link
+ * DependencyExecutor}.
+ */
+class CheckFuture extends CompletableFuture<CheckResult> {
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    /// Cancelled while running, and not yet returned
+    private static final int STATE_ZOMBIE = 2;
+    private static final int STATE_DONE = 3;
+
+    /**
+     * Notified of checks still running when cancelled, and of their return. Most return shortly
+     * after the interrupt; those that do not are the zombies.
+     */
+    interface ZombieTracker {
+        void onZombie(@Nonnull CheckFuture check);
+
+        void onZombieFinished(@Nonnull CheckFuture check);
+    }
+
+    @Nonnull private final Dependency dependency;
+    @Nullable private final ZombieTracker tracker;
+    @Nonnull private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+    @Nullable private volatile Future<?> task = null;
+    /// System.nanoTime() at the cancellation of the running check, set before it is flagged.
+    private volatile long cancelledAt;
+
+    private CheckFuture(
+            @Nonnull final Dependency dependency, @Nullable final ZombieTracker tracker) {
+        this.dependency = dependency;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Submits the check of the given dependency.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the executor refuses the task.
+     */
+    @Nonnull
+    static CheckFuture submit(
+            @Nonnull final ExecutorService executor, @Nonnull final Dependency dependency) {
+        return submit(executor, dependency, null);
+    }
+
+    /**
+     * Submits the check of the given dependency, notifying the tracker if the check is cancelled
+     * while running and if it later returns anyway.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the executor refuses the task.
+     */
+    @Nonnull
+    static CheckFuture submit(
+            @Nonnull final ExecutorService executor,
+            @Nonnull final Dependency dependency,
+            @Nullable final ZombieTracker tracker) {
+        final CheckFuture future = new CheckFuture(dependency, tracker);
+        future.task = executor.submit(future::run);
+        return future;
+    }
+
+    private void run() {
+        if (!state.compareAndSet(STATE_PENDING, STATE_RUNNING)) {
+            return;
+        }
+
+        try {
+            complete(dependency.call());
+        } catch (final Throwable t) {
+            completeExceptionally(t);
+        } finally {
+            if (state.getAndSet(STATE_DONE) == STATE_ZOMBIE && null != tracker) {
+                tracker.onZombieFinished(this);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        final boolean cancelled = super.cancel(mayInterruptIfRunning);
+
+        final Future<?> task = this.task;
+        if (null != task) {
+            task.cancel(mayInterruptIfRunning);
+        }
+
+        // A check that ignores interruption, such as one blocked in socket I/O, keeps its thread.
+        if (state.compareAndSet(STATE_PENDING, STATE_DONE)) {
+            return cancelled;
+        }
+        cancelledAt = System.nanoTime();
+        if (state.compareAndSet(STATE_RUNNING, STATE_ZOMBIE) && null != tracker) {
+            tracker.onZombie(this);
+        }
+        return cancelled;
+    }
+
+    @Nonnull
+    Dependency getDependency() {
+        return dependency;
+    }
+
+    /** @return true if the check was cancelled while running, and has not returned since. */
+    boolean isZombie() {
+        return state.get() == STATE_ZOMBIE;
+    }
+
+    /** @return The nanoseconds since the check was cancelled while running. */
+    long getNanosSinceCancelled() {
+        return System.nanoTime() - cancelledAt;
+    }
+}
@@ -53,6 +53,8 @@ public class CheckResult {
     /// The exception thrown during execution, if any.
     @Nonnull private final DependencyType type;
     @Nonnull private final String servicePool;
+    /// The id of the failing prerequisite that caused this dependency to be skipped, if any.
+    @Nullable private final String rootCause;
     @JsonIgnore private final Throwable throwable;
 
     public static final ThreadLocal<DateFormat> DATE_FORMAT =
@@ -81,6 +83,7 @@ public class CheckResult {
                 duration,
                 0L, /* lastKnownGoodTimestamp */
                 period,
+                null, /* rootCause */
                 t);
     }
 
@@ -92,6 +95,7 @@ public class CheckResult {
             @Nonnegative final long duration,
             @Nonnegative final long lastKnownGoodTimestamp,
             @Nonnegative final long period,
+            @Nullable final String rootCause,
             @Nullable final Throwable t) {
         this.id = dependency.getId();
         this.status = status;
@@ -105,6 +109,7 @@ public class CheckResult {
         this.duration = duration;
         this.lastKnownGoodTimestamp = lastKnownGoodTimestamp;
         this.period = period;
+        this.rootCause = rootCause;
         this.throwable = t;
     }
 
@@ -174,6 +179,11 @@ public class CheckResult {
         return period;
     }
 
+    @Nullable
+    public String getRootCause() {
+        return rootCause;
+    }
+
     @Nullable
     public Thrown getThrown() {
         return null == throwable ? null : new Thrown(throwable);
@@ -271,6 +281,7 @@ public class CheckResult {
                 .setDuration(source.getDuration())
                 .setLastKnownGoodTimestamp(source.getLastKnownGoodTimestamp())
                 .setPeriod(source.getPeriod())
+                .setRootCause(source.getRootCause())
                 .setThrowable(source.getThrowable());
     }
 
@@ -282,6 +293,7 @@ public class CheckResult {
         @Nonnegative private long duration = 0L;
         @Nonnegative private long lastKnownGoodTimestamp = 0L;
         @Nonnegative private long period = 0L;
+        @Nullable private String rootCause;
         @Nullable private Throwable t;
 
         private Builder(
@@ -329,6 +341,11 @@ public class CheckResult {
             return this;
         }
 
+        public Builder setRootCause(@Nullable final String rootCause) {
+            this.rootCause = rootCause;
+            return this;
+        }
+
         public Builder setThrowable(@Nullable final Throwable t) {
             this.t = t;
             return this;
@@ -343,6 +360,7 @@ public class CheckResult {
                     duration,
                     lastKnownGoodTimestamp,
                     period,
+                    rootCause,
                     t);
         }
     }
@@ -3,6 +3,10 @@ package com.indeed.status.core;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize.Inclusion;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.indeed.util.core.NetUtils;
@@ -13,25 +17,40 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.google.common.base.Preconditions.checkState;
 
 /**
  * The <code>CheckResultSet</code> is a mutable aggregator collecting the results of individual
  * dependency evaluations into a single object describing the current health of the overall system.
+ *
+ * <p>Result sets built over an index of dense slots, such as those of the dependency manager's
+ * registry, keep the results of the indexed dependencies in an array rather than a map. Slots
+ * follow the sort order of the ids, so the results are grouped by status in sort order as they are
+ * recorded, and detailed reports copy the groups rather than sort the results.
  */
 public class CheckResultSet {
     private static final Logger log = LoggerFactory.getLogger(CheckResultSet.class);
     private static final DefaultWallClock DEFAULT_WALL_CLOCK = new DefaultWallClock();
     private static final SystemReporter DEFAULT_SYSTEM_REPORTER =
             new SystemReporter(DEFAULT_WALL_CLOCK);
+    private static final CheckStatus[] STATUSES = CheckStatus.values();
 
     /// Epoch milliseconds at which the execution captured by this result set began
     private final long startTimeMillis;
@@ -50,13 +69,28 @@ public class CheckResultSet {
      */
     private final AtomicReference<CheckStatus> systemStatus = new AtomicReference<>(CheckStatus.OK);
     /**
-     * Map of all currently-executing checks; provides a simple method of avoiding
-     * dependency-check-stacking.
+     * Map of all currently-executing checks of dependencies without a slot; provides a simple
+     * method of avoiding dependency-check-stacking.
      */
     private final ConcurrentMap<String, Tag> executingChecks = Maps.newConcurrentMap();
 
+    /// Results of the checks of dependencies without a slot.
     private final ConcurrentMap<String, CheckResult> completedChecks = Maps.newConcurrentMap();
 
+    /// Dense slot of each indexed dependency, keyed by id, or null if the set is not indexed.
+    @Nullable private final Map<String, Integer> slots;
+    /// Results of the checks of indexed dependencies, by slot.
+    @Nullable private final AtomicReferenceArray<CheckResult> slottedChecks;
+    /// Number of non-null elements of slottedChecks.
+    private final AtomicInteger slottedCount = new AtomicInteger();
+    /// Whether the check of each slot is executing; the slotted counterpart of executingChecks.
+    @Nullable private final AtomicIntegerArray slottedExecuting;
+    /// Slots of the recorded results of each status, as bit sets indexed by status ordinal.
+    @Nullable private final AtomicLongArray[] slottedByStatus;
+
+    /// Earliest positive timestamp of the recorded results, or Long.MAX_VALUE if there is none.
+    private final AtomicLong leastRecentTimestamp = new AtomicLong(Long.MAX_VALUE);
+
     /**
      * @deprecated Use {@link com.indeed.status.core.CheckResultSet.Builder} instead
      *     <p>TODO Remove after a reasonable grace period.
@@ -68,8 +102,26 @@ public class CheckResultSet {
     }
 
     public CheckResultSet(@Nonnull final SystemReporter systemReporter) {
+        this(systemReporter, null);
+    }
+
+    private CheckResultSet(
+            @Nonnull final SystemReporter systemReporter,
+            @Nullable final Map<String, Integer> slots) {
         this.startTimeMillis = systemReporter.getWallClock().currentTimeMillis();
         this.systemReporter = systemReporter;
+        this.slots = slots;
+        this.slottedChecks = null == slots ? null : new AtomicReferenceArray<>(slots.size());
+        this.slottedExecuting = null == slots ? null : new AtomicIntegerArray(slots.size());
+
+        if (null == slots) {
+            this.slottedByStatus = null;
+        } else {
+            this.slottedByStatus = new AtomicLongArray[STATUSES.length];
+            for (int i = 0; i < STATUSES.length; i++) {
+                slottedByStatus[i] = new AtomicLongArray((slots.size() + 63) >>> 6);
+            }
+        }
     }
 
     /** Convenience factory method for default result sets. Used primarily by tests. */
@@ -105,12 +157,92 @@ public class CheckResultSet {
 
     @Nullable
     public CheckResult get(@Nonnull final String id) {
-        return completedChecks.get(id);
+        return get(slotOf(id), id);
+    }
+
+    @Nullable
+    private CheckResult get(final int slot, @Nonnull final String id) {
+        return slot < 0 ? completedChecks.get(id) : slottedChecks.get(slot);
     }
 
     @Nonnull
     public Collection<CheckResult> getCompleted() {
-        return completedChecks.values();
+        return null == slottedChecks ? completedChecks.values() : new CompletedChecks();
+    }
+
+    // The slot of the given id, or -1 if it has none.
+    private int slotOf(@Nonnull final String id) {
+        if (null == slots) {
+            return -1;
+        }
+        final Integer slot = slots.get(id);
+        return null == slot ? -1 : slot;
+    }
+
+    // Records the result of the check of the given id unless one was already recorded.
+    @Nullable
+    private CheckResult putCompletedIfAbsent(
+            final int slot, @Nonnull final String id, @Nonnull final CheckResult result) {
+        final CheckResult priorResult;
+        if (slot < 0) {
+            priorResult = completedChecks.putIfAbsent(id, result);
+        } else if (slottedChecks.compareAndSet(slot, null, result)) {
+            slottedByStatus[result.getStatus().ordinal()].getAndAccumulate(
+                    slot >>> 6, 1L << slot, (bits, bit) -> bits | bit);
+            slottedCount.incrementAndGet();
+            priorResult = null;
+        } else {
+            priorResult = slottedChecks.get(slot);
+        }
+
+        if (null == priorResult && result.getTimestamp() > 0L) {
+            leastRecentTimestamp.accumulateAndGet(result.getTimestamp(), Math::min);
+        }
+        return priorResult;
+    }
+
+    // The slotted results of the given status, in slot order.
+    @Nonnull
+    private List<CheckResult> getSlotted(@Nonnull final CheckStatus status) {
+        final AtomicLongArray bitSet = slottedByStatus[status.ordinal()];
+        final List<CheckResult> results = Lists.newArrayList();
+        for (int word = 0; word < bitSet.length(); word++) {
+            long bits = bitSet.get(word);
+            while (0L != bits) {
+                results.add(slottedChecks.get((word << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return results;
+    }
+
+    // View of the slotted results, in slot order, followed by the others.
+    private class CompletedChecks extends AbstractCollection<CheckResult> {
+        @Nonnull
+        @Override
+        public Iterator<CheckResult> iterator() {
+            final Iterator<CheckResult> slotted =
+                    new AbstractIterator<CheckResult>() {
+                        private int slot = 0;
+
+                        @Override
+                        protected CheckResult computeNext() {
+                            while (slot < slottedChecks.length()) {
+                                final CheckResult result = slottedChecks.get(slot++);
+                                if (null != result) {
+                                    return result;
+                                }
+                            }
+                            return endOfData();
+                        }
+                    };
+            return Iterators.concat(slotted, completedChecks.values().iterator());
+        }
+
+        @Override
+        public int size() {
+            return slottedCount.get() + completedChecks.size();
+        }
     }
 
     @Nonnull
@@ -140,19 +272,27 @@ public class CheckResultSet {
 
     protected void handleInit(@Nonnull final Dependency dependency) {
         final String id = dependency.getId();
+        final int slot = slotOf(id);
 
         checkState(
-                !executingChecks.containsKey(id),
+                slot < 0 ? !executingChecks.containsKey(id) : 0 == slottedExecuting.get(slot),
                 "Found another task executing with the same ID: '%s'.",
                 id);
         checkState(
-                !completedChecks.containsKey(id),
-                "Found another task completed with the same ID: '%s'.",
-                id);
+                null == get(slot, id), "Found another task completed with the same ID: '%s'.", id);
     }
 
     protected void handleExecute(@Nonnull final Dependency dependency) {
         final String id = dependency.getId();
+        final int slot = slotOf(id);
+
+        if (slot >= 0) {
+            checkState(
+                    slottedExecuting.compareAndSet(slot, 0, 1),
+                    "Found another tag executing with the same ID: '%s'.",
+                    id);
+            return;
+        }
 
         // Create a new tag with the current system time.
         final Tag tag = new Tag(id, systemReporter.getWallClock().currentTimeMillis());
@@ -165,6 +305,7 @@ public class CheckResultSet {
     protected void handleComplete(
             @Nonnull final Dependency dependency, @Nonnull final CheckResult result) {
         final String id = dependency.getId();
+        final int slot = slotOf(id);
 
         try {
             Preconditions.checkNotNull(result, "Unable to handle completion with a null result.");
@@ -172,18 +313,23 @@ public class CheckResultSet {
             // Attempt to finalize immediately on completion, so that we minimize the
             //  amount of management overhead included in the save results.
 
-            final Tag tag = executingChecks.get(id);
+            final boolean executing =
+                    slot < 0 ? executingChecks.containsKey(id) : 0 != slottedExecuting.get(slot);
 
-            if (null == tag) {
+            if (!executing) {
                 checkState(
                         result.getStatus() != CheckStatus.OK,
                         "Expected a failure of some sort from a check that isn't listed in the executing checks.");
             }
 
         } finally {
-            executingChecks.remove(id);
+            if (slot < 0) {
+                executingChecks.remove(id);
+            } else {
+                slottedExecuting.set(slot, 0);
+            }
 
-            final CheckResult priorResult = completedChecks.putIfAbsent(id, result);
+            final CheckResult priorResult = putCompletedIfAbsent(slot, id, result);
 
             // After the result is added to the completed-checks, we should not allow any further
             // exceptions to be raised,
@@ -203,7 +349,8 @@ public class CheckResultSet {
             @Nonnull final Dependency dependency, @Nonnull final CheckResult result) {
         // everything after the result is finalized depends on the completed list containing all
         // references
-        final CheckResult recordedResult = completedChecks.putIfAbsent(dependency.getId(), result);
+        final CheckResult recordedResult =
+                putCompletedIfAbsent(slotOf(dependency.getId()), dependency.getId(), result);
         if (null == recordedResult) {
             if (result.getStatus() == CheckStatus.OK) {
                 log.error(
@@ -316,23 +463,31 @@ public class CheckResultSet {
             catalinaBase = System.getProperty("catalina.base");
             results = Maps.newTreeMap();
 
-            long earliestTimestamp = wallClock.currentTimeMillis();
-            for (final CheckResult result : completedChecks.values()) {
-                SortedSet<CheckResult> set;
-
-                if (null == (set = results.get(result.getStatus()))) {
-                    results.put(result.getStatus(), set = Sets.newTreeSet(ID_COMPARATOR));
+            if (null != slottedByStatus && completedChecks.isEmpty()) {
+                // The groups are already in sort order, so building each set is linear.
+                for (final CheckStatus status : STATUSES) {
+                    final List<CheckResult> group = getSlotted(status);
+                    if (!group.isEmpty()) {
+                        results.put(
+                                status,
+                                ImmutableSortedSet.orderedBy(ID_COMPARATOR).addAll(group).build());
+                    }
                 }
 
-                set.add(result);
+            } else {
+                for (final CheckResult result : getCompleted()) {
+                    SortedSet<CheckResult> set;
 
-                final long timestamp = result.getTimestamp();
-                if (timestamp > 0L && timestamp < earliestTimestamp) {
-                    earliestTimestamp = timestamp;
+                    if (null == (set = results.get(result.getStatus()))) {
+                        results.put(result.getStatus(), set = Sets.newTreeSet(ID_COMPARATOR));
+                    }
+
+                    set.add(result);
                 }
             }
 
-            leastRecentlyExecutedTimestamp = earliestTimestamp;
+            leastRecentlyExecutedTimestamp =
+                    Math.min(wallClock.currentTimeMillis(), leastRecentTimestamp.get());
             leastRecentlyExecutedDate =
                     CheckResult.DATE_FORMAT.get().format(new Date(leastRecentlyExecutedTimestamp));
         }
@@ -344,14 +499,25 @@ public class CheckResultSet {
 
     public static class Builder {
         @Nonnull private SystemReporter systemReporter = DEFAULT_SYSTEM_REPORTER;
+        @Nullable private Map<String, Integer> slots = null;
 
         public Builder setSystemReporter(@Nonnull final SystemReporter systemReporter) {
             this.systemReporter = systemReporter;
             return this;
         }
 
+        /**
+         * @param slots Dense slot of each dependency id, from zero to one less than the number of
+         *     ids in the sort order of the ids, shared by every result set built over the same
+         *     dependencies.
+         */
+        Builder setSlots(@Nullable final Map<String, Integer> slots) {
+            this.slots = slots;
+            return this;
+        }
+
         public CheckResultSet build() {
-            return new CheckResultSet(systemReporter);
+            return new CheckResultSet(systemReporter, slots);
         }
     }
 }
@@ -1,6 +1,9 @@
 package com.indeed.status.core;
 
+import javax.annotation.Nonnull;
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 /**
@@ -61,4 +64,13 @@ public interface Dependency extends Callable<CheckResult>, Documented {
      *     logs. Examples: "dbpool.example.com:3306/mysqldb1", "ServiceName:ZoneName", etc.
      */
     String getServicePool();
+
+    /**
+     * @return Labels used to select this dependency for partial evaluations, such as "lb" for the
+     *     dependencies that should take the process out of rotation. See {@link TagQuery}.
+     */
+    @Nonnull
+    default Set<String> getTags() {
+        return Collections.emptySet();
+    }
 }
@@ -1,6 +1,10 @@
 package com.indeed.status.core;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.indeed.util.core.time.WallClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,14 +12,23 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Standalone evaluator of {@link Dependency} objects.
@@ -28,7 +41,20 @@ import java.util.concurrent.TimeoutException;
 class DependencyChecker /*implements Terminable todo(cameron)*/ {
     private static final Logger DEFAULT_LOGGER = LoggerFactory.getLogger(DependencyChecker.class);
 
+    private static final AtomicInteger TIMEOUT_TIMER_COUNT = new AtomicInteger(1);
+
     @Nonnull private final DependencyExecutor dependencyExecutor;
+    /// Enforces the timeouts of checks, so that waiting for a check to time out costs no thread of
+    ///  its own. Started by the first check with a timeout, and stopped with the checker.
+    @Nonnull
+    private final HashedWheelTimer timeoutTimer =
+            new HashedWheelTimer(
+                    "dependency-timeout-timer-" + TIMEOUT_TIMER_COUNT.getAndIncrement(),
+                    10,
+                    TimeUnit.MILLISECONDS,
+                    512);
+    /// Runs the completion of timed-out checks, so that the timer thread only fires timeouts.
+    @Nonnull private final Executor completionExecutor;
     @Nonnull private final SystemReporter systemReporter;
     @Nonnull private final Logger log;
     private final boolean throttle;
@@ -42,6 +68,9 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
         }
 
         this.dependencyExecutor = params.dependencyExecutor();
+        final ExecutorService executorService = params.executorService();
+        this.completionExecutor =
+                null != executorService ? executorService : ForkJoinPool.commonPool();
         this.systemReporter = params.systemReporter();
         this.throttle = params.throttle();
     }
@@ -56,17 +85,89 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
         return this.systemReporter.getWallClock();
     }
 
+    /** @return Checks still running after being cancelled, keyed by dependency id. */
+    @Nonnull
+    public Map<String, Integer> getZombieCounts() {
+        return dependencyExecutor.getZombieCounts();
+    }
+
     public boolean getThrottle() {
         return this.throttle;
     }
 
     @Nonnull
     public CheckResultSet evaluate(final Collection<? extends Dependency> dependencies) {
-        final CheckResultSet result =
-                CheckResultSet.newBuilder().setSystemReporter(systemReporter).build();
+        return evaluate(
+                dependencies,
+                CheckResultSet.newBuilder().setSystemReporter(systemReporter).build());
+    }
+
+    @Nonnull
+    private CheckResultSet evaluate(
+            final Collection<? extends Dependency> dependencies,
+            @Nonnull final CheckResultSet result) {
+        // Start the asynchronous checks first, so that they are in flight during the blocking ones.
+        final List<AsyncEvaluation> pending = Lists.newArrayList();
+        for (final Dependency dependency : dependencies) {
+            if (dependency instanceof AsyncDependency) {
+                pending.add(evaluateAsyncAndRecord((AsyncDependency) dependency, result));
+            }
+        }
 
         for (final Dependency dependency : dependencies) {
-            evaluateAndRecord(dependency, result);
+            if (!(dependency instanceof AsyncDependency)) {
+                evaluateAndRecord(dependency, result);
+            }
+        }
+
+        for (final AsyncEvaluation evaluation : pending) {
+            evaluation.await();
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates the given dependencies in topological order of the graph, skipping any dependency
+     * with a prerequisite that was found to be in OUTAGE earlier in the same evaluation.
+     */
+    @Nonnull
+    public CheckResultSet evaluate(
+            final Collection<? extends Dependency> dependencies,
+            @Nonnull final DependencyGraph graph) {
+        return evaluate(dependencies, graph, null);
+    }
+
+    /**
+     * @param slots Dense slot of each id of the given dependencies, shared across evaluations, so
+     *     that the results are kept in an array rather than a map.
+     * @see #evaluate(Collection, DependencyGraph)
+     */
+    @Nonnull
+    CheckResultSet evaluate(
+            final Collection<? extends Dependency> dependencies,
+            @Nonnull final DependencyGraph graph,
+            @Nullable final Map<String, Integer> slots) {
+        final CheckResultSet result =
+                CheckResultSet.newBuilder()
+                        .setSystemReporter(systemReporter)
+                        .setSlots(slots)
+                        .build();
+        if (graph.isEmpty()) {
+            return evaluate(dependencies, result);
+        }
+
+        for (final Dependency dependency : graph.sort(dependencies)) {
+            final CheckResult derived =
+                    graph.deriveResult(dependency, result::get, getWallClock().currentTimeMillis());
+
+            if (null == derived) {
+                evaluateAndRecord(dependency, result);
+            } else {
+                result.handleInit(dependency);
+                result.handleComplete(dependency, derived);
+                result.handleFinalize(dependency, derived);
+            }
         }
 
         return result;
@@ -83,9 +184,33 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
         return result.get(dependency.getId());
     }
 
+    /**
+     * Starts the check of the given dependency without waiting for it. Asynchronous dependencies
+     * are started on the calling thread, and others are submitted to the dependency executor.
+     *
+     * @return A future completed with the result of the check, or with an OUTAGE once the timeout
+     *     of the dependency elapses. The future never completes exceptionally.
+     */
+    @Nonnull
+    public CompletableFuture<CheckResult> evaluateAsync(@Nonnull final Dependency dependency) {
+        final CheckResultSet result =
+                CheckResultSet.newBuilder().setSystemReporter(systemReporter).build();
+
+        if (dependency instanceof AsyncDependency) {
+            return evaluateAsyncAndRecord((AsyncDependency) dependency, result).future;
+        } else if (dependency instanceof DependencyPinger) {
+            // The pinger serves its cached result.
+            return CompletableFuture.completedFuture(evaluate(dependency));
+        } else {
+            return submitAndRecord(dependency, result).future;
+        }
+    }
+
     private void evaluateAndRecord(
             @Nonnull final Dependency dependency, @Nonnull final CheckResultSet results) {
-        if (dependency instanceof DependencyPinger) {
+        if (dependency instanceof AsyncDependency) {
+            evaluateAsyncAndRecord((AsyncDependency) dependency, results).await();
+        } else if (dependency instanceof DependencyPinger) {
             // Evaluate directly, as the pinger provides its own timeout and exception protection
             evaluateDirectlyAndRecord((DependencyPinger) dependency, results);
         } else {
@@ -134,103 +259,315 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
     // for timeout protection
     private void evaluateSafelyAndRecord(
             @Nonnull final Dependency dependency, @Nonnull final CheckResultSet results) {
-        final WallClock wallClock = systemReporter.getWallClock();
-
-        final long timeout = dependency.getTimeout();
-        final long timestamp = wallClock.currentTimeMillis();
-        CheckResult evaluationResult = null;
-        Throwable t = null;
+        submitAndRecord(dependency, results).await();
+    }
 
-        @Nullable Future<CheckResult> future = null;
+    @Nonnull
+    private AsyncEvaluation submitAndRecord(
+            @Nonnull final Dependency dependency, @Nonnull final CheckResultSet results) {
+        final AsyncEvaluation evaluation = new AsyncEvaluation(dependency, results);
+        final Future<CheckResult> future;
 
         try {
             future = dependencyExecutor.submit(dependency);
 
-            results.handleInit(dependency);
-            results.handleExecute(dependency);
+        } catch (final RejectedExecutionException e) {
+            evaluation.fail(
+                    new CheckException(
+                            "Health check failed to launch a new thread due to pool exhaustion, which should not happen. Please dump /private/v and thread-state and contact dev.",
+                            e));
+            return evaluation;
 
-            if (timeout > 0) {
-                evaluationResult = future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (final HungCheckException e) {
+            evaluation.finish(evaluation.hung(e));
+            return evaluation;
 
-            } else {
-                evaluationResult = future.get();
+        } catch (final IllegalStateException e) {
+            log.warn("Too many dependency checks are in flight.");
+            evaluation.fail(
+                    new CheckException(
+                            "Health check failed to launch due to too many checks already being in flight. Please dump /private/v and thread-state and contact dev.",
+                            e));
+            return evaluation;
+
+        } catch (final Throwable e) {
+            evaluation.fail(
+                    new CheckException(
+                            "Health-check failed for unknown reason. Please dump /private/v and thread-state and contact dev.",
+                            e));
+            return evaluation;
+        }
+
+        results.handleInit(dependency);
+        results.handleExecute(dependency);
+
+        if (future instanceof CompletableFuture) {
+            watch(evaluation, (CompletableFuture<CheckResult>) future);
+        } else {
+            // A custom executor offers no completion callback, so wait for the result here.
+            evaluation.finish(awaitBlocking(evaluation, future));
+        }
+
+        return evaluation;
+    }
+
+    // Runs on the timer thread, so only claims the evaluation and leaves the rest to the
+    //  completion executor.
+    private void expire(
+            @Nonnull final AsyncEvaluation evaluation,
+            @Nonnull final CompletableFuture<CheckResult> check) {
+        if (evaluation.claim()) {
+            final CheckResult timedOut = evaluation.timedOut();
+            complete(
+                    () -> {
+                        log.debug(
+                                "Timed out attempting to validate dependency '"
+                                        + evaluation.dependency.getId()
+                                        + "'.");
+                        // Cancel before publishing, so that the check is cancelled by the time
+                        //  callers see the timeout.
+                        cancel(check);
+                        evaluation.publish(timedOut);
+                    });
+        }
+    }
+
+    @Nonnull
+    private CheckResult awaitBlocking(
+            @Nonnull final AsyncEvaluation evaluation, @Nonnull final Future<CheckResult> future) {
+        final long timeout = evaluation.dependency.getTimeout();
+        Throwable t = null;
+
+        try {
+            final CheckResult evaluationResult =
+                    timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+            if (null != evaluationResult) {
+                return evaluationResult;
             }
 
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
-
             cancel(future);
+            return evaluation.interrupted();
 
-            evaluationResult =
-                    CheckResult.newBuilder(
-                                    dependency,
-                                    CheckStatus.OUTAGE,
-                                    "The thread requesting dependency evaluation got interrupted")
-                            .setTimestamp(timestamp)
-                            .setDuration(wallClock.currentTimeMillis() - timestamp)
-                            .build();
         } catch (final CancellationException e) {
             log.warn(
                     "Task has completed, but was previously cancelled. This is probably okay, but shouldn't happen often.");
             t = new CheckException("Health check task was cancelled.", e);
 
         } catch (final TimeoutException e) {
-            log.debug("Timed out attempting to validate dependency '" + dependency.getId() + "'.");
-
-            final long duration = wallClock.currentTimeMillis() - timestamp;
-
+            log.debug(
+                    "Timed out attempting to validate dependency '"
+                            + evaluation.dependency.getId()
+                            + "'.");
             // Cancel, but don't worry too much if it's not able to be cancelled.
             cancel(future);
-
-            evaluationResult =
-                    CheckResult.newBuilder(
-                                    dependency, CheckStatus.OUTAGE, "Timed out prior to completion")
-                            .setTimestamp(timestamp)
-                            .setDuration(duration)
-                            .build();
-
-        } catch (final RejectedExecutionException e) {
-            t =
-                    new CheckException(
-                            "Health check failed to launch a new thread due to pool exhaustion, which should not happen. Please dump /private/v and thread-state and contact dev.",
-                            e);
+            return evaluation.timedOut();
 
         } catch (final ExecutionException e) {
             //  nobody cares about the wrapping ExecutionException
-            t =
-                    new CheckException(
-                            "Health-check failed for unknown reason. Please dump /private/v and thread-state and contact dev.",
-                            e.getCause());
+            t = toCheckException(e.getCause());
 
-        } catch (final IllegalStateException e) {
-            log.warn("Too many dependency checks are in flight.");
-            t =
-                    new CheckException(
-                            "Health check failed to launch due to too many checks already being in flight. Please dump /private/v and thread-state and contact dev.",
-                            e);
         } catch (final Throwable e) {
-            t =
-                    new CheckException(
-                            "Health-check failed for unknown reason. Please dump /private/v and thread-state and contact dev.",
-                            e);
+            t = toCheckException(e);
+        }
 
-        } finally {
-            if (null == evaluationResult) {
-                final long duration = wallClock.currentTimeMillis() - timestamp;
+        return evaluation.failure(t);
+    }
 
-                evaluationResult =
-                        CheckResult.newBuilder(
-                                        dependency,
-                                        CheckStatus.OUTAGE,
-                                        "Exception thrown during the evaluation of the dependency.")
-                                .setTimestamp(timestamp)
-                                .setDuration(duration)
-                                .setPeriod(0L)
-                                .setThrowable(t)
-                                .build();
+    // Asynchronous evaluation, which holds no thread while the check is in flight.
+    @Nonnull
+    private AsyncEvaluation evaluateAsyncAndRecord(
+            @Nonnull final AsyncDependency dependency, @Nonnull final CheckResultSet results) {
+        final AsyncEvaluation evaluation = new AsyncEvaluation(dependency, results);
+
+        results.handleInit(dependency);
+        results.handleExecute(dependency);
+
+        CompletableFuture<CheckResult> check;
+        try {
+            check = dependency.callAsync().toCompletableFuture();
+
+        } catch (final Throwable e) {
+            check = new CompletableFuture<>();
+            check.completeExceptionally(e);
+        }
+
+        watch(evaluation, check);
+        return evaluation;
+    }
+
+    // Finishes the evaluation with the outcome of the given check, or with an OUTAGE if the check
+    //  outlives the timeout of the dependency. The timer only claims the evaluation; the
+    //  check is cancelled and the timeout published on the completion executor, because
+    //  publishing runs every dependent stage, such as pinger listeners, which must not delay the
+    //  other timeouts. Executors account for checks that keep running regardless as zombies.
+    private void watch(
+            @Nonnull final AsyncEvaluation evaluation,
+            @Nonnull final CompletableFuture<CheckResult> check) {
+        evaluation.task = check;
+
+        final long timeout = evaluation.dependency.getTimeout();
+        if (timeout > 0) {
+            final HashedWheelTimer.Timeout timer;
+            try {
+                timer =
+                        timeoutTimer.newTimeout(
+                                () -> expire(evaluation, check), timeout, TimeUnit.MILLISECONDS);
+            } catch (final IllegalStateException e) {
+                // Shut down, so that the check could not be timed out.
+                cancel(check);
+                evaluation.fail(new CheckException("The checker was shut down.", e));
+                return;
+            }
+            evaluation.future.whenComplete((result, t) -> timer.cancel());
+        }
+
+        check.whenComplete(
+                (result, t) -> {
+                    if (null != result) {
+                        evaluation.finish(result);
+                    } else if (!evaluation.isFinished()) {
+                        if (t instanceof CancellationException) {
+                            log.warn(
+                                    "Task has completed, but was previously cancelled. This is probably okay, but shouldn't happen often.");
+                        }
+                        evaluation.fail(toCheckException(t));
+                    }
+                });
+    }
+
+    private void complete(@Nonnull final Runnable completion) {
+        try {
+            completionExecutor.execute(completion);
+        } catch (final RejectedExecutionException e) {
+            // Saturated or shut down; timeouts must be published regardless.
+            ForkJoinPool.commonPool().execute(completion);
+        }
+    }
+
+    @Nullable
+    private static CheckException toCheckException(@Nullable final Throwable t) {
+        final Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+        if (null == cause) {
+            return null;
+        } else if (cause instanceof CheckException) {
+            return (CheckException) cause;
+        } else if (cause instanceof CancellationException) {
+            return new CheckException("Health check task was cancelled.", cause);
+        } else {
+            return new CheckException(
+                    "Health-check failed for unknown reason. Please dump /private/v and thread-state and contact dev.",
+                    cause);
+        }
+    }
+
+    // One evaluation of a dependency, finished by whichever of the check, the timer, or an
+    //  interrupted caller comes first. The result is recorded before the future completes, so that
+    //  callers waiting on the future observe it in the result set.
+    private class AsyncEvaluation {
+        @Nonnull private final Dependency dependency;
+        @Nonnull private final CheckResultSet results;
+        private final long timestamp = getWallClock().currentTimeMillis();
+        @Nonnull private final AtomicBoolean finished = new AtomicBoolean();
+        @Nonnull private final CompletableFuture<CheckResult> future = new CompletableFuture<>();
+        /// The running check, cancelled if the caller gives up on it.
+        @Nullable private volatile Future<?> task = null;
+
+        private AsyncEvaluation(
+                @Nonnull final Dependency dependency, @Nonnull final CheckResultSet results) {
+            this.dependency = dependency;
+            this.results = results;
+        }
+
+        private boolean isFinished() {
+            return finished.get();
+        }
+
+        private boolean finish(@Nonnull final CheckResult result) {
+            if (!claim()) {
+                return false;
             }
+            publish(result);
+            return true;
+        }
+
+        // Claims the evaluation for the caller, who must then publish its result.
+        private boolean claim() {
+            return finished.compareAndSet(false, true);
+        }
+
+        private void publish(@Nonnull final CheckResult result) {
+            finalizeAndRecord(dependency, results, result);
+            future.complete(result);
+        }
+
+        private void fail(@Nullable final Throwable t) {
+            finish(failure(t));
+        }
+
+        @Nonnull
+        private CheckResult failure(@Nullable final Throwable t) {
+            return CheckResult.newBuilder(
+                            dependency,
+                            CheckStatus.OUTAGE,
+                            "Exception thrown during the evaluation of the dependency.")
+                    .setTimestamp(timestamp)
+                    .setDuration(getWallClock().currentTimeMillis() - timestamp)
+                    .setPeriod(0L)
+                    .setThrowable(t)
+                    .build();
+        }
+
+        @Nonnull
+        private CheckResult hung(@Nonnull final HungCheckException e) {
+            return CheckResult.newBuilder(
+                            dependency,
+                            CheckStatus.OUTAGE,
+                            "Dependency is hung; earlier checks are still running after timing out")
+                    .setTimestamp(timestamp)
+                    .setDuration(0L)
+                    .setThrowable(e)
+                    .build();
+        }
+
+        @Nonnull
+        private CheckResult timedOut() {
+            return CheckResult.newBuilder(
+                            dependency, CheckStatus.OUTAGE, "Timed out prior to completion")
+                    .setTimestamp(timestamp)
+                    .setDuration(getWallClock().currentTimeMillis() - timestamp)
+                    .build();
+        }
+
+        @Nonnull
+        private CheckResult interrupted() {
+            return CheckResult.newBuilder(
+                            dependency,
+                            CheckStatus.OUTAGE,
+                            "The thread requesting dependency evaluation got interrupted")
+                    .setTimestamp(timestamp)
+                    .setDuration(getWallClock().currentTimeMillis() - timestamp)
+                    .build();
+        }
+
+        private void await() {
+            try {
+                future.get();
+
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (finish(interrupted())) {
+                    final Future<?> task = this.task;
+                    if (null != task) {
+                        cancel(task);
+                    }
+                }
 
-            finalizeAndRecord(dependency, results, evaluationResult);
+            } catch (final ExecutionException e) {
+                // Never completed exceptionally.
+                log.error("An exception that really shouldn't ever happen, did.", e);
+            }
         }
     }
 
@@ -266,17 +603,46 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
         }
     }
 
-    public static class DependencyExecutorSet implements DependencyExecutor {
+    public static class DependencyExecutorSet
+            implements DependencyExecutor, CheckFuture.ZombieTracker {
         private static final Logger log = LoggerFactory.getLogger(DependencyExecutorSet.class);
 
+        /// Default number of cancelled checks of one dependency allowed to keep running before
+        ///  further checks of it are refused; one more than the throttled wrapper lets through, so
+        ///  that throttled managers keep reporting the throttle first
+        public static final int DEFAULT_ZOMBIE_LIMIT = 3;
+
+        /// Milliseconds a cancelled check may keep running, as most do briefly after the
+        ///  interrupt, before it is counted as a zombie
+        public static final long ZOMBIE_GRACE_PERIOD = 1000L;
+
         @Nonnull
         private final Map<String, Future<CheckResult>> inflightChecks =
                 Maps.newHashMapWithExpectedSize(10);
 
+        /// Checks still running after being cancelled, counted once past the grace period.
+        ///  Guarded by inflightChecks.
+        @Nonnull private final Set<CheckFuture> zombieChecks = Sets.newHashSet();
+        /// Zombies already reported, so that each is warned about once. Guarded by
+        ///  inflightChecks.
+        @Nonnull private final Set<CheckFuture> reportedZombies = Sets.newHashSet();
+
         @Nonnull private final ExecutorService executor;
+        private final int zombieLimit;
 
         public DependencyExecutorSet(@Nonnull final ExecutorService executor) {
+            this(executor, DEFAULT_ZOMBIE_LIMIT);
+        }
+
+        /**
+         * @param zombieLimit Number of cancelled checks of one dependency allowed to keep running,
+         *     occupying their threads, before further checks of that dependency are refused.
+         */
+        public DependencyExecutorSet(
+                @Nonnull final ExecutorService executor, final int zombieLimit) {
+            Preconditions.checkArgument(zombieLimit > 0, "The zombie limit must be positive");
             this.executor = executor;
+            this.zombieLimit = zombieLimit;
         }
 
         @Override
@@ -295,10 +661,15 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
                 final Future<CheckResult> inflight = inflightChecks.get(id);
 
                 if (null == inflight) {
+                    final int zombies = countZombies().getOrDefault(id, 0);
+                    if (zombies >= zombieLimit) {
+                        throw new HungCheckException(id, zombies);
+                    }
+
                     final Future<CheckResult> launched;
 
                     try {
-                        launched = executor.submit(dependency);
+                        launched = CheckFuture.submit(executor, dependency, this);
                         inflightChecks.put(id, launched);
 
                     } catch (final RejectedExecutionException e) {
@@ -322,6 +693,63 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
             }
         }
 
+        @Override
+        public void onZombie(@Nonnull final CheckFuture check) {
+            if (log.isDebugEnabled()) {
+                log.debug(
+                        "A cancelled check of '"
+                                + check.getDependency().getId()
+                                + "' is still running.");
+            }
+            synchronized (inflightChecks) {
+                // Unless it returned in the meantime.
+                if (check.isZombie()) {
+                    zombieChecks.add(check);
+                }
+            }
+        }
+
+        @Override
+        public void onZombieFinished(@Nonnull final CheckFuture check) {
+            synchronized (inflightChecks) {
+                zombieChecks.remove(check);
+                reportedZombies.remove(check);
+            }
+        }
+
+        // Called with the lock held. Counts the checks still running past the grace period after
+        //  being cancelled, keyed by dependency id.
+        @Nonnull
+        private Map<String, Integer> countZombies() {
+            if (zombieChecks.isEmpty()) {
+                return Collections.emptyMap();
+            }
+
+            final long grace = TimeUnit.MILLISECONDS.toNanos(ZOMBIE_GRACE_PERIOD);
+            final Map<String, Integer> counts = Maps.newHashMap();
+            for (final CheckFuture check : zombieChecks) {
+                if (check.isZombie() && check.getNanosSinceCancelled() >= grace) {
+                    final String id = check.getDependency().getId();
+                    counts.merge(id, 1, Integer::sum);
+                    if (reportedZombies.add(check)) {
+                        log.warn(
+                                "A cancelled check of '"
+                                        + id
+                                        + "' is still running and holding its thread.");
+                    }
+                }
+            }
+            return counts;
+        }
+
+        @Nonnull
+        @Override
+        public Map<String, Integer> getZombieCounts() {
+            synchronized (inflightChecks) {
+                return ImmutableMap.copyOf(countZombies());
+            }
+        }
+
         @Override
         public boolean isShutdown() {
             return executor.isShutdown();
@@ -339,9 +767,26 @@ class DependencyChecker /*implements Terminable todo(cameron)*/ {
         }
     }
 
+    /**
+     * Thrown when a check is refused because earlier checks of the same dependency are still
+     * running after being cancelled, which indicates that the dependency is hung in a way the check
+     * cannot recover from.
+     */
+    public static class HungCheckException extends IllegalStateException {
+        private static final long serialVersionUID = 4015539183532375410L;
+
+        private HungCheckException(@Nonnull final String id, final int zombies) {
+            super(
+                    String.format(
+                            "Refusing to check dependency %s because %d cancelled checks of it are still running.",
+                            id, zombies));
+        }
+    }
+
     /*@Override todo(cameron) */
     public void shutdown() {
         dependencyExecutor.shutdown();
+        timeoutTimer.stop();
     }
 
     public static class CheckException extends Exception {
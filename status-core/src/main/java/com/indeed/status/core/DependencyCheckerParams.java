@@ -24,9 +24,16 @@ public abstract class DependencyCheckerParams {
         return false;
     }
 
+    /// Number of cancelled checks of one dependency allowed to keep running before further checks
+    ///  of it are refused. Applies to the default dependency executor.
+    @Value.Default
+    public int zombieLimit() {
+        return DependencyChecker.DependencyExecutorSet.DEFAULT_ZOMBIE_LIMIT;
+    }
+
     @Value.Default
     public DependencyExecutor dependencyExecutor() {
         Preconditions.checkNotNull(executorService());
-        return new DependencyChecker.DependencyExecutorSet(executorService());
+        return new DependencyChecker.DependencyExecutorSet(executorService(), zombieLimit());
     }
 }
@@ -1,5 +1,7 @@
 package com.indeed.status.core;
 
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -14,4 +16,13 @@ public interface DependencyExecutor {
     boolean isShutdown();
 
     void awaitTermination(long duration, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * @return The number of checks of each dependency that were cancelled, typically on timeout,
+     *     but are still running past a short grace period, keyed by dependency id. Checks blocked
+     *     in non-interruptible I/O keep their threads until they return.
+     */
+    default Map<String, Integer> getZombieCounts() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,169 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The <code>DependencyGraph</code> records which dependencies require other dependencies to be
+ * available, so that the prerequisites can be evaluated first and the dependents skipped while a
+ * prerequisite is in OUTAGE. Edges are keyed by dependency id, so either end of an edge may be
+ * declared before the dependency itself is registered.
+ *
+ * <p>A skipped dependency reports a derived OUTAGE whose {@link CheckResult#getRootCause() root
+ * cause} names the prerequisite that is actually failing, following chains of skipped results back
+ * to the first one that was really evaluated.
+ */
+@ThreadSafe
+public class DependencyGraph {
+    /// Map from the id of each dependent to the ids of its direct prerequisites. Guarded by this.
+    @Nonnull private final Map<String, Set<String>> prerequisites = Maps.newHashMap();
+
+    /**
+     * Declares that <code>dependentId</code> cannot be available unless <code>prerequisiteId</code>
+     * is.
+     *
+     * @throws IllegalArgumentException if the edge would introduce a cycle.
+     */
+    public synchronized void addEdge(
+            @Nonnull final String dependentId, @Nonnull final String prerequisiteId) {
+        Preconditions.checkArgument(
+                !dependsOn(prerequisiteId, dependentId, Sets.<String>newHashSet()),
+                "Adding the prerequisite '%s' to '%s' would create a cycle",
+                prerequisiteId,
+                dependentId);
+
+        prerequisites
+                .computeIfAbsent(dependentId, id -> Sets.newLinkedHashSet())
+                .add(prerequisiteId);
+    }
+
+    /** Forgets every edge into or out of the given dependency. */
+    public synchronized void remove(@Nonnull final String id) {
+        prerequisites.remove(id);
+        for (final Set<String> edges : prerequisites.values()) {
+            edges.remove(id);
+        }
+    }
+
+    @Nonnull
+    public synchronized Set<String> getPrerequisites(@Nonnull final String id) {
+        final Set<String> edges = prerequisites.get(id);
+        return null == edges ? ImmutableSet.<String>of() : ImmutableSet.copyOf(edges);
+    }
+
+    public synchronized boolean isEmpty() {
+        return prerequisites.isEmpty();
+    }
+
+    /**
+     * @return The given dependencies ordered so that each appears after all of its prerequisites.
+     *     Dependencies unrelated by the graph keep their relative order.
+     */
+    @Nonnull
+    public synchronized <T extends Dependency> List<T> sort(
+            @Nonnull final Collection<T> dependencies) {
+        final Map<String, T> byId = Maps.newLinkedHashMap();
+        for (final T dependency : dependencies) {
+            byId.put(dependency.getId(), dependency);
+        }
+
+        final List<T> sorted = Lists.newArrayListWithCapacity(byId.size());
+        final Set<String> visited = Sets.newHashSetWithExpectedSize(byId.size());
+        for (final String id : byId.keySet()) {
+            visit(id, byId, visited, sorted);
+        }
+        return sorted;
+    }
+
+    /**
+     * Derives the result of a dependency from the results of its prerequisites.
+     *
+     * @param lookup Supplies the most recent result of a prerequisite, or null if none is known.
+     * @return A skipped OUTAGE result if any prerequisite is in OUTAGE, or null if the dependency
+     *     should be evaluated normally.
+     */
+    @Nullable
+    public CheckResult deriveResult(
+            @Nonnull final Dependency dependency,
+            @Nonnull final Function<String, CheckResult> lookup,
+            final long timestamp) {
+        for (final String prerequisiteId : getPrerequisites(dependency.getId())) {
+            final CheckResult prerequisite = lookup.apply(prerequisiteId);
+
+            if (null != prerequisite && prerequisite.getStatus() == CheckStatus.OUTAGE) {
+                final String rootCause =
+                        null == prerequisite.getRootCause()
+                                ? prerequisiteId
+                                : prerequisite.getRootCause();
+
+                return CheckResult.newBuilder(
+                                dependency,
+                                CheckStatus.OUTAGE,
+                                "Skipped because prerequisite '" + rootCause + "' is unavailable")
+                        .setTimestamp(timestamp)
+                        .setDuration(0L)
+                        .setPeriod(dependency.getPingPeriod())
+                        .setRootCause(rootCause)
+                        .build();
+            }
+        }
+
+        return null;
+    }
+
+    private <T extends Dependency> void visit(
+            @Nonnull final String id,
+            @Nonnull final Map<String, T> byId,
+            @Nonnull final Set<String> visited,
+            @Nonnull final List<T> sorted) {
+        if (!visited.add(id)) {
+            return;
+        }
+
+        final Set<String> edges = prerequisites.get(id);
+        if (null != edges) {
+            for (final String prerequisiteId : edges) {
+                visit(prerequisiteId, byId, visited, sorted);
+            }
+        }
+
+        final T dependency = byId.get(id);
+        if (null != dependency) {
+            sorted.add(dependency);
+        }
+    }
+
+    private boolean dependsOn(
+            @Nonnull final String dependentId,
+            @Nonnull final String prerequisiteId,
+            @Nonnull final Set<String> visited) {
+        if (dependentId.equals(prerequisiteId)) {
+            return true;
+        }
+        if (!visited.add(dependentId)) {
+            return false;
+        }
+
+        final Set<String> edges = prerequisites.get(dependentId);
+        if (null != edges) {
+            for (final String edge : edges) {
+                if (dependsOn(edge, prerequisiteId, visited)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
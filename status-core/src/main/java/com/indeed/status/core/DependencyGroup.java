@@ -0,0 +1,194 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The <code>DependencyGroup</code> coordinates the {@link GroupedDependency} instances that share a
+ * backend, so that one {@link BatchProbe} execution serves the checks of every member.
+ *
+ * <p>The first member checked after the previous batch has aged past the maximum age runs the probe
+ * on behalf of the whole group; members checked while it runs wait for its outcome, and members
+ * checked afterwards reuse it. With the maximum age somewhat below the ping period of the members,
+ * the backend sees one combined probe per group per period rather than one probe per member.
+ */
+@ThreadSafe
+public class DependencyGroup {
+    private static final Logger log = LoggerFactory.getLogger(DependencyGroup.class);
+
+    public static final long DEFAULT_MAX_AGE = TimeUnit.SECONDS.toMillis(10);
+
+    @Nonnull private final String key;
+    @Nonnull private final BatchProbe probe;
+    @Nonnull private final WallClock wallClock;
+    private final long maxAge;
+
+    /// Registered members in id order, so that probes see a stable ordering.
+    @Nonnull
+    private final ConcurrentMap<String, GroupedDependency> members = new ConcurrentSkipListMap<>();
+
+    /// Held while deciding whether to probe and while probing. Waiting is interruptible, so that
+    ///  members waiting on a hung probe can be cancelled by the checker when they time out.
+    @Nonnull private final ReentrantLock lock = new ReentrantLock();
+
+    /// Outcome of the most recent probe. Guarded by lock.
+    @Nonnull private Map<String, CheckResult> lastResults = ImmutableMap.of();
+    @Nullable private Throwable lastThrown = null;
+    private long lastProbed = 0L;
+    /// Whether the membership changed since the most recent probe.
+    private volatile boolean stale = true;
+
+    private DependencyGroup(@Nonnull final Builder builder) {
+        this.key = Preconditions.checkNotNull(builder.key, "Missing group key");
+        this.probe = Preconditions.checkNotNull(builder.probe, "Missing batch probe");
+        this.wallClock = builder.wallClock;
+        this.maxAge = builder.maxAge;
+    }
+
+    @Nonnull
+    public String getKey() {
+        return key;
+    }
+
+    @Nonnull
+    public Collection<GroupedDependency> getMembers() {
+        return ImmutableList.copyOf(members.values());
+    }
+
+    /**
+     * Probes on behalf of the given member. Dependency managers register members as they are added;
+     * members checked without a manager must be registered by hand.
+     *
+     * @throws IllegalStateException if another member with the same id is registered.
+     */
+    public void register(@Nonnull final GroupedDependency member) {
+        final GroupedDependency existing = members.putIfAbsent(member.getId(), member);
+        Preconditions.checkState(
+                null == existing || existing == member,
+                "Can't have two dependencies with the same ID [%s] in group '%s'.",
+                member.getId(),
+                key);
+
+        stale = true;
+    }
+
+    /** Stops probing on behalf of the given member. */
+    public void unregister(@Nonnull final GroupedDependency member) {
+        members.remove(member.getId(), member);
+    }
+
+    /** @return The result for the given member from a batch no older than the maximum age. */
+    @Nonnull
+    CheckResult resultFor(@Nonnull final GroupedDependency member) throws InterruptedException {
+        final Map<String, CheckResult> results;
+        final Throwable thrown;
+        final long timestamp;
+
+        lock.lockInterruptibly();
+        try {
+            final long now = wallClock.currentTimeMillis();
+            if (stale || now - lastProbed >= maxAge) {
+                runProbe(now);
+            }
+
+            results = lastResults;
+            thrown = lastThrown;
+            timestamp = lastProbed;
+
+        } finally {
+            lock.unlock();
+        }
+
+        final CheckResult result = results.get(member.getId());
+        if (null != result) {
+            return CheckResult.newBuilder(member, result).build();
+        }
+
+        return CheckResult.newBuilder(
+                        member,
+                        CheckStatus.OUTAGE,
+                        null == thrown
+                                ? "No result from the batch probe of group '" + key + "'"
+                                : "Batch probe of group '" + key + "' failed")
+                .setTimestamp(timestamp)
+                .setThrowable(thrown)
+                .build();
+    }
+
+    // Called with the lock held, so concurrent members wait for this batch rather than launching
+    //  their own.
+    private void runProbe(final long now) {
+        stale = false;
+
+        try {
+            lastResults = ImmutableMap.copyOf(probe.call(getMembers()));
+            lastThrown = null;
+
+        } catch (final Exception e) {
+            log.debug("Batch probe of group '" + key + "' failed.", e);
+            lastResults = ImmutableMap.of();
+            lastThrown = e;
+        }
+
+        lastProbed = now;
+    }
+
+    @Override
+    public String toString() {
+        return "dependency group " + key;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        @Nullable private String key;
+        @Nullable private BatchProbe probe;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+        @Nonnegative private long maxAge = DEFAULT_MAX_AGE;
+
+        protected Builder() {}
+
+        public Builder setKey(@Nonnull final String key) {
+            this.key = key;
+            return this;
+        }
+
+        public Builder setProbe(@Nonnull final BatchProbe probe) {
+            this.probe = probe;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return this;
+        }
+
+        /** @param maxAge How long, in milliseconds, the outcome of a probe is shared. */
+        public Builder setMaxAge(@Nonnegative final long maxAge) {
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        public DependencyGroup build() {
+            return new DependencyGroup(this);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Accumulates per-dependency check counts and durations as background checks complete, so that
+ * metrics can be exposed by reading counters rather than by evaluating or copying results.
+ *
+ * <p>Each added dependency is assigned a slot in pages of primitive counter arrays. Removing a
+ * dependency releases its slot for the next one added, so the memory held is bounded by the largest
+ * number of dependencies registered at once rather than by the number ever registered. Results of
+ * dependencies that are not registered are ignored.
+ *
+ * <p>Durations are counted in a fixed set of buckets, bounded above by {@link #getDurationBounds()}
+ * in milliseconds; the last bucket counts the checks slower than every bound.
+ */
+@ThreadSafe
+public class DependencyMetrics implements StatusUpdateListener {
+    private static final CheckStatus[] STATUSES = CheckStatus.values();
+    private static final long[] DURATION_BOUNDS = {
+        5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000
+    };
+    private static final int DURATION_BUCKETS = DURATION_BOUNDS.length + 1;
+    private static final int PAGE_SIZE = 64;
+
+    /// Series of each registered dependency, keyed by id. Modified only with the lock held.
+    @Nonnull private final ConcurrentMap<String, Series> series = Maps.newConcurrentMap();
+
+    @Nonnull private final Object lock = new Object();
+    /// Slots released by removed dependencies. Guarded by lock.
+    @Nonnull private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    /// Number of slots ever assigned. Guarded by lock.
+    private int slotCount = 0;
+    /// Pages of counters. Pages are never copied, so growing the directory loses no updates.
+    @Nonnull private volatile Page[] pages = new Page[0];
+
+    /** @return The upper bound, in milliseconds, of each duration bucket but the last. */
+    @Nonnull
+    public static long[] getDurationBounds() {
+        return DURATION_BOUNDS.clone();
+    }
+
+    /** @return The series of every registered dependency, in no defined order. */
+    @Nonnull
+    public Collection<Series> getSeries() {
+        return Collections.unmodifiableCollection(series.values());
+    }
+
+    @Nullable
+    public Series getSeries(@Nonnull final String id) {
+        return series.get(id);
+    }
+
+    /** @return The number of slots allocated, whether in use or free. */
+    int getCapacity() {
+        return pages.length * PAGE_SIZE;
+    }
+
+    @Override
+    public void onAdded(@Nonnull final Dependency dependency) {
+        synchronized (lock) {
+            if (series.containsKey(dependency.getId())) {
+                return;
+            }
+
+            final int slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            if (slot / PAGE_SIZE >= pages.length) {
+                final Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+                grown[pages.length] = new Page();
+                pages = grown;
+            }
+
+            final Page page = pages[slot / PAGE_SIZE];
+            final int offset = slot % PAGE_SIZE;
+            page.clear(offset);
+            series.put(dependency.getId(), new Series(dependency.getId(), slot, page, offset));
+        }
+    }
+
+    @Override
+    public void onRemoved(@Nonnull final Dependency dependency) {
+        synchronized (lock) {
+            final Series removed = series.remove(dependency.getId());
+            if (null != removed) {
+                freeSlots.push(removed.slot);
+            }
+        }
+    }
+
+    @Override
+    public void onChecked(@Nonnull final Dependency source, @Nonnull final CheckResult result) {
+        final Series target = series.get(source.getId());
+        if (null != target) {
+            target.record(result);
+        }
+    }
+
+    @Override
+    public void onChanged(
+            @Nonnull final Dependency source,
+            @Nullable final CheckResult original,
+            @Nonnull final CheckResult updated) {
+        // Tracked through onChecked.
+    }
+
+    // The counters of PAGE_SIZE slots. Counters of the slot at a given offset are at that offset,
+    //  or at the offset times the number of counters per slot.
+    private static final class Page {
+        @Nonnull
+        private final AtomicLongArray checks = new AtomicLongArray(PAGE_SIZE * STATUSES.length);
+
+        @Nonnull
+        private final AtomicLongArray durations = new AtomicLongArray(PAGE_SIZE * DURATION_BUCKETS);
+
+        @Nonnull private final AtomicLongArray durationSums = new AtomicLongArray(PAGE_SIZE);
+        @Nonnull private final AtomicLongArray timestamps = new AtomicLongArray(PAGE_SIZE);
+        /// Ordinal of the most recent status plus one, or zero before the first check.
+        @Nonnull private final AtomicIntegerArray statuses = new AtomicIntegerArray(PAGE_SIZE);
+
+        @Nonnull
+        private final AtomicIntegerArray consecutiveFailures = new AtomicIntegerArray(PAGE_SIZE);
+
+        private void clear(final int offset) {
+            for (int i = 0; i < STATUSES.length; i++) {
+                checks.set(offset * STATUSES.length + i, 0L);
+            }
+            for (int i = 0; i < DURATION_BUCKETS; i++) {
+                durations.set(offset * DURATION_BUCKETS + i, 0L);
+            }
+            durationSums.set(offset, 0L);
+            timestamps.set(offset, 0L);
+            statuses.set(offset, 0);
+            consecutiveFailures.set(offset, 0);
+        }
+    }
+
+    /**
+     * Counters of the checks of one dependency. Each counter is read independently. A series
+     * retained after its dependency is removed may read the counters of a later dependency.
+     */
+    @ThreadSafe
+    public static final class Series {
+        @Nonnull private final String id;
+        private final int slot;
+        @Nonnull private final Page page;
+        private final int offset;
+
+        private Series(
+                @Nonnull final String id,
+                final int slot,
+                @Nonnull final Page page,
+                final int offset) {
+            this.id = id;
+            this.slot = slot;
+            this.page = page;
+            this.offset = offset;
+        }
+
+        private void record(@Nonnull final CheckResult result) {
+            final long duration = Math.max(0L, result.getDuration());
+            int bucket = 0;
+            while (bucket < DURATION_BOUNDS.length && duration > DURATION_BOUNDS[bucket]) {
+                bucket++;
+            }
+
+            final CheckStatus status = result.getStatus();
+            page.checks.incrementAndGet(offset * STATUSES.length + status.ordinal());
+            page.durations.incrementAndGet(offset * DURATION_BUCKETS + bucket);
+            page.durationSums.addAndGet(offset, duration);
+            if (status == CheckStatus.OK) {
+                page.consecutiveFailures.set(offset, 0);
+            } else {
+                page.consecutiveFailures.incrementAndGet(offset);
+            }
+            page.timestamps.set(offset, result.getTimestamp());
+            page.statuses.set(offset, status.ordinal() + 1);
+        }
+
+        @Nonnull
+        public String getId() {
+            return id;
+        }
+
+        /** @return The status of the most recent check, or null before the first. */
+        @Nullable
+        public CheckStatus getStatus() {
+            final int status = page.statuses.get(offset);
+            return 0 == status ? null : STATUSES[status - 1];
+        }
+
+        /** @return The time the most recent check started, in milliseconds since the epoch. */
+        public long getTimestamp() {
+            return page.timestamps.get(offset);
+        }
+
+        /** @return The number of checks completed with the given status. */
+        public long getChecks(@Nonnull final CheckStatus status) {
+            return page.checks.get(offset * STATUSES.length + status.ordinal());
+        }
+
+        /** @return The number of checks completed with a status other than OK. */
+        public long getFailures() {
+            long failures = 0L;
+            for (final CheckStatus status : STATUSES) {
+                if (status != CheckStatus.OK) {
+                    failures += getChecks(status);
+                }
+            }
+            return failures;
+        }
+
+        /** @return The number of checks since the most recent one with a status of OK. */
+        public int getConsecutiveFailures() {
+            return page.consecutiveFailures.get(offset);
+        }
+
+        /**
+         * @return The number of checks whose duration fell in the given bucket, and not in any
+         *     earlier one.
+         */
+        public long getDurationCount(@Nonnegative final int bucket) {
+            return page.durations.get(offset * DURATION_BUCKETS + bucket);
+        }
+
+        /** @return The total duration of all checks, in milliseconds. */
+        public long getDurationSum() {
+            return page.durationSums.get(offset);
+        }
+    }
+}
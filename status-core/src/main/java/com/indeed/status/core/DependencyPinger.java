@@ -4,15 +4,18 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.indeed.util.core.LongRecentEventsCounter;
 import com.indeed.util.varexport.Export;
-import com.indeed.util.varexport.VarExporter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -21,6 +24,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * idea of consecutive failures and slowly downgrading status, but uses abstractions from the HCv3
  * system.
  *
+ * <p>Pingers do not export themselves; the {@link AbstractDependencyManager} exports the counters
+ * of all of its pingers, keyed by dependency id, and forgets them when a dependency is removed.
+ *
  * @author matts Cloned and modified from ServicePinger.java
  */
 @VisibleForTesting /* Do not use in production code outside webapp-common */
@@ -42,6 +48,11 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
             new LongRecentEventsCounter(LongRecentEventsCounter.MINUTE_TICKER, 60);
     private final StatusUpdateDelegate updateHandler = new StatusUpdateDelegate();
     @Nullable private volatile CheckResult lastResult = null;
+    /// The check of an asynchronous dependency currently in flight, if any.
+    private final AtomicReference<CompletableFuture<CheckResult>> inflight =
+            new AtomicReference<>();
+    /// Whether lastResult was restored from before a restart rather than produced by a check.
+    private volatile boolean provisional = false;
     private transient Throwable lastThrown = null;
     private transient long lastDuration = 0L;
     private transient long lastExecuted = 0L;
@@ -49,6 +60,8 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
 
     @Nonnull private final DependencyChecker checker;
     @Nonnull private final Dependency dependency;
+    @Nullable private final DependencyGraph graph;
+    @Nullable private final Function<String, CheckResult> prerequisiteResults;
 
     @VisibleForTesting
     public DependencyPinger(@Nonnull final Dependency dependency) {
@@ -59,11 +72,8 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
         this.checker = params.checker();
         this.dependency = params.dependency();
         this.pingPeriod = params.pingPeriod();
-
-        VarExporter.forNamespace(
-                        DependencyPinger.class.getSimpleName() + "-" + this.dependency.getId())
-                .includeInGlobal()
-                .export(this, "");
+        this.graph = params.graph();
+        this.prerequisiteResults = params.prerequisiteResults();
     }
 
     /**
@@ -72,30 +82,143 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
      */
     @Override
     public void run() {
+        if (dependency instanceof AsyncDependency) {
+            // Returns once the check is started; the result is cached when it completes.
+            runAsync((AsyncDependency) dependency);
+            return;
+        }
+
         // The result of a live execution
         CheckResult currentResult;
 
         synchronized (this) {
             try {
-                lastExecuted = checker.getWallClock().currentTimeMillis();
-                currentResult = checker.evaluate(dependency);
-
-                if (null != currentResult && currentResult.getStatus() == CheckStatus.OK) {
-                    currentResult = handleSuccess(currentResult);
+                @Nullable final CheckResult skipped = begin();
 
+                if (null != skipped) {
+                    currentResult = handleSkipped(skipped);
                 } else {
-                    // Replace the result of the evaluation depending on the number of consecutive
-                    //  failures, etc.
-                    currentResult = handleFailure(currentResult, null);
+                    currentResult = handleEvaluated(checker.evaluate(dependency));
                 }
 
             } catch (final Throwable t) {
                 currentResult = handleFailure(null, t);
             }
 
-            notifyListeners(currentResult);
-            lastResult = currentResult;
+            complete(currentResult);
+        }
+    }
+
+    /**
+     * Runs a check now, unless one is already in flight.
+     *
+     * @return A future completed once the result of the check is cached. Asynchronous dependencies
+     *     complete it from the callback of their check; others before returning.
+     */
+    @Nonnull
+    public CompletableFuture<CheckResult> ping() {
+        if (dependency instanceof AsyncDependency) {
+            return runAsync((AsyncDependency) dependency);
+        }
+
+        run();
+        return CompletableFuture.completedFuture(checkNotNull(lastResult));
+    }
+
+    // Starts a check of an asynchronous dependency, or joins the one in flight. A ping period
+    //  shorter than the duration of the check thus never stacks checks of the same dependency.
+    @Nonnull
+    private CompletableFuture<CheckResult> runAsync(@Nonnull final AsyncDependency dependency) {
+        final CompletableFuture<CheckResult> launched = new CompletableFuture<>();
+        while (!inflight.compareAndSet(null, launched)) {
+            final CompletableFuture<CheckResult> existing = inflight.get();
+            if (null != existing) {
+                return existing;
+            }
+        }
+
+        final CompletableFuture<CheckResult> evaluated;
+        synchronized (this) {
+            try {
+                @Nullable final CheckResult skipped = begin();
+                if (null != skipped) {
+                    finishAsync(launched, handleSkipped(skipped));
+                    return launched;
+                }
+
+                evaluated = checker.evaluateAsync(dependency);
+
+            } catch (final Throwable t) {
+                finishAsync(launched, handleFailure(null, t));
+                return launched;
+            }
+        }
+
+        evaluated.whenComplete(
+                (result, t) -> {
+                    synchronized (this) {
+                        finishAsync(
+                                launched,
+                                null == t ? handleEvaluated(result) : handleFailure(null, t));
+                    }
+                });
+        return launched;
+    }
+
+    // Called with the monitor held.
+    private void finishAsync(
+            @Nonnull final CompletableFuture<CheckResult> launched,
+            @Nonnull final CheckResult currentResult) {
+        complete(currentResult);
+        inflight.set(null);
+        launched.complete(currentResult);
+    }
+
+    // Called with the monitor held. Marks the start of a check, and returns the result to record
+    //  instead if a prerequisite is down.
+    @Nullable
+    private CheckResult begin() {
+        lastExecuted = checker.getWallClock().currentTimeMillis();
+
+        // A prerequisite is down, so pinging would only burn a worker thread until the timeout.
+        //  The skip is not counted as a failure of this dependency.
+        return null == graph
+                ? null
+                : graph.deriveResult(dependency, prerequisiteResults, lastExecuted);
+    }
+
+    @Nonnull
+    private CheckResult handleEvaluated(@Nullable final CheckResult evaluatedResult) {
+        if (null != evaluatedResult && evaluatedResult.getStatus() == CheckStatus.OK) {
+            return handleSuccess(evaluatedResult);
         }
+        // Replace the result of the evaluation depending on the number of consecutive failures,
+        //  etc.
+        return handleFailure(evaluatedResult, null);
+    }
+
+    // Called with the monitor held.
+    private void complete(@Nonnull final CheckResult currentResult) {
+        notifyListeners(currentResult);
+        lastResult = currentResult;
+        provisional = false;
+    }
+
+    /**
+     * Serves the given result until the first check completes, so that a restarted process can
+     * answer status requests without running the check inline. Ignored once a result exists.
+     */
+    public synchronized void restore(@Nonnull final CheckResult provisionalResult) {
+        if (null == lastResult) {
+            lastKnownGood = provisionalResult.getLastKnownGoodTimestamp();
+            lastResult = provisionalResult;
+            provisional = true;
+        }
+    }
+
+    /** @return true if the last result was restored and no check has completed since. */
+    public boolean isProvisional() {
+        return provisional;
     }
 
     /**
@@ -105,6 +228,11 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
     @Override
     @Nonnull
     public CheckResult call() {
+        if (null == lastResult && dependency instanceof AsyncDependency) {
+            // Wait outside the monitor, which the completion of the check needs.
+            return ping().join();
+        }
+
         if (null == lastResult) {
             synchronized (this) {
                 if (null == lastResult) {
@@ -149,6 +277,16 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
                 .build();
     }
 
+    private CheckResult handleSkipped(@Nonnull final CheckResult derivedResult) {
+        lastDuration = 0L;
+        lastThrown = null;
+
+        return CheckResult.newBuilder(this, derivedResult)
+                .setLastKnownGoodTimestamp(lastKnownGood)
+                .setPeriod(pingPeriod)
+                .build();
+    }
+
     private CheckResult handleFailure(
             @Nullable final CheckResult reportedResult, @Nullable final Throwable t) {
         consecutiveFailures.incrementAndGet();
@@ -310,6 +448,12 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
         return dependency.getServicePool();
     }
 
+    @Nonnull
+    @Override
+    public Set<String> getTags() {
+        return dependency.getTags();
+    }
+
     @Override
     public void clear() {
         updateHandler.clear();
@@ -325,6 +469,12 @@ public class DependencyPinger implements Dependency, StatusUpdateProducer, Runna
         return updateHandler.listeners();
     }
 
+    /** @return The most recent result of a background ping, or null if none has completed. */
+    @Nullable
+    public CheckResult getLastResult() {
+        return lastResult;
+    }
+
     // Access to the pinged dependency
     @Nonnull
     public Dependency getDependency() {
@@ -1,12 +1,15 @@
 package com.indeed.status.core;
 
+import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 @Value.Immutable
 public abstract class DependencyPingerParams {
@@ -49,4 +52,19 @@ public abstract class DependencyPingerParams {
     public long pingPeriod() {
         return dependency().getPingPeriod();
     }
+
+    /// Prerequisites of the dependency, consulted before each ping.
+    @Nullable
+    public abstract DependencyGraph graph();
+
+    /// Source of the most recent result of each prerequisite. Required if a graph is given.
+    @Nullable
+    public abstract Function<String, CheckResult> prerequisiteResults();
+
+    @Value.Check
+    protected void check() {
+        Preconditions.checkState(
+                null == graph() || null != prerequisiteResults(),
+                "A dependency graph requires a source of prerequisite results");
+    }
 }
@@ -0,0 +1,72 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The <code>GroupedDependency</code> is a dependency whose check is served by the {@link
+ * BatchProbe} of the {@link DependencyGroup} it belongs to, rather than by a probe of its own. The
+ * dependency manager registers the dependency with its group when the dependency is added, and
+ * unregisters it when the dependency is removed, so that the group probes for the registered
+ * members only.
+ *
+ * <pre>
+ * final DependencyGroup mysql = DependencyGroup.newBuilder()
+ *         .setKey("mysql-primary")
+ *         .setProbe(members -&gt; pingEverySchemaOnOneConnection(members))
+ *         .build();
+ * manager.launchPinger(GroupedDependency.newBuilder().setId("users").setGroup(mysql)...build());
+ * manager.launchPinger(GroupedDependency.newBuilder().setId("orders").setGroup(mysql)...build());
+ * </pre>
+ */
+@ThreadSafe
+public class GroupedDependency extends AbstractDependency {
+    @Nonnull private final DependencyGroup group;
+
+    // For builder use only
+    private GroupedDependency(@Nonnull final Builder builder) {
+        super(builder);
+        this.group =
+                Preconditions.checkNotNull(
+                        builder.getGroup(),
+                        "Cannot construct a grouped dependency without a group");
+    }
+
+    @Override
+    public final CheckResult call() throws Exception {
+        return group.resultFor(this);
+    }
+
+    @Nonnull
+    public DependencyGroup getGroup() {
+        return group;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractDependency.Builder<GroupedDependency, Builder> {
+        @Nullable private DependencyGroup group;
+
+        protected Builder() {}
+
+        public Builder setGroup(@Nonnull final DependencyGroup group) {
+            this.group = group;
+            return this;
+        }
+
+        @Nullable
+        public DependencyGroup getGroup() {
+            return group;
+        }
+
+        @Override
+        public GroupedDependency build() {
+            return new GroupedDependency(this);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Timer for large numbers of short-lived timeouts, most of which are cancelled before they expire.
+ * Timeouts are hashed by deadline into a ring of buckets visited by a single worker thread once per
+ * tick, so scheduling and cancelling cost a queue insertion each, regardless of how many timeouts
+ * are pending, and timeouts expire up to one tick late. The worker thread is started by the first
+ * timeout scheduled, and runs until the timer is stopped.
+ *
+ * <p>Package-protected, because the timer exists to enforce the timeouts of dependency checks.
+ */
+@ThreadSafe
+class HashedWheelTimer {
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_CANCELLED = 1;
+    private static final int STATE_EXPIRED = 2;
+
+    private static final int WORKER_INIT = 0;
+    private static final int WORKER_STARTED = 1;
+    private static final int WORKER_STOPPED = 2;
+
+    @Nonnull private final String name;
+    private final long tickNanos;
+    @Nonnull private final Bucket[] wheel;
+    private final int mask;
+
+    @Nonnull private final AtomicInteger workerState = new AtomicInteger(WORKER_INIT);
+    @Nullable private volatile Thread worker;
+    /// System.nanoTime() at the start of the worker, from which ticks and deadlines are counted.
+    private volatile long startNanos;
+
+    /// Timeouts scheduled or cancelled since the last tick, handed over to the worker.
+    @Nonnull private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    @Nonnull private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /// Number of ticks elapsed. Accessed only by the worker.
+    private long tick = 0L;
+
+    HashedWheelTimer(
+            @Nonnull final String name,
+            final long tickDuration,
+            @Nonnull final TimeUnit unit,
+            final int ticksPerWheel) {
+        Preconditions.checkArgument(tickDuration > 0, "Tick duration must be positive");
+        Preconditions.checkArgument(
+                ticksPerWheel > 0 && Integer.bitCount(ticksPerWheel) == 1,
+                "Ticks per wheel must be a power of two");
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[ticksPerWheel];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.name = name;
+    }
+
+    /**
+     * Schedules the given task to run on the timer thread once the delay elapses.
+     *
+     * @throws IllegalStateException if the timer was stopped.
+     */
+    @Nonnull
+    Timeout newTimeout(
+            @Nonnull final Runnable task, final long delay, @Nonnull final TimeUnit unit) {
+        start();
+        final Timeout timeout =
+                new Timeout(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /** Stops the worker thread. Pending timeouts never expire. */
+    void stop() {
+        if (workerState.getAndSet(WORKER_STOPPED) == WORKER_STARTED) {
+            final Thread stopped = worker;
+            if (null != stopped) {
+                LockSupport.unpark(stopped);
+            }
+        }
+    }
+
+    private void start() {
+        final int state = workerState.get();
+        Preconditions.checkState(state != WORKER_STOPPED, "The timer %s was stopped", name);
+        if (state == WORKER_INIT) {
+            synchronized (workerState) {
+                if (workerState.get() == WORKER_INIT) {
+                    startNanos = System.nanoTime();
+                    final Thread started = new Thread(this::work, name);
+                    started.setDaemon(true);
+                    worker = started;
+                    // Unless stopped meanwhile.
+                    if (workerState.compareAndSet(WORKER_INIT, WORKER_STARTED)) {
+                        started.start();
+                    }
+                }
+            }
+        }
+    }
+
+    private void work() {
+        while (workerState.get() == WORKER_STARTED) {
+            final long deadline = tickNanos * (tick + 1);
+            long sleepNanos;
+            while ((sleepNanos = deadline - (System.nanoTime() - startNanos)) > 0) {
+                if (workerState.get() != WORKER_STARTED) {
+                    return;
+                }
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while (null != (timeout = cancelled.poll())) {
+            if (null != timeout.bucket) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        Timeout timeout;
+        while (null != (timeout = scheduled.poll())) {
+            if (timeout.state.get() != STATE_PENDING) {
+                continue;
+            }
+
+            final long expiresAt = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiresAt - tick) / wheel.length;
+            // Timeouts already overdue expire on the current tick.
+            wheel[(int) (Math.max(expiresAt, tick) & mask)].add(timeout);
+        }
+    }
+
+    /** A task scheduled on the timer. */
+    final class Timeout {
+        @Nonnull private final Runnable task;
+        private final long deadline;
+        @Nonnull private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+
+        /// Position in the wheel. Accessed only by the worker.
+        private long remainingRounds;
+        @Nullable private Bucket bucket;
+        @Nullable private Timeout next;
+        @Nullable private Timeout previous;
+
+        private Timeout(@Nonnull final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** @return true if the task will not run as a result of this call. */
+        boolean cancel() {
+            if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED)) {
+                return false;
+            }
+            cancelled.add(this);
+            return true;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(STATE_PENDING, STATE_EXPIRED)) {
+                try {
+                    task.run();
+                } catch (final Throwable t) {
+                    log.warn("Timer task threw an exception.", t);
+                }
+            }
+        }
+    }
+
+    // Doubly-linked list of the timeouts hashed to one tick of the wheel. Accessed only by the
+    //  worker.
+    private final class Bucket {
+        @Nullable private Timeout head;
+        @Nullable private Timeout tail;
+
+        private void add(@Nonnull final Timeout timeout) {
+            timeout.bucket = this;
+            if (null == head) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+            }
+            tail = timeout;
+        }
+
+        private void remove(@Nonnull final Timeout timeout) {
+            if (null != timeout.previous) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (null != timeout.next) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.next = null;
+            timeout.previous = null;
+        }
+
+        private void expire() {
+            Timeout timeout = head;
+            while (null != timeout) {
+                final Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.indeed.status.core;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The <code>MetricRecorder</code> accumulates outcomes reported by the application's own request
+ * threads, so that real traffic can serve as a health signal for a {@link RecordedDependency}.
+ *
+ * <p>Every recording method is lock-free and, once the striped cells have been created for the
+ * contending threads, allocation-free, so it is safe to call from hot paths. Counters are
+ * cumulative and never reset; readers work from the difference between two snapshots.
+ *
+ * @see RecordedRatioDependency
+ * @see RecordedValueDependency
+ */
+@ThreadSafe
+public class MetricRecorder implements BurnRateDependency.CounterSource {
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder valueCount = new LongAdder();
+    private final LongAdder valueSum = new LongAdder();
+
+    public void recordSuccess() {
+        successes.increment();
+    }
+
+    public void recordFailure() {
+        failures.increment();
+    }
+
+    public void recordValue(final long value) {
+        valueCount.increment();
+        valueSum.add(value);
+    }
+
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getTotalCount() {
+        return successes.sum() + failures.sum();
+    }
+
+    public long getValueCount() {
+        return valueCount.sum();
+    }
+
+    public long getValueSum() {
+        return valueSum.sum();
+    }
+}
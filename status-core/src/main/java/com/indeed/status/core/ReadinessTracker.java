@@ -0,0 +1,114 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+
+/**
+ * Maintains the overall status of the background-pinged dependencies as their checks complete, so
+ * that reading it costs a single volatile read rather than an evaluation.
+ *
+ * <p>Every {@link Urgency} downgrades the system to the worse of its current status and a bound
+ * derived from the dependency status alone, so the overall status is the worst of the per-
+ * dependency bounds. The tracker counts dependencies per bound and adjusts two counts per check.
+ *
+ * <p>Only dependencies added to the tracker are counted. A dependency with no result yet is bound
+ * to OUTAGE, so that a process is not ready before its dependencies have been checked, and results
+ * that arrive after a dependency was removed, such as that of a ping interrupted by the removal,
+ * are ignored.
+ *
+ * <p>Package-protected, because the tracker is owned by the dependency manager.
+ */
+@ThreadSafe
+class ReadinessTracker implements StatusUpdateListener {
+    private static final CheckStatus[] STATUSES = CheckStatus.values();
+
+    /// Dependencies tracked, keyed by id. Guarded by this.
+    @Nonnull private final Map<String, Dependency> members = Maps.newHashMap();
+    /// Bound contributed by each tracked dependency, keyed by id. Guarded by this.
+    @Nonnull private final Map<String, CheckStatus> bounds = Maps.newHashMap();
+    /// Number of dependencies per bound, indexed by ordinal. Guarded by this.
+    @Nonnull private final int[] counts = new int[STATUSES.length];
+
+    @Nonnull private volatile CheckStatus status = CheckStatus.OK;
+
+    @Nonnull
+    public CheckStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public synchronized void onChecked(
+            @Nonnull final Dependency source, @Nonnull final CheckResult result) {
+        if (members.get(source.getId()) != source) {
+            // Removed, or replaced by another dependency under the same id.
+            return;
+        }
+        setBound(
+                source.getId(),
+                source.getUrgency().downgradeWith(CheckStatus.OK, result.getStatus()));
+    }
+
+    @Override
+    public void onChanged(
+            @Nonnull final Dependency source,
+            @Nullable final CheckResult original,
+            @Nonnull final CheckResult updated) {
+        // Tracked through onChecked.
+    }
+
+    @Override
+    public synchronized void onAdded(@Nonnull final Dependency dependency) {
+        members.put(dependency.getId(), dependency);
+
+        // Results restored from a snapshot count until the first check completes.
+        final CheckResult restored =
+                dependency instanceof DependencyPinger
+                        ? ((DependencyPinger) dependency).getLastResult()
+                        : null;
+        setBound(
+                dependency.getId(),
+                null == restored
+                        ? CheckStatus.OUTAGE
+                        : dependency
+                                .getUrgency()
+                                .downgradeWith(CheckStatus.OK, restored.getStatus()));
+    }
+
+    @Override
+    public synchronized void onRemoved(@Nonnull final Dependency dependency) {
+        if (!members.remove(dependency.getId(), dependency)) {
+            return;
+        }
+        final CheckStatus previous = bounds.remove(dependency.getId());
+        if (null != previous) {
+            counts[previous.ordinal()]--;
+            update();
+        }
+    }
+
+    private void setBound(@Nonnull final String id, @Nonnull final CheckStatus bound) {
+        final CheckStatus previous = bounds.put(id, bound);
+        if (bound != previous) {
+            if (null != previous) {
+                counts[previous.ordinal()]--;
+            }
+            counts[bound.ordinal()]++;
+            update();
+        }
+    }
+
+    // Statuses are declared worst first.
+    private void update() {
+        for (final CheckStatus candidate : STATUSES) {
+            if (counts[candidate.ordinal()] > 0) {
+                status = candidate;
+                return;
+            }
+        }
+        status = CheckStatus.OK;
+    }
+}
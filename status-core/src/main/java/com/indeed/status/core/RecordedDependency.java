@@ -0,0 +1,206 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The <code>RecordedDependency</code> is the base of dependencies whose status is pushed by the
+ * application through a {@link MetricRecorder} rather than pulled by a probe. The {@link #call}
+ * method only reads the recorder, measuring what was recorded since the previous call and grading
+ * the measurement against three ascending thresholds.
+ *
+ * <p>When fewer than the minimum number of events were recorded in an interval, the measurement is
+ * considered meaningless and the dependency reports OK.
+ */
+@ThreadSafe
+public abstract class RecordedDependency extends AbstractDependency {
+    @Nonnull private final MetricRecorder recorder;
+    @Nonnull private final WallClock wallClock;
+    // When the measurement is below maxOK, check status is OK.
+    private final double maxOK;
+    // When the measurement is in [maxOK, maxMinor), check status is MINOR.
+    private final double maxMinor;
+    // When the measurement is in [maxMinor, maxMajor), check status is MAJOR.
+    // When the measurement is in [maxMajor, ~), check status is OUTAGE.
+    private final double maxMajor;
+    private final long minimumEvents;
+
+    /// Recorder totals at the time of the previous call. Guarded by this.
+    private long lastSuccesses;
+    private long lastFailures;
+    private long lastValueCount;
+    private long lastValueSum;
+
+    protected RecordedDependency(
+            @Nonnull final RecordedDependency.Builder<? extends RecordedDependency, ?> builder) {
+        super(builder);
+
+        this.recorder = Preconditions.checkNotNull(builder.getRecorder(), "recorder required");
+        this.wallClock = Preconditions.checkNotNull(builder.getWallClock(), "wallclock required");
+        this.maxOK = builder.maxOK;
+        this.maxMinor = builder.maxMinor;
+        this.maxMajor = builder.maxMajor;
+        this.minimumEvents = builder.minimumEvents;
+
+        this.lastSuccesses = recorder.getSuccessCount();
+        this.lastFailures = recorder.getFailureCount();
+        this.lastValueCount = recorder.getValueCount();
+        this.lastValueSum = recorder.getValueSum();
+    }
+
+    @Override
+    public CheckResult call() throws Exception {
+        final long timestamp = wallClock.currentTimeMillis();
+        final Interval interval;
+
+        synchronized (this) {
+            final long successes = recorder.getSuccessCount();
+            final long failures = recorder.getFailureCount();
+            final long valueCount = recorder.getValueCount();
+            final long valueSum = recorder.getValueSum();
+
+            interval =
+                    new Interval(
+                            successes - lastSuccesses,
+                            failures - lastFailures,
+                            valueCount - lastValueCount,
+                            valueSum - lastValueSum);
+
+            lastSuccesses = successes;
+            lastFailures = failures;
+            lastValueCount = valueCount;
+            lastValueSum = valueSum;
+        }
+
+        final CheckStatus status;
+        final double measurement;
+        if (events(interval) < minimumEvents) {
+            measurement = Double.NaN;
+            status = CheckStatus.OK;
+        } else {
+            measurement = measure(interval);
+            if (measurement < maxOK) {
+                status = CheckStatus.OK;
+            } else if (measurement < maxMinor) {
+                status = CheckStatus.MINOR;
+            } else if (measurement < maxMajor) {
+                status = CheckStatus.MAJOR;
+            } else {
+                status = CheckStatus.OUTAGE;
+            }
+        }
+
+        return CheckResult.newBuilder(this, status, formatErrorMessage(measurement, interval))
+                .setTimestamp(timestamp)
+                .setDuration(wallClock.currentTimeMillis() - timestamp)
+                .build();
+    }
+
+    @Nonnull
+    public MetricRecorder getRecorder() {
+        return recorder;
+    }
+
+    /** @return The number of events in the interval that the measurement is derived from. */
+    protected abstract long events(@Nonnull Interval interval);
+
+    /** @return The measurement to grade against the thresholds; larger is worse. */
+    protected abstract double measure(@Nonnull Interval interval);
+
+    /**
+     * Override this method to modify the error message
+     *
+     * @param measurement the measured value, or NaN if too few events were recorded
+     */
+    protected String formatErrorMessage(
+            final double measurement, @Nonnull final Interval interval) {
+        return Double.isNaN(measurement)
+                ? "Too few events recorded to judge: " + events(interval)
+                : "Measured " + measurement + " over " + events(interval) + " events";
+    }
+
+    /** The change in the recorder totals between two consecutive calls. */
+    protected static final class Interval {
+        public final long successes;
+        public final long failures;
+        public final long valueCount;
+        public final long valueSum;
+
+        private Interval(
+                final long successes,
+                final long failures,
+                final long valueCount,
+                final long valueSum) {
+            this.successes = successes;
+            this.failures = failures;
+            this.valueCount = valueCount;
+            this.valueSum = valueSum;
+        }
+    }
+
+    public abstract static class Builder<
+                    T extends RecordedDependency, B extends RecordedDependency.Builder<T, B>>
+            extends AbstractDependency.Builder<T, B> {
+        @Nonnull private MetricRecorder recorder = new MetricRecorder();
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+        private double maxOK = Double.MAX_VALUE;
+        private double maxMinor = Double.MAX_VALUE;
+        private double maxMajor = Double.MAX_VALUE;
+        private long minimumEvents = 1;
+
+        protected Builder() {}
+
+        @Nonnull
+        protected MetricRecorder getRecorder() {
+            return recorder;
+        }
+
+        /** Share an existing recorder rather than creating a new one for this dependency. */
+        public B setRecorder(@Nonnull final MetricRecorder recorder) {
+            this.recorder = recorder;
+            return cast();
+        }
+
+        @Nonnull
+        protected WallClock getWallClock() {
+            return wallClock;
+        }
+
+        public B setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return cast();
+        }
+
+        public B setThresholds(final double maxOK, final double maxMinor, final double maxMajor) {
+            Preconditions.checkArgument(
+                    maxOK <= maxMinor && maxMinor <= maxMajor, "Thresholds must be ascending");
+            this.maxOK = maxOK;
+            this.maxMinor = maxMinor;
+            this.maxMajor = maxMajor;
+            return cast();
+        }
+
+        /**
+         * @param minimumEvents Number of events an interval needs to be measured, at least one.
+         *     Intervals with fewer are reported OK, with no measurement.
+         */
+        public B setMinimumEvents(final long minimumEvents) {
+            Preconditions.checkArgument(
+                    minimumEvents >= 1, "The minimum number of events must be at least one");
+            this.minimumEvents = minimumEvents;
+            return cast();
+        }
+
+        @Override
+        public abstract RecordedDependency build();
+
+        private B cast() {
+            //noinspection unchecked
+            return (B) this;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link RecordedDependency} graded on the ratio of failures to all outcomes reported through
+ * {@link MetricRecorder#recordSuccess()} and {@link MetricRecorder#recordFailure()} since the
+ * previous check.
+ */
+@ThreadSafe
+public class RecordedRatioDependency extends RecordedDependency {
+    protected RecordedRatioDependency(@Nonnull final Builder builder) {
+        super(builder);
+    }
+
+    @Override
+    protected long events(@Nonnull final Interval interval) {
+        return interval.successes + interval.failures;
+    }
+
+    @Override
+    protected double measure(@Nonnull final Interval interval) {
+        return (double) interval.failures / (interval.successes + interval.failures);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder
+            extends RecordedDependency.Builder<RecordedRatioDependency, Builder> {
+        protected Builder() {}
+
+        @Override
+        public RecordedRatioDependency build() {
+            return new RecordedRatioDependency(this);
+        }
+    }
+}
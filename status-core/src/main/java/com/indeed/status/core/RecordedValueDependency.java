@@ -0,0 +1,40 @@
+package com.indeed.status.core;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A {@link RecordedDependency} graded on the mean of the values reported through {@link
+ * MetricRecorder#recordValue(long)} since the previous check, such as request latencies or queue
+ * depths.
+ */
+@ThreadSafe
+public class RecordedValueDependency extends RecordedDependency {
+    protected RecordedValueDependency(@Nonnull final Builder builder) {
+        super(builder);
+    }
+
+    @Override
+    protected long events(@Nonnull final Interval interval) {
+        return interval.valueCount;
+    }
+
+    @Override
+    protected double measure(@Nonnull final Interval interval) {
+        return (double) interval.valueSum / interval.valueCount;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder
+            extends RecordedDependency.Builder<RecordedValueDependency, Builder> {
+        protected Builder() {}
+
+        @Override
+        public RecordedValueDependency build() {
+            return new RecordedValueDependency(this);
+        }
+    }
+}
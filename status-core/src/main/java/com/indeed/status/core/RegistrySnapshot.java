@@ -0,0 +1,102 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dependencies registered with a manager at one point in time, indexed by id and by tag. The
+ * manager publishes a new snapshot for every change rather than modifying the current one, so that
+ * readers iterating a snapshot never observe a partially applied change.
+ *
+ * <p>Each dependency is also assigned a dense slot, the rank of its id in sort order, so that
+ * evaluations of the snapshot can keep their results in arrays rather than maps, already sorted for
+ * reporting. Slots are stable only within a snapshot.
+ *
+ * <p>Package-protected, because snapshots are owned by the dependency manager.
+ */
+@Immutable
+final class RegistrySnapshot {
+    static final RegistrySnapshot EMPTY = new RegistrySnapshot(ImmutableMap.of());
+
+    /// Registered dependencies in registration order, keyed by id.
+    @Nonnull final ImmutableMap<String, Dependency> dependencies;
+    /// Ids of the registered dependencies carrying each tag.
+    @Nonnull final ImmutableSetMultimap<String, String> tagIndex;
+    /// Slot of each registered dependency, keyed by id.
+    @Nonnull final ImmutableMap<String, Integer> slots;
+
+    private RegistrySnapshot(@Nonnull final ImmutableMap<String, Dependency> dependencies) {
+        this.dependencies = dependencies;
+
+        final ImmutableSetMultimap.Builder<String, String> tagIndex =
+                ImmutableSetMultimap.builder();
+        for (final Dependency dependency : dependencies.values()) {
+            for (final String tag : dependency.getTags()) {
+                tagIndex.put(tag, dependency.getId());
+            }
+        }
+        this.tagIndex = tagIndex.build();
+
+        final ImmutableMap.Builder<String, Integer> slots = ImmutableMap.builder();
+        int slot = 0;
+        for (final String id : Ordering.natural().sortedCopy(dependencies.keySet())) {
+            slots.put(id, slot++);
+        }
+        this.slots = slots.build();
+    }
+
+    /**
+     * @return Dense slots of the given registered dependencies, numbered in the order of their
+     *     slots in this snapshot, so that an evaluation of a few of many dependencies keeps arrays
+     *     sized for the few, still sorted for reporting.
+     */
+    @Nonnull
+    ImmutableMap<String, Integer> slotsOf(@Nonnull final Collection<Dependency> selected) {
+        if (selected.size() == slots.size()) {
+            return slots;
+        }
+
+        final List<String> ids = Lists.newArrayListWithCapacity(selected.size());
+        for (final Dependency dependency : selected) {
+            ids.add(dependency.getId());
+        }
+        ids.sort(Comparator.comparing(slots::get));
+
+        final ImmutableMap.Builder<String, Integer> subset = ImmutableMap.builder();
+        int slot = 0;
+        for (final String id : ids) {
+            subset.put(id, slot++);
+        }
+        return subset.build();
+    }
+
+    /**
+     * @return A snapshot without the dependencies of the given ids and with the given dependencies,
+     *     which must not already be registered.
+     */
+    @Nonnull
+    RegistrySnapshot apply(
+            @Nonnull final Collection<String> removedIds,
+            @Nonnull final Collection<? extends Dependency> added) {
+        if (removedIds.isEmpty() && added.isEmpty()) {
+            return this;
+        }
+
+        final Map<String, Dependency> updated = Maps.newLinkedHashMap(dependencies);
+        updated.keySet().removeAll(removedIds);
+        for (final Dependency dependency : added) {
+            updated.put(dependency.getId(), dependency);
+        }
+        return new RegistrySnapshot(ImmutableMap.copyOf(updated));
+    }
+}
@@ -0,0 +1,198 @@
+package com.indeed.status.core;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The <code>RemoteStatusDependency</code> reports the condition another service reports on its
+ * status endpoint, so that the health of one service can depend on that of another without each
+ * service parsing the other's report.
+ *
+ * <pre>
+ * manager.addDependency(RemoteStatusDependency.newBuilder()
+ *         .setId("billing")
+ *         .setDescription("Billing service")
+ *         .setUrl(new URL("http://billing:8080/private/healthcheck"))
+ *         .setUrgency(Urgency.WEAK)
+ *         .build());
+ * </pre>
+ *
+ * <p>The endpoint should serve a summary rather than a detailed report. Only the top-level <code>
+ * condition</code> of the report is read, by a streaming parser that skips the rest of the report
+ * without building it. Each request names the entity tag of the last report, so that an unchanged
+ * report is answered with a 304 and the cached condition is reported again. Responses are read to
+ * the end, so that the connection is kept alive for the next check.
+ */
+@ThreadSafe
+public class RemoteStatusDependency extends AbstractDependency {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String CONDITION = "condition";
+
+    @Nonnull private final URL url;
+    @Nonnull private final WallClock wallClock;
+
+    /// The entity tag and condition of the most recent report, if the endpoint sent a tag.
+    @Nullable private volatile CachedReport cached = null;
+
+    protected RemoteStatusDependency(@Nonnull final Builder builder) {
+        super(builder);
+
+        this.url = Preconditions.checkNotNull(builder.url, "Missing status endpoint URL");
+        Preconditions.checkArgument(
+                "http".equals(url.getProtocol()) || "https".equals(url.getProtocol()),
+                "Status endpoints must be served over HTTP");
+        this.wallClock = Preconditions.checkNotNull(builder.wallClock, "Missing wall clock");
+    }
+
+    @Override
+    public CheckResult call() throws Exception {
+        final long timestamp = wallClock.currentTimeMillis();
+
+        CheckStatus status;
+        String errorMessage;
+        Throwable throwable = null;
+        try {
+            status = fetchCondition();
+            errorMessage = url + " reports " + status;
+        } catch (final IOException e) {
+            status = CheckStatus.OUTAGE;
+            errorMessage = "Unable to read the status reported by " + url;
+            throwable = e;
+        }
+
+        return CheckResult.newBuilder(this, status, errorMessage)
+                .setTimestamp(timestamp)
+                .setDuration(wallClock.currentTimeMillis() - timestamp)
+                .setThrowable(throwable)
+                .build();
+    }
+
+    @Nonnull
+    private CheckStatus fetchCondition() throws IOException {
+        final CachedReport observed = cached;
+        final int timeout = (int) Math.min(Integer.MAX_VALUE, Math.max(0L, getTimeout()));
+
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setUseCaches(false);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        if (null != observed) {
+            connection.setRequestProperty("If-None-Match", observed.etag);
+        }
+
+        final int code = connection.getResponseCode();
+        if (HttpURLConnection.HTTP_NOT_MODIFIED == code && null != observed) {
+            // Close the empty body, so that the connection can be reused.
+            try (final InputStream in = connection.getInputStream()) {
+                ByteStreams.exhaust(in);
+            }
+            return observed.condition;
+        }
+
+        // Unhealthy services answer with an error code, but still send their report.
+        final InputStream body =
+                code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (null == body) {
+            throw new IOException("HTTP " + code + " without a status report");
+        }
+
+        final CheckStatus condition;
+        try (final InputStream in =
+                "gzip".equalsIgnoreCase(connection.getContentEncoding())
+                        ? new GZIPInputStream(body)
+                        : body) {
+            condition = readCondition(in);
+            // Read the rest, so that the connection can be reused.
+            ByteStreams.exhaust(in);
+        }
+        if (null == condition) {
+            throw new IOException("HTTP " + code + " without a status report");
+        }
+
+        final String etag = connection.getHeaderField("ETag");
+        cached = null == etag ? null : new CachedReport(etag, condition);
+        return condition;
+    }
+
+    /** @return The top-level condition of the given report, or null if it has none. */
+    @Nullable
+    static CheckStatus readCondition(@Nonnull final InputStream in) throws IOException {
+        final JsonParser parser = JSON_FACTORY.createParser(in);
+        parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (CONDITION.equals(field) && value == JsonToken.VALUE_STRING) {
+                    return CheckStatus.infer(parser.getText());
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } finally {
+            parser.close();
+        }
+    }
+
+    @Nonnull
+    public URL getUrl() {
+        return url;
+    }
+
+    private static final class CachedReport {
+        @Nonnull private final String etag;
+        @Nonnull private final CheckStatus condition;
+
+        private CachedReport(@Nonnull final String etag, @Nonnull final CheckStatus condition) {
+            this.etag = etag;
+            this.condition = condition;
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder
+            extends AbstractDependency.Builder<RemoteStatusDependency, Builder> {
+        @Nullable private URL url;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+
+        protected Builder() {}
+
+        /** @param url Status endpoint of the remote service, preferably serving a summary. */
+        public Builder setUrl(@Nonnull final URL url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return this;
+        }
+
+        @Override
+        public RemoteStatusDependency build() {
+            return new RemoteStatusDependency(this);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.indeed.status.core;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * File format for the most recent result of each dependency, saved by the dependency manager so
+ * that a restarted process can serve provisional results before its first pings complete.
+ *
+ * <p>Package-protected, because the format is an implementation detail of the manager.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+class ResultSnapshot {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /// The time the snapshot was taken
+    public long savedAt;
+    /// The saved results, keyed by dependency id
+    @Nonnull public Map<String, Entry> results = Maps.newHashMap();
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Entry {
+        @Nullable public CheckStatus status;
+        @Nullable public String errorMessage;
+        public long timestamp;
+        public long duration;
+        public long lastKnownGoodTimestamp;
+        public long period;
+
+        @Nonnull
+        static Entry of(@Nonnull final CheckResult result) {
+            final Entry entry = new Entry();
+            entry.status = result.getStatus();
+            entry.errorMessage = result.getErrorMessage();
+            entry.timestamp = result.getTimestamp();
+            entry.duration = result.getDuration();
+            entry.lastKnownGoodTimestamp = result.getLastKnownGoodTimestamp();
+            entry.period = result.getPeriod();
+            return entry;
+        }
+
+        /** @return A result for the given dependency marked as predating the restart. */
+        @Nonnull
+        CheckResult toResult(@Nonnull final Dependency dependency) {
+            return CheckResult.newBuilder(
+                            dependency,
+                            null == status ? CheckStatus.OUTAGE : status,
+                            "Stale result from before restart: "
+                                    + (null == errorMessage ? "" : errorMessage))
+                    .setTimestamp(timestamp)
+                    .setDuration(duration)
+                    .setLastKnownGoodTimestamp(lastKnownGoodTimestamp)
+                    .setPeriod(period)
+                    .build();
+        }
+    }
+
+    /** Writes the snapshot to a sibling file and renames it into place. */
+    void write(@Nonnull final File file) throws IOException {
+        final File temporary = new File(file.getPath() + ".tmp");
+        MAPPER.writeValue(temporary, this);
+        Files.move(
+                temporary.toPath(),
+                file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** @return The snapshot in the given file, or null if there is none. */
+    @Nullable
+    static ResultSnapshot read(@Nonnull final File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        return MAPPER.readValue(file, ResultSnapshot.class);
+    }
+}
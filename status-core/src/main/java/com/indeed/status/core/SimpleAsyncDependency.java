@@ -0,0 +1,77 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The <code>SimpleAsyncDependency</code> is the {@link AsyncDependency} counterpart of {@link
+ * SimpleDependency}, delegating its check to an {@link AsyncCheckMethod}.
+ *
+ * <pre>
+ * SimpleAsyncDependency.newBuilder()
+ *         .setId("search")
+ *         .setCheckMethod(dependency -&gt; httpClient.get(url).thenApply(toResult(dependency)))
+ *         .build();
+ * </pre>
+ */
+@ThreadSafe
+public class SimpleAsyncDependency extends AbstractDependency implements AsyncDependency {
+    @Nonnull private final AsyncCheckMethod checkMethod;
+
+    // For builder use only
+    private SimpleAsyncDependency(@Nonnull final Builder builder) {
+        super(builder);
+        this.checkMethod =
+                Preconditions.checkNotNull(
+                        builder.getCheckMethod(),
+                        "Cannot construct a simple dependency with a null check method");
+    }
+
+    @Nonnull
+    @Override
+    public final CompletionStage<CheckResult> callAsync() {
+        try {
+            return checkMethod.call(this);
+        } catch (final RuntimeException e) {
+            // Report a method that fails to start the same way as one that fails later.
+            final CompletableFuture<CheckResult> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    @Override
+    public final CheckResult call() throws Exception {
+        return AsyncDependency.super.call();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder extends AbstractDependency.Builder<SimpleAsyncDependency, Builder> {
+        @Nullable private AsyncCheckMethod checkMethod;
+
+        protected Builder() {}
+
+        public Builder setCheckMethod(@Nonnull final AsyncCheckMethod checkMethod) {
+            this.checkMethod = checkMethod;
+            return this;
+        }
+
+        @Nullable
+        public AsyncCheckMethod getCheckMethod() {
+            return checkMethod;
+        }
+
+        @Override
+        public SimpleAsyncDependency build() {
+            return new SimpleAsyncDependency(this);
+        }
+    }
+}
@@ -1,12 +1,9 @@
 package com.indeed.status.core;
 
+import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
-
 /**
  * This dependency return the state according the average failed ratio in a given time window.
  *
@@ -16,7 +13,10 @@ public abstract class SlideWindowDependency extends AbstractDependency {
 
     private static final Logger LOG = LoggerFactory.getLogger(SlideWindowDependency.class);
 
-    private final EventList eventList;
+    /// Default number of samples retained per window; 16 bytes each.
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final EventRing eventRing;
     // When failed ratio is below maxOK, check status is OK.
     protected final double maxOK;
     // When failed ratio is in [maxOK, maxMinor), check status is MINOR.
@@ -35,11 +35,43 @@ public abstract class SlideWindowDependency extends AbstractDependency {
             final double maxMinor,
             final double maxMajor,
             final long timeInterval) {
+        this(
+                id,
+                description,
+                timeout,
+                pingPeriod,
+                urgency,
+                maxOK,
+                maxMinor,
+                maxMajor,
+                timeInterval,
+                DEFAULT_CAPACITY,
+                0L);
+    }
+
+    /**
+     * @param capacity The maximum number of samples retained in the window. Once reached, the
+     *     oldest samples are dropped.
+     * @param bucketMillis If positive, samples arriving within this many milliseconds of the first
+     *     sample of a bucket are averaged into a single sample.
+     */
+    protected SlideWindowDependency(
+            final String id,
+            final String description,
+            final long timeout,
+            final long pingPeriod,
+            final Urgency urgency,
+            final double maxOK,
+            final double maxMinor,
+            final double maxMajor,
+            final long timeInterval,
+            final int capacity,
+            final long bucketMillis) {
         super(id, description, timeout, pingPeriod, urgency, DEFAULT_TYPE, DEFAULT_SERVICE_POOL);
         this.maxOK = maxOK;
         this.maxMinor = maxMinor;
         this.maxMajor = maxMajor;
-        eventList = new EventList(timeInterval);
+        eventRing = new EventRing(timeInterval, capacity, bucketMillis);
     }
 
     protected static class Event {
@@ -57,86 +89,159 @@ public abstract class SlideWindowDependency extends AbstractDependency {
         }
     }
 
-    private static class EventList {
-        final Deque<Event> events = new ArrayDeque<>();
+    /**
+     * Fixed-capacity ring of (time, failed ratio) samples kept in primitive arrays, so that the
+     * memory used by a windowed dependency does not depend on the ping rate.
+     *
+     * <p>The x-axis is time, the y-axis is failed ratio. Lines are drawn between adjacent samples,
+     * and the average failed ratio is the area under those lines divided by the total time. The
+     * area is maintained incrementally as samples are added and expire, so each update is O(1)
+     * amortized.
+     *
+     * <p>When the ring is full, the oldest sample is dropped to make room, which shortens the
+     * effective window. Setting a bucket width coalesces samples that arrive within that many
+     * milliseconds of the bucket's first sample into a single averaged sample, trading resolution
+     * for reach.
+     */
+    private static class EventRing {
+        // Due to the precision of double, recalculate the totalRatio every one hour.
+        private static final long RECALCULATE_INTERVAL = 3600 * 1000;
+
         final long timeInterval;
+        final long bucketMillis;
+        final long[] times;
+        final double[] ratios;
+        /// Index of the most recent sample
+        int head = -1;
+        int size = 0;
+        /// Number of samples coalesced into the most recent sample, and the time of the first one
+        int headCount = 0;
+        long headBucketStart = 0;
         long lastUpdate;
         double totalRatio;
 
-        EventList(final long timeInterval) {
+        EventRing(final long timeInterval, final int capacity, final long bucketMillis) {
+            Preconditions.checkArgument(capacity > 0, "capacity must be positive");
             // timeInterval need to be a positive number.
-            this.timeInterval = (timeInterval >= 0) ? timeInterval : 1;
+            this.timeInterval = (timeInterval > 0) ? timeInterval : 1;
+            this.bucketMillis = Math.max(0, bucketMillis);
+            this.times = new long[capacity];
+            this.ratios = new double[capacity];
             lastUpdate = System.currentTimeMillis();
             totalRatio = 0;
         }
 
         /**
-         * The x-axis is time, the y-axis is failed ratio. Draw lines between adjacent events.
-         * Average failed ratio is the area under lines divides total time.
-         *
-         * @param newEvent the new ping event.
+         * @param time the time of the new ping event.
+         * @param failedRatio the failed ratio reported by the new ping event.
          * @return average failed ratio in the window.
          */
-        synchronized double addEvent(final Event newEvent) {
-            // Due to the precision of double, recalculate the totalRatio every one hour.
-            if ((newEvent.time - lastUpdate) <= (3600 * 1000)) {
-                return addEventUsingSlideWindow(newEvent);
+        synchronized double addEvent(final long time, final double failedRatio) {
+            if (size > 0 && bucketMillis > 0 && (time - headBucketStart) < bucketMillis) {
+                coalesce(time, failedRatio);
             } else {
-                return addEventUsingRecalculate(newEvent);
+                append(time, failedRatio);
             }
+
+            while (size > 1 && (times[oldest()] + timeInterval) <= time) {
+                evictOldest();
+            }
+
+            if ((time - lastUpdate) > RECALCULATE_INTERVAL) {
+                recalculate();
+                lastUpdate = time;
+            }
+
+            final long elapsed = (times[head] - times[oldest()]) + 1;
+            return totalRatio / elapsed;
         }
 
-        private double addEventUsingSlideWindow(final Event newEvent) {
-            final long currentTime = newEvent.time;
-            if (events.isEmpty()) {
-                totalRatio = newEvent.failedRatio;
+        private void append(final long time, final double failedRatio) {
+            if (size == times.length) {
+                evictOldest();
+            }
+
+            if (size == 0) {
+                totalRatio = failedRatio;
             } else {
-                final long time = ((currentTime - events.getFirst().time) + 1);
-                totalRatio += ((newEvent.failedRatio + events.getFirst().failedRatio) * time) / 2;
-                totalRatio -= events.getFirst().failedRatio;
+                totalRatio += area(times[head], ratios[head], time, failedRatio);
             }
-            events.addFirst(newEvent);
-            while ((events.getLast().time + timeInterval) <= currentTime) {
-                final Event lastEvent = events.removeLast();
-                final long time = (events.getLast().time - lastEvent.time) + 1;
-                totalRatio -= ((events.getLast().failedRatio + lastEvent.failedRatio) * time) / 2;
-                totalRatio += events.getLast().failedRatio;
+
+            head = next(head);
+            times[head] = time;
+            ratios[head] = failedRatio;
+            size++;
+            headCount = 1;
+            headBucketStart = time;
+        }
+
+        private void coalesce(final long time, final double failedRatio) {
+            headCount++;
+            final double mean = ratios[head] + ((failedRatio - ratios[head]) / headCount);
+
+            if (size == 1) {
+                totalRatio = mean;
+            } else {
+                final int previous = previous(head);
+                totalRatio -= area(times[previous], ratios[previous], times[head], ratios[head]);
+                totalRatio += area(times[previous], ratios[previous], time, mean);
             }
-            final long time = (events.getFirst().time - events.getLast().time) + 1;
-            return totalRatio / time;
+
+            times[head] = time;
+            ratios[head] = mean;
         }
 
-        // TODO Merge events with the same value to save space and time.
-        private double addEventUsingRecalculate(final Event newEvent) {
-            final long currentTime = newEvent.time;
-            events.addFirst(newEvent);
-            while ((events.getLast().time + timeInterval) <= currentTime) {
-                events.removeLast();
+        private void evictOldest() {
+            final int oldest = oldest();
+            if (size == 1) {
+                totalRatio = 0;
+            } else {
+                final int successor = next(oldest);
+                final long time = (times[successor] - times[oldest]) + 1;
+                totalRatio -= ((ratios[successor] + ratios[oldest]) * time) / 2;
+                totalRatio += ratios[successor];
             }
-            final Iterator<Event> iterator = events.descendingIterator();
-            Event preEvent = null;
-            totalRatio = 0;
-            while (iterator.hasNext()) {
-                final Event currentEvent = iterator.next();
-                if (preEvent == null) {
-                    totalRatio += currentEvent.failedRatio;
-                } else {
-                    final long time = (currentEvent.time - preEvent.time) + 1;
-                    totalRatio += ((currentEvent.failedRatio + preEvent.failedRatio) * time) / 2;
-                    totalRatio -= preEvent.failedRatio;
-                }
-                preEvent = currentEvent;
+            size--;
+        }
+
+        private void recalculate() {
+            int index = oldest();
+            totalRatio = ratios[index];
+            for (int i = 1; i < size; i++) {
+                final int successor = next(index);
+                totalRatio +=
+                        area(times[index], ratios[index], times[successor], ratios[successor]);
+                index = successor;
             }
-            lastUpdate = currentTime;
-            final long time = (events.getFirst().time - events.getLast().time) + 1;
-            return totalRatio / time;
+        }
+
+        private static double area(
+                final long fromTime,
+                final double fromRatio,
+                final long toTime,
+                final double toRatio) {
+            final long time = (toTime - fromTime) + 1;
+            return (((fromRatio + toRatio) * time) / 2) - fromRatio;
+        }
+
+        private int oldest() {
+            return (head - size + 1 + times.length) % times.length;
+        }
+
+        private int next(final int index) {
+            return (index + 1) % times.length;
+        }
+
+        private int previous(final int index) {
+            return (index - 1 + times.length) % times.length;
         }
     }
 
     @Override
     public CheckResult call() throws Exception {
         final long start = System.currentTimeMillis();
-        final double averageFailedRatio = eventList.addEvent(pingWrapper());
+        final Event event = pingWrapper();
+        final double averageFailedRatio = eventRing.addEvent(event.time, event.failedRatio);
         final CheckStatus status;
         if (averageFailedRatio < maxOK) {
             status = CheckStatus.OK;
@@ -148,7 +253,7 @@ public abstract class SlideWindowDependency extends AbstractDependency {
             status = CheckStatus.OUTAGE;
         }
         final long duration = System.currentTimeMillis() - start;
-        final String errorMessage = formatErrorMessage(eventList.timeInterval, averageFailedRatio);
+        final String errorMessage = formatErrorMessage(eventRing.timeInterval, averageFailedRatio);
         return CheckResult.newBuilder(this, status, errorMessage)
                 .setTimestamp(start)
                 .setDuration(duration)
@@ -0,0 +1,502 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.CountingInputStream;
+import com.indeed.util.core.time.DefaultWallClock;
+import com.indeed.util.core.time.WallClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UTFDataFormatException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The <code>StatusHistoryLog</code> keeps the outcome of every background check in an append-only
+ * log on local disk, so that the status timeline of a dependency can be reconstructed after the
+ * fact, including across restarts. Register it as a listener on the dependency manager:
+ *
+ * <pre>
+ * final StatusHistoryLog history = StatusHistoryLog.newBuilder()
+ *         .setDirectory(new File("/var/lib/myapp/status-history"))
+ *         .build();
+ * manager.addListener(history);
+ * ...
+ * history.timeline("mysql", TimeUnit.HOURS.toMillis(24));
+ * </pre>
+ *
+ * <p>Each check is stored as a fixed-width record of {@value #RECORD_SIZE} bytes holding the
+ * timestamp, duration, dependency index and status, written with a few stores into a memory-mapped
+ * segment file. Dependency ids are stored once each in a dictionary file and referred to by index.
+ * When a segment fills up, a new one is started, and the oldest segments are deleted once there are
+ * more than the maximum number of segments or once their newest record is older than the retention
+ * period. On startup, existing segments and the dictionary are recovered, and appending resumes
+ * after the last complete record.
+ *
+ * <p>The status is written last and is never zero in a complete record, so a record torn by a crash
+ * reads as unused space.
+ */
+@ThreadSafe
+public class StatusHistoryLog implements StatusUpdateListener, Closeable {
+    private static final Logger log = LoggerFactory.getLogger(StatusHistoryLog.class);
+
+    public static final int RECORD_SIZE = 24;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 64 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 32;
+    public static final long DEFAULT_RETENTION = TimeUnit.DAYS.toMillis(7);
+
+    private static final String DICTIONARY_FILE = "dependencies.dict";
+    private static final String SEGMENT_PREFIX = "status-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int OFFSET_TIMESTAMP = 0;
+    private static final int OFFSET_DURATION = 8;
+    private static final int OFFSET_INDEX = 16;
+    private static final int OFFSET_STATUS = 20;
+
+    private static final CheckStatus[] STATUSES = CheckStatus.values();
+
+    @Nonnull private final File directory;
+    @Nonnull private final WallClock wallClock;
+    private final int recordsPerSegment;
+    private final int maxSegments;
+    private final long retention;
+
+    /// Dictionary of dependency ids. Guarded by this.
+    @Nonnull private final Map<String, Integer> indices = Maps.newHashMap();
+    @Nonnull private final DataOutputStream dictionary;
+
+    /// Retained segments, oldest first; the last one receives appends. Guarded by this.
+    @Nonnull private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private boolean closed = false;
+
+    private StatusHistoryLog(@Nonnull final Builder builder) throws IOException {
+        this.directory = Preconditions.checkNotNull(builder.directory, "Missing directory");
+        this.wallClock = builder.wallClock;
+        this.recordsPerSegment = builder.recordsPerSegment;
+        this.maxSegments = builder.maxSegments;
+        this.retention = builder.retention;
+
+        Preconditions.checkArgument(recordsPerSegment > 0, "Segments must hold records");
+        Preconditions.checkArgument(maxSegments > 0, "At least one segment must be retained");
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create history directory " + directory);
+        }
+
+        final File dictionaryFile = new File(directory, DICTIONARY_FILE);
+        recoverDictionary(dictionaryFile);
+        this.dictionary =
+                new DataOutputStream(new FileOutputStream(dictionaryFile, /* append */ true));
+
+        recoverSegments();
+    }
+
+    @Override
+    public void onChecked(@Nonnull final Dependency source, @Nonnull final CheckResult result) {
+        final long timestamp =
+                0 == result.getTimestamp() ? wallClock.currentTimeMillis() : result.getTimestamp();
+
+        try {
+            append(result.getId(), result.getStatus(), timestamp, result.getDuration());
+
+        } catch (final IOException e) {
+            log.warn("Unable to record the result of '" + result.getId() + "' in the history.", e);
+        }
+    }
+
+    @Override
+    public void onChanged(
+            @Nonnull final Dependency source,
+            @Nullable final CheckResult original,
+            @Nonnull final CheckResult updated) {
+        // Every check, changed or not, is recorded by onChecked.
+    }
+
+    @Override
+    public void onAdded(@Nonnull final Dependency dependency) {}
+
+    /** Appends a single record to the log. */
+    public synchronized void append(
+            @Nonnull final String id,
+            @Nonnull final CheckStatus status,
+            final long timestamp,
+            @Nonnegative final long duration)
+            throws IOException {
+        if (closed) {
+            return;
+        }
+
+        Segment active = segments.peekLast();
+        if (null == active || active.isFull()) {
+            active = rotate();
+        }
+
+        active.append(timestamp, duration, indexOf(id), status);
+    }
+
+    /**
+     * @return Every record of the given dependency with a timestamp in [from, to), oldest first.
+     */
+    @Nonnull
+    public synchronized List<Entry> query(
+            @Nonnull final String id, final long from, final long to) {
+        Preconditions.checkState(!closed, "The history log is closed");
+
+        final Integer index = indices.get(id);
+        if (null == index) {
+            return ImmutableList.of();
+        }
+
+        final List<Entry> entries = Lists.newArrayList();
+        for (final Segment segment : segments) {
+            if (segment.maxTimestamp >= from && segment.minTimestamp < to) {
+                segment.collect(index, from, to, entries);
+            }
+        }
+
+        // Checks of different dependencies finish out of order, so records are only roughly
+        //  ordered by their start time.
+        entries.sort(Comparator.comparingLong(Entry::getTimestamp));
+        return entries;
+    }
+
+    /** @return Every record of the given dependency over the most recent period, oldest first. */
+    @Nonnull
+    public List<Entry> timeline(@Nonnull final String id, @Nonnegative final long periodMillis) {
+        final long now = wallClock.currentTimeMillis();
+        return query(id, now - periodMillis, now + 1);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        for (final Segment segment : segments) {
+            segment.buffer.force();
+        }
+        segments.clear();
+        dictionary.close();
+    }
+
+    private int indexOf(@Nonnull final String id) throws IOException {
+        final Integer existing = indices.get(id);
+        if (null != existing) {
+            return existing;
+        }
+
+        // Persist the id before any record refers to it.
+        dictionary.writeUTF(id);
+        dictionary.flush();
+
+        final int index = indices.size();
+        indices.put(id, index);
+        return index;
+    }
+
+    @Nonnull
+    private Segment rotate() throws IOException {
+        final Segment previous = segments.peekLast();
+        final long number = null == previous ? 0 : previous.number + 1;
+
+        if (null != previous) {
+            previous.buffer.force();
+        }
+
+        final Segment segment = Segment.open(segmentFile(number), number, recordsPerSegment);
+        segments.addLast(segment);
+
+        enforceRetention();
+        return segment;
+    }
+
+    private void enforceRetention() {
+        final long horizon = wallClock.currentTimeMillis() - retention;
+
+        while (segments.size() > 1) {
+            final Segment oldest = segments.peekFirst();
+            if (segments.size() <= maxSegments && oldest.maxTimestamp >= horizon) {
+                break;
+            }
+
+            segments.removeFirst();
+            // The mapping itself is released once the buffer is collected.
+            if (!oldest.file.delete()) {
+                log.warn("Unable to delete expired history segment " + oldest.file);
+            }
+        }
+    }
+
+    private void recoverDictionary(@Nonnull final File dictionaryFile) throws IOException {
+        if (!dictionaryFile.exists()) {
+            return;
+        }
+
+        long validLength = 0;
+        try (final CountingInputStream counter =
+                        new CountingInputStream(
+                                new BufferedInputStream(new FileInputStream(dictionaryFile)));
+                final DataInputStream in = new DataInputStream(counter)) {
+            while (true) {
+                final String id = in.readUTF();
+                indices.put(id, indices.size());
+                validLength = counter.getCount();
+            }
+
+        } catch (final EOFException | UTFDataFormatException e) {
+            // Reached the end, possibly through an entry torn by a crash.
+        }
+
+        if (validLength < dictionaryFile.length()) {
+            log.warn("Discarding a partial entry at the end of " + dictionaryFile);
+            try (final RandomAccessFile file = new RandomAccessFile(dictionaryFile, "rw")) {
+                file.setLength(validLength);
+            }
+        }
+    }
+
+    private void recoverSegments() throws IOException {
+        final File[] files = directory.listFiles();
+        final List<Long> numbers = Lists.newArrayList();
+
+        if (null != files) {
+            for (final File file : files) {
+                final String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        numbers.add(
+                                Long.parseLong(
+                                        name.substring(
+                                                SEGMENT_PREFIX.length(),
+                                                name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (final NumberFormatException e) {
+                        log.warn("Ignoring unexpected file " + file + " in the history directory.");
+                    }
+                }
+            }
+        }
+
+        numbers.sort(null);
+        for (final long number : numbers) {
+            final File file = segmentFile(number);
+            final Segment segment = Segment.open(file, number, (int) (file.length() / RECORD_SIZE));
+            segment.recover(indices.size());
+            segments.addLast(segment);
+        }
+
+        enforceRetention();
+    }
+
+    @Nonnull
+    private File segmentFile(final long number) {
+        return new File(
+                directory, String.format("%s%016d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /** A single recorded check of a dependency. */
+    public static final class Entry {
+        private final long timestamp;
+        private final long duration;
+        @Nonnull private final CheckStatus status;
+
+        private Entry(
+                final long timestamp, final long duration, @Nonnull final CheckStatus status) {
+            this.timestamp = timestamp;
+            this.duration = duration;
+            this.status = status;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public long getDuration() {
+            return duration;
+        }
+
+        @Nonnull
+        public CheckStatus getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return "{'timestamp':" + timestamp + ";'status':'" + status + "';}";
+        }
+    }
+
+    // One memory-mapped file of fixed-width records.
+    private static final class Segment {
+        private final long number;
+        @Nonnull private final File file;
+        @Nonnull private final MappedByteBuffer buffer;
+        private final int capacity;
+        private int count = 0;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+
+        private Segment(
+                final long number,
+                @Nonnull final File file,
+                @Nonnull final MappedByteBuffer buffer,
+                final int capacity) {
+            this.number = number;
+            this.file = file;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        @Nonnull
+        static Segment open(@Nonnull final File file, final long number, final int capacity)
+                throws IOException {
+            try (final FileChannel channel =
+                    FileChannel.open(
+                            file.toPath(),
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.READ,
+                            StandardOpenOption.WRITE)) {
+                final MappedByteBuffer buffer =
+                        channel.map(
+                                FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+                return new Segment(number, file, buffer, capacity);
+            }
+        }
+
+        boolean isFull() {
+            return count >= capacity;
+        }
+
+        void append(
+                final long timestamp,
+                final long duration,
+                final int index,
+                @Nonnull final CheckStatus status) {
+            final int offset = count * RECORD_SIZE;
+            buffer.putLong(offset + OFFSET_TIMESTAMP, timestamp);
+            buffer.putLong(offset + OFFSET_DURATION, duration);
+            buffer.putInt(offset + OFFSET_INDEX, index);
+            buffer.putInt(offset + OFFSET_STATUS, status.ordinal() + 1);
+
+            count++;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+        }
+
+        // Find the end of the complete records, treating anything unreadable as the end.
+        void recover(final int dictionarySize) {
+            while (count < capacity) {
+                final int offset = count * RECORD_SIZE;
+                final int status = buffer.getInt(offset + OFFSET_STATUS);
+                final int index = buffer.getInt(offset + OFFSET_INDEX);
+                if (status <= 0
+                        || status > STATUSES.length
+                        || index < 0
+                        || index >= dictionarySize) {
+                    break;
+                }
+
+                final long timestamp = buffer.getLong(offset + OFFSET_TIMESTAMP);
+                count++;
+                minTimestamp = Math.min(minTimestamp, timestamp);
+                maxTimestamp = Math.max(maxTimestamp, timestamp);
+            }
+        }
+
+        void collect(
+                final int index,
+                final long from,
+                final long to,
+                @Nonnull final List<Entry> entries) {
+            for (int i = 0; i < count; i++) {
+                final int offset = i * RECORD_SIZE;
+                if (buffer.getInt(offset + OFFSET_INDEX) != index) {
+                    continue;
+                }
+
+                final long timestamp = buffer.getLong(offset + OFFSET_TIMESTAMP);
+                if (timestamp >= from && timestamp < to) {
+                    entries.add(
+                            new Entry(
+                                    timestamp,
+                                    buffer.getLong(offset + OFFSET_DURATION),
+                                    STATUSES[buffer.getInt(offset + OFFSET_STATUS) - 1]));
+                }
+            }
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        @Nullable private File directory;
+        @Nonnull private WallClock wallClock = new DefaultWallClock();
+        @Nonnegative private int recordsPerSegment = DEFAULT_RECORDS_PER_SEGMENT;
+        @Nonnegative private int maxSegments = DEFAULT_MAX_SEGMENTS;
+        @Nonnegative private long retention = DEFAULT_RETENTION;
+
+        protected Builder() {}
+
+        public Builder setDirectory(@Nonnull final File directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        public Builder setWallClock(@Nonnull final WallClock wallClock) {
+            this.wallClock = wallClock;
+            return this;
+        }
+
+        public Builder setRecordsPerSegment(@Nonnegative final int recordsPerSegment) {
+            this.recordsPerSegment = recordsPerSegment;
+            return this;
+        }
+
+        public Builder setMaxSegments(@Nonnegative final int maxSegments) {
+            this.maxSegments = maxSegments;
+            return this;
+        }
+
+        /**
+         * @param retention How long, in milliseconds, before a segment of older records expires.
+         */
+        public Builder setRetention(@Nonnegative final long retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        /** Opens the log, recovering any history already present in the directory. */
+        public StatusHistoryLog build() throws IOException {
+            return new StatusHistoryLog(this);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Selects the subset of dependencies to evaluate by their {@link Dependency#getTags() tags}, so
+ * that callers such as a load-balancer probe only run the checks they care about.
+ *
+ * <pre>
+ * manager.evaluate(TagQuery.anyOf("lb"));
+ * manager.evaluate(TagQuery.allOf("search", "critical"));
+ * </pre>
+ */
+@Immutable
+public final class TagQuery {
+    @Nonnull private final Set<String> tags;
+    private final boolean all;
+
+    private TagQuery(@Nonnull final Collection<String> tags, final boolean all) {
+        this.tags = ImmutableSet.copyOf(tags);
+        this.all = all;
+
+        Preconditions.checkArgument(!this.tags.isEmpty(), "Tag queries require at least one tag");
+        for (final String tag : this.tags) {
+            Preconditions.checkArgument(!Strings.isNullOrEmpty(tag), "Tags must be non-empty");
+        }
+    }
+
+    /** @return A query matching the dependencies that carry at least one of the given tags. */
+    @Nonnull
+    public static TagQuery anyOf(@Nonnull final String... tags) {
+        return anyOf(Arrays.asList(tags));
+    }
+
+    /** @return A query matching the dependencies that carry at least one of the given tags. */
+    @Nonnull
+    public static TagQuery anyOf(@Nonnull final Collection<String> tags) {
+        return new TagQuery(tags, false);
+    }
+
+    /** @return A query matching the dependencies that carry every one of the given tags. */
+    @Nonnull
+    public static TagQuery allOf(@Nonnull final String... tags) {
+        return allOf(Arrays.asList(tags));
+    }
+
+    /** @return A query matching the dependencies that carry every one of the given tags. */
+    @Nonnull
+    public static TagQuery allOf(@Nonnull final Collection<String> tags) {
+        return new TagQuery(tags, true);
+    }
+
+    @Nonnull
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    /** @return True if a dependency must carry every tag to match, false if any one will do. */
+    public boolean isAll() {
+        return all;
+    }
+
+    public boolean matches(@Nonnull final Set<String> candidate) {
+        if (all) {
+            return candidate.containsAll(tags);
+        }
+        for (final String tag : tags) {
+            if (candidate.contains(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final TagQuery that = (TagQuery) o;
+        return all == that.all && tags.equals(that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * tags.hashCode() + (all ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (all ? "allOf" : "anyOf") + tags;
+    }
+}
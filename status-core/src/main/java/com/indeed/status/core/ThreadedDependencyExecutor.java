@@ -18,7 +18,7 @@ public class ThreadedDependencyExecutor implements DependencyExecutor {
 
     @Override
     public Future<CheckResult> submit(final Dependency dependency) {
-        return executor.submit(dependency);
+        return CheckFuture.submit(executor, dependency);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.indeed.status.core;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -86,4 +87,14 @@ public class ThrottledDependencyWrapper implements Dependency {
     public String getServicePool() {
         return dependency.getServicePool();
     }
+
+    @Override
+    public Set<String> getTags() {
+        return dependency.getTags();
+    }
+
+    // Access to the wrapped dependency
+    public Dependency getDependency() {
+        return dependency;
+    }
 }
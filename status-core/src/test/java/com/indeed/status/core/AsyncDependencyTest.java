@@ -0,0 +1,149 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncDependencyTest {
+    private final DependencyChecker checker =
+            new DependencyChecker(
+                    ImmutableDependencyCheckerParams.builder()
+                            .executorService(MoreExecutors.newDirectExecutorService())
+                            .build());
+
+    @Test
+    public void testManyChecksInFlightOnOneThread() throws Exception {
+        // Every check is completed by a single thread only once all of them have been started.
+        final List<Runnable> started = Lists.newArrayList();
+        final List<Dependency> dependencies = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            dependencies.add(
+                    newDependency(
+                            "check-" + i,
+                            1000,
+                            dependency -> {
+                                final CompletableFuture<CheckResult> future =
+                                        new CompletableFuture<>();
+                                synchronized (started) {
+                                    started.add(
+                                            () ->
+                                                    future.complete(
+                                                            CheckResult.newBuilder(
+                                                                            dependency,
+                                                                            CheckStatus.OK,
+                                                                            "ok")
+                                                                    .build()));
+                                    if (started.size() == 100) {
+                                        final List<Runnable> completions =
+                                                ImmutableList.copyOf(started);
+                                        new Thread(() -> completions.forEach(Runnable::run))
+                                                .start();
+                                    }
+                                }
+                                return future;
+                            }));
+        }
+
+        final CheckResultSet results = checker.evaluate(dependencies);
+        assertEquals(100, results.getCompleted().size());
+        assertEquals(CheckStatus.OK, results.getSystemStatus());
+    }
+
+    @Test
+    public void testTimeoutAndFailure() {
+        final CompletableFuture<CheckResult> hung = new CompletableFuture<>();
+        final CheckResult timedOut =
+                checker.evaluateAsync(newDependency("hung", 50, dependency -> hung)).join();
+        assertEquals(CheckStatus.OUTAGE, timedOut.getStatus());
+        assertEquals("Timed out prior to completion", timedOut.getErrorMessage());
+        assertTrue(hung.isCancelled());
+
+        final CompletableFuture<CheckResult> failing = new CompletableFuture<>();
+        failing.completeExceptionally(new IOException("connection refused"));
+        final CheckResult failed =
+                checker.evaluateAsync(newDependency("failing", 1000, dependency -> failing)).join();
+        assertEquals(CheckStatus.OUTAGE, failed.getStatus());
+        assertTrue(failed.getThrowable().getCause() instanceof IOException);
+    }
+
+    @Test
+    public void testTimeoutPublishedOffTimerThread() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final DependencyChecker pooled =
+                    new DependencyChecker(
+                            ImmutableDependencyCheckerParams.builder()
+                                    .executorService(executor)
+                                    .build());
+            final CompletableFuture<String> listener =
+                    pooled.evaluateAsync(
+                                    newDependency(
+                                            "hung", 50, dependency -> new CompletableFuture<>()))
+                            .thenApply(result -> Thread.currentThread().getName());
+
+            // Dependent stages must not hold up the thread firing every other timeout.
+            assertFalse(listener.get(10, TimeUnit.SECONDS).startsWith("dependency-timeout-timer"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPingerSingleFlight() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<CheckResult> pending = new CompletableFuture<>();
+        final AsyncDependency dependency =
+                newDependency(
+                        "search",
+                        TimeUnit.SECONDS.toMillis(10),
+                        d -> {
+                            calls.incrementAndGet();
+                            return pending;
+                        });
+        final DependencyPinger pinger =
+                new DependencyPinger(
+                        ImmutableDependencyPingerParams.builder()
+                                .dependency(dependency)
+                                .checker(checker)
+                                .build());
+
+        final CompletableFuture<CheckResult> first = pinger.ping();
+        pinger.run();
+        assertSame(first, pinger.ping());
+        assertEquals(1, calls.get());
+
+        pending.complete(CheckResult.newBuilder(dependency, CheckStatus.OK, "ok").build());
+        assertEquals(CheckStatus.OK, first.get(10, TimeUnit.SECONDS).getStatus());
+        assertNotNull(pinger.getLastResult());
+        assertSame(first.get(), pinger.call());
+
+        pinger.ping();
+        assertEquals(2, calls.get());
+    }
+
+    private static AsyncDependency newDependency(
+            final String id, final long timeout, final AsyncCheckMethod checkMethod) {
+        return SimpleAsyncDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setTimeout(timeout)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(checkMethod)
+                .build();
+    }
+}
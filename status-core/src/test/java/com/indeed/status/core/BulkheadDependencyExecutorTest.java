@@ -0,0 +1,132 @@
+package com.indeed.status.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkheadDependencyExecutorTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final BulkheadDependencyExecutor bulkheads =
+            BulkheadDependencyExecutor.newBuilder()
+                    .setDefaultLimit(4)
+                    .setLimit(DependencyType.StandardDependencyTypes.MONGO, 2)
+                    .build();
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        bulkheads.shutdown();
+    }
+
+    @Test
+    public void testSaturatedPartitionDoesNotStarveOthers() throws Exception {
+        bulkheads.submit(newDependency("mongo-1", DependencyType.StandardDependencyTypes.MONGO));
+        bulkheads.submit(newDependency("mongo-2", DependencyType.StandardDependencyTypes.MONGO));
+
+        try {
+            bulkheads.submit(
+                    newDependency("mongo-3", DependencyType.StandardDependencyTypes.MONGO));
+            fail("Expected the saturated partition to refuse the check");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        final Dependency mysql =
+                SimpleDependency.newBuilder()
+                        .setId("mysql")
+                        .setType(DependencyType.StandardDependencyTypes.MYSQL)
+                        .setUrgency(Urgency.REQUIRED)
+                        .setCheckMethod(
+                                dependency ->
+                                        CheckResult.newBuilder(dependency, CheckStatus.OK, "ok")
+                                                .build())
+                        .build();
+        assertEquals(CheckStatus.OK, bulkheads.submit(mysql).get(10, TimeUnit.SECONDS).getStatus());
+
+        final BulkheadDependencyExecutor.Partition mongo = bulkheads.getPartitions().get("mongo");
+        assertEquals(2, mongo.getLimit());
+        while (mongo.getActive() < 2) {
+            Thread.yield();
+        }
+        assertEquals(1, mongo.getRejected());
+        assertEquals(1.0, mongo.getSaturation(), 0.0);
+        assertEquals(0, bulkheads.getPartitions().get("mysql").getRejected());
+    }
+
+    @Test
+    public void testHungChecksNotCountedAsSaturation() throws InterruptedException {
+        final BulkheadDependencyExecutor hung =
+                BulkheadDependencyExecutor.newBuilder().setZombieLimit(1).build();
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder()
+                                .dependencyExecutor(hung)
+                                .build()) {};
+        try {
+            manager.addDependency(
+                    newDependency("mongo-1", DependencyType.StandardDependencyTypes.MONGO));
+            assertEquals(
+                    "Timed out prior to completion", manager.evaluate("mongo-1").getErrorMessage());
+            while (hung.getZombieCounts().isEmpty()) {
+                Thread.sleep(10);
+            }
+
+            final CheckResult refused = manager.evaluate("mongo-1");
+            assertTrue(refused.getThrowable() instanceof DependencyChecker.HungCheckException);
+            assertEquals(0, hung.getPartitions().get("mongo").getRejected());
+        } finally {
+            manager.shutdown();
+            hung.shutdown();
+        }
+    }
+
+    @Test
+    public void testManagerUsesBulkheads() {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder()
+                                .dependencyExecutor(bulkheads)
+                                .build()) {};
+        try {
+            manager.addDependency(
+                    newDependency("mongo-1", DependencyType.StandardDependencyTypes.MONGO));
+            manager.addDependency(
+                    newDependency("mongo-2", DependencyType.StandardDependencyTypes.MONGO));
+            final CheckResult result = manager.evaluate("mongo-1");
+
+            assertEquals(CheckStatus.OUTAGE, result.getStatus());
+            assertEquals("Timed out prior to completion", result.getErrorMessage());
+            assertEquals(1, bulkheads.getPartitions().size());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    // A check that ignores interruption, so that it keeps its thread until released.
+    private Dependency newDependency(final String id, final DependencyType type) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setType(type)
+                .setTimeout(50)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(
+                        dependency -> {
+                            while (true) {
+                                try {
+                                    release.await();
+                                    return CheckResult.newBuilder(dependency, CheckStatus.OK, "ok")
+                                            .build();
+                                } catch (final InterruptedException e) {
+                                    // keep waiting
+                                }
+                            }
+                        })
+                .build();
+    }
+}
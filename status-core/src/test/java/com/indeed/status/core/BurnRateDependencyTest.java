@@ -0,0 +1,100 @@
+package com.indeed.status.core;
+
+import com.indeed.util.core.time.StoppedClock;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class BurnRateDependencyTest {
+    private final StoppedClock wallClock = new StoppedClock(0);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private final BurnRateDependency dependency =
+            BurnRateDependency.newBuilder()
+                    .setId("burn")
+                    .setDescription("burn rate")
+                    .setCounterSource(
+                            new BurnRateDependency.CounterSource() {
+                                @Override
+                                public long getTotalCount() {
+                                    return total.get();
+                                }
+
+                                @Override
+                                public long getFailureCount() {
+                                    return failures.get();
+                                }
+                            })
+                    .setWallClock(wallClock)
+                    .setSloTarget(0.99)
+                    .setBucketMillis(TimeUnit.MINUTES.toMillis(1))
+                    .addAlert(
+                            CheckStatus.OUTAGE,
+                            10,
+                            TimeUnit.MINUTES.toMillis(60),
+                            TimeUnit.MINUTES.toMillis(5))
+                    .addAlert(
+                            CheckStatus.MINOR,
+                            2,
+                            TimeUnit.MINUTES.toMillis(360),
+                            TimeUnit.MINUTES.toMillis(30))
+                    .build();
+
+    @Test
+    public void testHealthyTraffic() throws Exception {
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+
+        advance(1000, 1);
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+    }
+
+    @Test
+    public void testFastBurn() throws Exception {
+        dependency.call();
+
+        // 20% failures burn the 1% budget twenty times too fast.
+        advance(1000, 200);
+        final CheckResult result = dependency.call();
+        assertEquals(CheckStatus.OUTAGE, result.getStatus());
+    }
+
+    @Test
+    public void testSlowBurnAndRecovery() throws Exception {
+        dependency.call();
+
+        // 5% failures for two hours: too slow for the fast alert, fast enough for the slow one.
+        for (int minute = 0; minute < 120; minute++) {
+            advance(1000, 50);
+            dependency.call();
+        }
+        assertEquals(CheckStatus.MINOR, dependency.call().getStatus());
+
+        // Once failures stop, the short window clears the alert long before the long window does.
+        for (int minute = 0; minute < 31; minute++) {
+            advance(1000, 0);
+            dependency.call();
+        }
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+    }
+
+    @Test
+    public void testExpiredBucketsAreIgnored() throws Exception {
+        dependency.call();
+        advance(1000, 500);
+        assertEquals(CheckStatus.OUTAGE, dependency.call().getStatus());
+
+        // Skip past every window without traffic.
+        wallClock.plus(7, TimeUnit.HOURS);
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+    }
+
+    private void advance(final long events, final long failed) {
+        wallClock.plus(1, TimeUnit.MINUTES);
+        total.addAndGet(events);
+        failures.addAndGet(failed);
+    }
+}
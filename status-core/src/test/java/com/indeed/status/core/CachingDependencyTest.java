@@ -0,0 +1,148 @@
+package com.indeed.status.core;
+
+import com.indeed.util.core.time.StoppedClock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingDependencyTest {
+    private final StoppedClock wallClock = new StoppedClock(0);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<CountDownLatch> gate = new AtomicReference<>();
+    private final CountDownLatch entered = new CountDownLatch(1);
+
+    private final Dependency delegate =
+            SimpleDependency.newBuilder()
+                    .setId("mongo")
+                    .setDescription("mongo")
+                    .setUrgency(Urgency.REQUIRED)
+                    .setCheckMethod(
+                            dependency -> {
+                                final int call = calls.incrementAndGet();
+                                final CountDownLatch latch = gate.get();
+                                if (null != latch) {
+                                    entered.countDown();
+                                    latch.await();
+                                }
+                                if (call == 4) {
+                                    throw new IOException("connection refused");
+                                }
+                                return CheckResult.newBuilder(
+                                                dependency, CheckStatus.OK, "call " + call)
+                                        .build();
+                            })
+                    .build();
+
+    private final CachingDependency dependency =
+            CachingDependency.newBuilder()
+                    .setDependency(delegate)
+                    .setWallClock(wallClock)
+                    .setTtl(TimeUnit.SECONDS.toMillis(10))
+                    .setMaxStale(TimeUnit.SECONDS.toMillis(5))
+                    .build();
+
+    @Test
+    public void testReuseWithinTtl() throws Exception {
+        final CheckResult first = dependency.call();
+        wallClock.plus(9, TimeUnit.SECONDS);
+        assertSame(first, dependency.call());
+        assertEquals(1, calls.get());
+
+        wallClock.plus(1, TimeUnit.SECONDS);
+        assertEquals("call 2", dependency.call().getErrorMessage());
+
+        dependency.invalidate();
+        assertEquals("call 3", dependency.call().getErrorMessage());
+
+        // Failures are cached like any other result.
+        dependency.invalidate();
+        final CheckResult failed = dependency.call();
+        assertEquals(CheckStatus.OUTAGE, failed.getStatus());
+        assertTrue(failed.getThrowable() instanceof IOException);
+        assertSame(failed, dependency.call());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        final CheckResult first = dependency.call();
+        wallClock.plus(12, TimeUnit.SECONDS);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            gate.set(latch);
+            final Future<CheckResult> refresh = executor.submit(dependency);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            // Served from the cache while the refresh is in flight.
+            assertSame(first, dependency.call());
+
+            latch.countDown();
+            assertEquals("call 2", refresh.get().getErrorMessage());
+            assertSame(refresh.get(), dependency.call());
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidateDuringRefresh() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            gate.set(latch);
+            final Future<CheckResult> refresh = executor.submit(dependency);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+            // Does not wait for the refresh, which may be hung.
+            executor.submit(dependency::invalidate).get(10, TimeUnit.SECONDS);
+
+            latch.countDown();
+            assertEquals("call 1", refresh.get().getErrorMessage());
+            // The refresh started before the invalidation, so its result is not reused.
+            assertEquals("call 2", dependency.call().getErrorMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSingleFlightAfterStaleWindow() throws Exception {
+        dependency.call();
+        wallClock.plus(15, TimeUnit.SECONDS);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CountDownLatch latch = new CountDownLatch(1);
+            gate.set(latch);
+            final Future<CheckResult> refresh = executor.submit(dependency);
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            final Future<CheckResult> waiter = executor.submit(dependency);
+
+            // Released only once the waiter is blocked on the refresh, rather than past it.
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!dependency.hasWaitingCallers()) {
+                assertTrue(System.nanoTime() < deadline);
+                Thread.sleep(1);
+            }
+            latch.countDown();
+            assertSame(refresh.get(), waiter.get());
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DependencyGraphTest {
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsCycles() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("app", "cache");
+        graph.addEdge("cache", "mysql");
+        graph.addEdge("mysql", "app");
+    }
+
+    @Test
+    public void testSortPlacesPrerequisitesFirst() {
+        final DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("app", "cache");
+        graph.addEdge("cache", "mysql");
+
+        final Dependency app = newDependency("app", CheckStatus.OK, new AtomicInteger());
+        final Dependency cache = newDependency("cache", CheckStatus.OK, new AtomicInteger());
+        final Dependency mysql = newDependency("mysql", CheckStatus.OK, new AtomicInteger());
+        final Dependency other = newDependency("other", CheckStatus.OK, new AtomicInteger());
+
+        final List<Dependency> sorted = graph.sort(ImmutableList.of(app, other, cache, mysql));
+        assertEquals(ImmutableList.of(mysql, cache, app, other), sorted);
+    }
+
+    @Test
+    public void testOutageSkipsDependents() {
+        final AtomicInteger appCalls = new AtomicInteger();
+        final AtomicInteger cacheCalls = new AtomicInteger();
+        manager.addDependency(newDependency("app", CheckStatus.OK, appCalls));
+        manager.addDependency(newDependency("cache", CheckStatus.OK, cacheCalls));
+        manager.addDependency(newDependency("mysql", CheckStatus.OUTAGE, new AtomicInteger()));
+        manager.addPrerequisite("app", "cache");
+        manager.addPrerequisite("cache", "mysql");
+
+        final CheckResultSet results = manager.evaluate();
+
+        assertEquals(CheckStatus.OUTAGE, results.get("mysql").getStatus());
+        assertNull(results.get("mysql").getRootCause());
+        assertEquals(CheckStatus.OUTAGE, results.get("cache").getStatus());
+        assertEquals("mysql", results.get("cache").getRootCause());
+        assertEquals(CheckStatus.OUTAGE, results.get("app").getStatus());
+        assertEquals("mysql", results.get("app").getRootCause());
+        assertEquals(0, appCalls.get());
+        assertEquals(0, cacheCalls.get());
+    }
+
+    @Test
+    public void testHealthyPrerequisitesAreTransparent() {
+        final AtomicInteger appCalls = new AtomicInteger();
+        manager.addDependency(newDependency("app", CheckStatus.OK, appCalls));
+        manager.addDependency(newDependency("mysql", CheckStatus.MINOR, new AtomicInteger()));
+        manager.addPrerequisite("app", "mysql");
+
+        final CheckResultSet results = manager.evaluate();
+
+        assertEquals(CheckStatus.OK, results.get("app").getStatus());
+        assertNull(results.get("app").getRootCause());
+        assertEquals(1, appCalls.get());
+    }
+
+    @Test
+    public void testRemovalDropsEdges() {
+        manager.addDependency(newDependency("app", CheckStatus.OK, new AtomicInteger()));
+        manager.addDependency(newDependency("mysql", CheckStatus.OUTAGE, new AtomicInteger()));
+        manager.addPrerequisite("app", "mysql");
+        manager.removeDependency("mysql");
+
+        assertEquals(0, manager.getDependencyGraph().getPrerequisites("app").size());
+        assertEquals(CheckStatus.OK, manager.evaluate().get("app").getStatus());
+    }
+
+    @Test
+    public void testPingerSkipsWhilePrerequisiteIsDown() {
+        final AtomicInteger appCalls = new AtomicInteger();
+        final DependencyGraph graph = new DependencyGraph();
+        graph.addEdge("app", "mysql");
+
+        final DependencyPinger mysql =
+                new DependencyPinger(
+                        newDependency("mysql", CheckStatus.OUTAGE, new AtomicInteger()));
+        final DependencyPinger app =
+                new DependencyPinger(
+                        ImmutableDependencyPingerParams.builder()
+                                .dependency(newDependency("app", CheckStatus.OK, appCalls))
+                                .graph(graph)
+                                .prerequisiteResults(
+                                        id -> "mysql".equals(id) ? mysql.getLastResult() : null)
+                                .build());
+
+        app.run();
+        assertEquals(CheckStatus.OK, app.getLastResult().getStatus());
+        assertEquals(1, appCalls.get());
+
+        mysql.run();
+        app.run();
+        assertEquals(CheckStatus.OUTAGE, app.getLastResult().getStatus());
+        assertEquals("mysql", app.getLastResult().getRootCause());
+        assertEquals(1, appCalls.get());
+        assertEquals(0, app.getTotalFailures());
+    }
+
+    private static Dependency newDependency(
+            final String id, final CheckStatus status, final AtomicInteger calls) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setTimeout(1000)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(
+                        dependency -> {
+                            calls.incrementAndGet();
+                            return CheckResult.newBuilder(dependency, status, status.name())
+                                    .build();
+                        })
+                .build();
+    }
+}
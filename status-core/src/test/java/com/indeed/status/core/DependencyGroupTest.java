@@ -0,0 +1,173 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.indeed.util.core.time.StoppedClock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyGroupTest {
+    private final StoppedClock wallClock = new StoppedClock(0);
+    private final AtomicInteger probes = new AtomicInteger();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    private final DependencyGroup group =
+            DependencyGroup.newBuilder()
+                    .setKey("mysql")
+                    .setWallClock(wallClock)
+                    .setMaxAge(TimeUnit.SECONDS.toMillis(10))
+                    .setProbe(
+                            members -> {
+                                probes.incrementAndGet();
+                                final Exception e = failure.get();
+                                if (null != e) {
+                                    throw e;
+                                }
+
+                                final Map<String, CheckResult> results = Maps.newHashMap();
+                                for (final GroupedDependency member : members) {
+                                    if (!"missing".equals(member.getId())) {
+                                        results.put(
+                                                member.getId(),
+                                                CheckResult.newBuilder(member, CheckStatus.OK, "ok")
+                                                        .build());
+                                    }
+                                }
+                                return results;
+                            })
+                    .build();
+
+    @Test
+    public void testOneProbePerPeriod() throws Exception {
+        final GroupedDependency users = join("users");
+        final GroupedDependency orders = join("orders");
+        assertEquals(ImmutableList.of(orders, users), group.getMembers());
+
+        assertEquals(CheckStatus.OK, users.call().getStatus());
+        assertEquals("users", users.call().getId());
+        assertEquals(CheckStatus.OK, orders.call().getStatus());
+        assertEquals("orders", orders.call().getId());
+        assertEquals(1, probes.get());
+
+        wallClock.plus(10, TimeUnit.SECONDS);
+        users.call();
+        orders.call();
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    public void testNewMemberTriggersProbe() throws Exception {
+        join("users").call();
+        assertEquals(1, probes.get());
+
+        final GroupedDependency orders = join("orders");
+        assertEquals(CheckStatus.OK, orders.call().getStatus());
+        assertEquals(2, probes.get());
+    }
+
+    @Test
+    public void testMissingAndFailedResults() throws Exception {
+        final GroupedDependency users = join("users");
+        final GroupedDependency missing = join("missing");
+
+        assertEquals(CheckStatus.OK, users.call().getStatus());
+        assertEquals(CheckStatus.OUTAGE, missing.call().getStatus());
+
+        failure.set(new IOException("connection refused"));
+        wallClock.plus(10, TimeUnit.SECONDS);
+
+        final CheckResult result = users.call();
+        assertEquals(CheckStatus.OUTAGE, result.getStatus());
+        assertTrue(result.getThrowable() instanceof IOException);
+    }
+
+    @Test
+    public void testRemovalLeavesGroup() throws Exception {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder()
+                                .throttleDependencyChecks(true)
+                                .build()) {};
+        try {
+            manager.addDependency(newMember("users"));
+            manager.addDependency(newMember("orders"));
+            assertEquals(CheckStatus.OK, manager.evaluate().getSystemStatus());
+            assertEquals(1, probes.get());
+
+            manager.removeDependency("users");
+            assertEquals(1, group.getMembers().size());
+            assertEquals("orders", group.getMembers().iterator().next().getId());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testReaddedMemberRejoinsGroup() throws Exception {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder()
+                                .throttleDependencyChecks(true)
+                                .build()) {};
+        try {
+            final GroupedDependency users = newMember("users");
+            // Built, but not added yet.
+            assertTrue(group.getMembers().isEmpty());
+
+            manager.addDependency(users);
+            assertEquals(ImmutableList.of(users), group.getMembers());
+
+            manager.removeDependency("users");
+            assertTrue(group.getMembers().isEmpty());
+
+            manager.addDependency(users);
+            assertEquals(ImmutableList.of(users), group.getMembers());
+            assertEquals(CheckStatus.OK, manager.evaluate().getSystemStatus());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplacementBuiltBeforeRemoval() throws Exception {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder()
+                                .throttleDependencyChecks(true)
+                                .build()) {};
+        try {
+            manager.addDependency(newMember("users"));
+            final GroupedDependency replacement = newMember("users");
+
+            manager.removeDependency("users");
+            manager.addDependency(replacement);
+            assertEquals(ImmutableList.of(replacement), group.getMembers());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private GroupedDependency join(final String id) {
+        final GroupedDependency member = newMember(id);
+        group.register(member);
+        return member;
+    }
+
+    private GroupedDependency newMember(final String id) {
+        return GroupedDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setTimeout(1000)
+                .setUrgency(Urgency.REQUIRED)
+                .setGroup(group)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.indeed.status.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DependencyMetricsTest {
+    private final Dependency dependency =
+            SimpleDependency.newBuilder()
+                    .setId("mysql")
+                    .setUrgency(Urgency.REQUIRED)
+                    .setCheckMethod(d -> CheckResult.newBuilder(d, CheckStatus.OK, "ok").build())
+                    .build();
+
+    @Test
+    public void testChecksAreCounted() {
+        final DependencyMetrics metrics = new DependencyMetrics();
+        metrics.onAdded(dependency);
+        metrics.onChecked(dependency, newResult(CheckStatus.OK, 3, 1000L));
+        metrics.onChecked(dependency, newResult(CheckStatus.OK, 40, 2000L));
+        metrics.onChecked(dependency, newResult(CheckStatus.OUTAGE, 60000, 3000L));
+
+        final DependencyMetrics.Series series = metrics.getSeries("mysql");
+        assertEquals(CheckStatus.OUTAGE, series.getStatus());
+        assertEquals(3000L, series.getTimestamp());
+        assertEquals(2, series.getChecks(CheckStatus.OK));
+        assertEquals(1, series.getChecks(CheckStatus.OUTAGE));
+        assertEquals(0, series.getChecks(CheckStatus.MINOR));
+        assertEquals(1, series.getFailures());
+        assertEquals(1, series.getConsecutiveFailures());
+        assertEquals(60043L, series.getDurationSum());
+
+        final long[] bounds = DependencyMetrics.getDurationBounds();
+        assertEquals(1, series.getDurationCount(0));
+        assertEquals(1, series.getDurationCount(3));
+        assertEquals(1, series.getDurationCount(bounds.length));
+        assertEquals(0, series.getDurationCount(bounds.length - 1));
+
+        metrics.onRemoved(dependency);
+        assertNull(metrics.getSeries("mysql"));
+        assertEquals(0, metrics.getSeries().size());
+
+        // Late results of a removed dependency are ignored.
+        metrics.onChecked(dependency, newResult(CheckStatus.OK, 3, 4000L));
+        assertNull(metrics.getSeries("mysql"));
+    }
+
+    @Test
+    public void testSlotsAreReusedUnderChurn() {
+        final DependencyMetrics metrics = new DependencyMetrics();
+        for (int i = 0; i < 1000; i++) {
+            final Dependency churned = newDependency("shard-" + i);
+            metrics.onAdded(churned);
+            metrics.onChecked(churned, newResult(CheckStatus.OUTAGE, 3, 1000L));
+            if (i >= 10) {
+                metrics.onRemoved(newDependency("shard-" + (i - 10)));
+            }
+        }
+
+        assertEquals(10, metrics.getSeries().size());
+        assertEquals(64, metrics.getCapacity());
+
+        // A reused slot starts from zero.
+        metrics.onAdded(dependency);
+        final DependencyMetrics.Series series = metrics.getSeries("mysql");
+        assertNull(series.getStatus());
+        assertEquals(0, series.getChecks(CheckStatus.OUTAGE));
+        assertEquals(0, series.getConsecutiveFailures());
+    }
+
+    private Dependency newDependency(final String id) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(d -> CheckResult.newBuilder(d, CheckStatus.OK, "ok").build())
+                .build();
+    }
+
+    private CheckResult newResult(
+            final CheckStatus status, final long duration, final long timestamp) {
+        return CheckResult.newBuilder(dependency, status, "checked")
+                .setDuration(duration)
+                .setTimestamp(timestamp)
+                .build();
+    }
+}
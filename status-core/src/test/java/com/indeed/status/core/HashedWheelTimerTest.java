@@ -0,0 +1,118 @@
+package com.indeed.status.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HashedWheelTimerTest {
+    // A small wheel, so that timeouts take several rounds.
+    private final HashedWheelTimer timer =
+            new HashedWheelTimer("test-timer", 5, TimeUnit.MILLISECONDS, 4);
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    public void testExpiryAndCancellation() throws Exception {
+        final CountDownLatch expired = new CountDownLatch(2);
+        final AtomicInteger cancelledRuns = new AtomicInteger();
+        final long start = System.nanoTime();
+
+        timer.newTimeout(expired::countDown, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(expired::countDown, 100, TimeUnit.MILLISECONDS);
+        final HashedWheelTimer.Timeout cancelled =
+                timer.newTimeout(cancelledRuns::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+
+        assertTrue(expired.await(10, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, cancelledRuns.get());
+    }
+
+    @Test
+    public void testStartedOnFirstUseAndStopped() throws Exception {
+        final HashedWheelTimer lazy =
+                new HashedWheelTimer("lazy-test-timer", 5, TimeUnit.MILLISECONDS, 4);
+        assertNull(findThread("lazy-test-timer"));
+
+        final CountDownLatch expired = new CountDownLatch(1);
+        lazy.newTimeout(expired::countDown, 10, TimeUnit.MILLISECONDS);
+        assertTrue(expired.await(10, TimeUnit.SECONDS));
+        final Thread worker = findThread("lazy-test-timer");
+        assertNotNull(worker);
+
+        lazy.stop();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(worker.isAlive());
+        try {
+            lazy.newTimeout(expired::countDown, 10, TimeUnit.MILLISECONDS);
+            fail("Scheduled on a stopped timer");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testBlockingCheckTimedOutByTimer() throws Exception {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final Dependency hung =
+                SimpleDependency.newBuilder()
+                        .setId("hung")
+                        .setDescription("hung")
+                        .setTimeout(50)
+                        .setUrgency(Urgency.REQUIRED)
+                        .setCheckMethod(
+                                dependency -> {
+                                    try {
+                                        Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                                    } catch (final InterruptedException e) {
+                                        interrupted.countDown();
+                                    }
+                                    return CheckResult.newBuilder(dependency, CheckStatus.OK, "ok")
+                                            .build();
+                                })
+                        .build();
+
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final DependencyChecker checker =
+                    new DependencyChecker(
+                            ImmutableDependencyCheckerParams.builder()
+                                    .executorService(executor)
+                                    .build());
+
+            final CheckResult result = checker.evaluateAsync(hung).get(10, TimeUnit.SECONDS);
+            assertEquals(CheckStatus.OUTAGE, result.getStatus());
+            assertEquals("Timed out prior to completion", result.getErrorMessage());
+            assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Nullable
+    private static Thread findThread(final String name) {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (name.equals(thread.getName())) {
+                return thread;
+            }
+        }
+        return null;
+    }
+}
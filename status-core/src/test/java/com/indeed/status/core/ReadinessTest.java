@@ -0,0 +1,156 @@
+package com.indeed.status.core;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReadinessTest {
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(
+                    ImmutableDependencyManagerParams.builder().requireWarmUp(true).build()) {};
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testLiveness() {
+        assertEquals(CheckStatus.OK, manager.getLivenessStatus());
+        manager.shutdown();
+        assertEquals(CheckStatus.OUTAGE, manager.getLivenessStatus());
+    }
+
+    @Test
+    public void testTracker() {
+        final ReadinessTracker tracker = new ReadinessTracker();
+        final Dependency required = newDependency("required", Urgency.REQUIRED, null);
+        final Dependency weak = newDependency("weak", Urgency.WEAK, null);
+        final Dependency none = newDependency("none", Urgency.NONE, null);
+
+        assertEquals(CheckStatus.OK, tracker.getStatus());
+
+        // Dependencies are not ready until they have been checked.
+        tracker.onAdded(required);
+        tracker.onAdded(weak);
+        tracker.onAdded(none);
+        assertEquals(CheckStatus.OUTAGE, tracker.getStatus());
+        tracker.onChecked(required, result(required, CheckStatus.OK));
+        tracker.onChecked(weak, result(weak, CheckStatus.OK));
+        assertEquals(CheckStatus.OUTAGE, tracker.getStatus());
+
+        tracker.onChecked(none, result(none, CheckStatus.OUTAGE));
+        assertEquals(CheckStatus.OK, tracker.getStatus());
+
+        tracker.onChecked(weak, result(weak, CheckStatus.OUTAGE));
+        assertEquals(CheckStatus.MINOR, tracker.getStatus());
+
+        tracker.onChecked(required, result(required, CheckStatus.MAJOR));
+        assertEquals(CheckStatus.MAJOR, tracker.getStatus());
+
+        tracker.onChecked(required, result(required, CheckStatus.OK));
+        assertEquals(CheckStatus.MINOR, tracker.getStatus());
+
+        tracker.onRemoved(weak);
+        assertEquals(CheckStatus.OK, tracker.getStatus());
+
+        // Results of removed dependencies are ignored.
+        tracker.onChecked(weak, result(weak, CheckStatus.OUTAGE));
+        assertEquals(CheckStatus.OK, tracker.getStatus());
+    }
+
+    @Test
+    public void testRemovedDuringCheck() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Dependency blocking =
+                SimpleDependency.newBuilder()
+                        .setId("mysql")
+                        .setDescription("mysql")
+                        .setUrgency(Urgency.REQUIRED)
+                        .setTimeout(60000)
+                        .setCheckMethod(
+                                dependency -> {
+                                    started.countDown();
+                                    Uninterruptibles.awaitUninterruptibly(release);
+                                    return result(dependency, CheckStatus.OUTAGE);
+                                })
+                        .build();
+
+        final AbstractDependencyManager unwarmed =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder().build()) {};
+        try {
+            unwarmed.setPingPeriod(60000);
+            unwarmed.launchPinger(blocking);
+            final DependencyPinger pinger = (DependencyPinger) unwarmed.getDependency("mysql");
+
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertEquals(CheckStatus.OUTAGE, unwarmed.getReadinessStatus());
+
+            unwarmed.removeDependency("mysql");
+            release.countDown();
+            while (null == pinger.getLastResult()) {
+                Thread.sleep(1);
+            }
+            assertEquals(CheckStatus.OK, unwarmed.getReadinessStatus());
+        } finally {
+            release.countDown();
+            unwarmed.shutdown();
+        }
+    }
+
+    @Test
+    public void testReadinessFollowsPings() {
+        final AtomicReference<CheckStatus> status = new AtomicReference<>(CheckStatus.OK);
+        manager.setPingPeriod(60000);
+        manager.launchPinger(newDependency("mysql", Urgency.REQUIRED, status));
+        final DependencyPinger pinger = (DependencyPinger) manager.getDependency("mysql");
+
+        while (null == pinger.getLastResult()) {
+            Thread.yield();
+        }
+        assertEquals(CheckStatus.OK, manager.getReadinessStatus());
+
+        status.set(CheckStatus.OUTAGE);
+        for (int i = 0; i < 3; i++) {
+            pinger.run();
+        }
+        assertEquals(CheckStatus.OUTAGE, manager.getReadinessStatus());
+
+        manager.removeDependency("mysql");
+        assertEquals(CheckStatus.OK, manager.getReadinessStatus());
+    }
+
+    @Test
+    public void testNotReadyBeforeWarmUp() {
+        manager.addDependency(new DependencyPinger(newDependency("mysql", Urgency.REQUIRED, null)));
+        assertEquals(CheckStatus.OUTAGE, manager.getReadinessStatus());
+
+        ((DependencyPinger) manager.getDependency("mysql")).run();
+        assertEquals(CheckStatus.OK, manager.getReadinessStatus());
+    }
+
+    private static CheckResult result(final Dependency dependency, final CheckStatus status) {
+        return CheckResult.newBuilder(dependency, status, status.name()).build();
+    }
+
+    private static Dependency newDependency(
+            final String id, final Urgency urgency, final AtomicReference<CheckStatus> status) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setUrgency(urgency)
+                .setCheckMethod(
+                        dependency ->
+                                result(dependency, null == status ? CheckStatus.OK : status.get()))
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReconcileTest {
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testReconcile() {
+        manager.reconcile(ImmutableList.of(newDependency("shard-1"), newDependency("shard-2")));
+        assertEquals(ImmutableSet.of("shard-1", "shard-2"), ids());
+        final Dependency shard2 = manager.getDependency("shard-2");
+        assertTrue(shard2 instanceof DependencyPinger);
+
+        manager.reconcile(ImmutableList.of(newDependency("shard-2"), newDependency("shard-3")));
+        assertEquals(ImmutableSet.of("shard-2", "shard-3"), ids());
+        // Dependencies kept across a reconciliation keep their pinger.
+        assertSame(shard2, manager.getDependency("shard-2"));
+        assertNull(manager.getMetrics().getSeries("shard-1"));
+        assertEquals(CheckStatus.OK, manager.evaluate("shard-3").getStatus());
+
+        manager.reconcile(ImmutableList.of());
+        assertEquals(ImmutableSet.of(), ids());
+    }
+
+    @Test
+    public void testScopedReconcile() {
+        manager.addDependency(newDependency("mysql"));
+        manager.reconcile(
+                TagQuery.anyOf("shard"),
+                ImmutableList.of(newDependency("shard-1"), newDependency("shard-2")));
+        manager.reconcile(TagQuery.anyOf("shard"), ImmutableList.of(newDependency("shard-2")));
+
+        assertEquals(ImmutableSet.of("mysql", "shard-2"), ids());
+    }
+
+    @Test
+    public void testConcurrentRemoval() throws Exception {
+        final AtomicInteger pings = new AtomicInteger();
+        manager.setPingPeriod(5);
+
+        final ExecutorService remover = Executors.newSingleThreadExecutor();
+        try {
+            for (int i = 0; i < 200; i++) {
+                final String id = "shard-" + i;
+                final Dependency dependency =
+                        SimpleDependency.newBuilder()
+                                .setId(id)
+                                .setUrgency(Urgency.REQUIRED)
+                                .setCheckMethod(
+                                        d -> {
+                                            pings.incrementAndGet();
+                                            return CheckResult.newBuilder(d, CheckStatus.OK, "ok")
+                                                    .build();
+                                        })
+                                .build();
+
+                // Remove the id over and over while it is being added.
+                final AtomicBoolean added = new AtomicBoolean(false);
+                final Future<?> removal =
+                        remover.submit(
+                                () -> {
+                                    do {
+                                        manager.removeDependency(id);
+                                    } while (!added.get());
+                                });
+                manager.reconcile(TagQuery.anyOf(id), ImmutableList.of(dependency));
+                added.set(true);
+                removal.get();
+
+                if (null != manager.getDependency(id)) {
+                    manager.removeDependency(id);
+                }
+            }
+        } finally {
+            remover.shutdown();
+        }
+        assertEquals(ImmutableSet.of(), ids());
+
+        // No pinger outlives the removal of its dependency.
+        Thread.sleep(50);
+        final int settled = pings.get();
+        Thread.sleep(100);
+        assertEquals(settled, pings.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateIds() {
+        manager.reconcile(ImmutableList.of(newDependency("shard-1"), newDependency("shard-1")));
+    }
+
+    private Set<String> ids() {
+        return Sets.newHashSet(manager.getDependencyIds());
+    }
+
+    private Dependency newDependency(final String id) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setUrgency(Urgency.REQUIRED)
+                .addTag(id.startsWith("shard") ? "shard" : "db")
+                .setCheckMethod(d -> CheckResult.newBuilder(d, CheckStatus.OK, "ok").build())
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.indeed.status.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RecordedDependencyTest {
+    private final MetricRecorder recorder = new MetricRecorder();
+
+    @Test
+    public void testFailureRatio() throws Exception {
+        final RecordedRatioDependency dependency =
+                RecordedRatioDependency.newBuilder()
+                        .setId("ratio")
+                        .setDescription("failure ratio")
+                        .setRecorder(recorder)
+                        .setThresholds(0.01, 0.1, 0.5)
+                        .setMinimumEvents(10)
+                        .build();
+
+        // Too few events to judge, however badly they went.
+        recorder.recordFailure();
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+
+        record(95, 5);
+        assertEquals(CheckStatus.MINOR, dependency.call().getStatus());
+
+        record(40, 60);
+        assertEquals(CheckStatus.OUTAGE, dependency.call().getStatus());
+
+        // Only the interval since the previous call is measured.
+        record(100, 0);
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinimumEventsRequired() {
+        // An interval without events has no ratio to measure.
+        RecordedRatioDependency.newBuilder().setMinimumEvents(0);
+    }
+
+    @Test
+    public void testMeanValue() throws Exception {
+        final RecordedValueDependency dependency =
+                RecordedValueDependency.newBuilder()
+                        .setId("latency")
+                        .setDescription("mean latency")
+                        .setRecorder(recorder)
+                        .setThresholds(100, 200, 500)
+                        .build();
+
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+
+        recorder.recordValue(150);
+        recorder.recordValue(350);
+        assertEquals(CheckStatus.MAJOR, dependency.call().getStatus());
+
+        recorder.recordValue(50);
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final int threadCount = 8;
+        final int perThread = 10000;
+        final List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                for (int j = 0; j < perThread; j++) {
+                                    recorder.recordSuccess();
+                                    recorder.recordValue(2);
+                                }
+                                recorder.recordFailure();
+                            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * perThread, recorder.getSuccessCount());
+        assertEquals(threadCount, recorder.getFailureCount());
+        assertEquals(threadCount * (perThread + 1), recorder.getTotalCount());
+        assertEquals(threadCount * perThread, recorder.getValueCount());
+        assertEquals(2L * threadCount * perThread, recorder.getValueSum());
+    }
+
+    private void record(final int successes, final int failures) {
+        for (int i = 0; i < successes; i++) {
+            recorder.recordSuccess();
+        }
+        for (int i = 0; i < failures; i++) {
+            recorder.recordFailure();
+        }
+    }
+}
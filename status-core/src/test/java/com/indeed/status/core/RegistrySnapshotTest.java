@@ -0,0 +1,179 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class RegistrySnapshotTest {
+    @Test
+    public void testDenseSlots() {
+        final RegistrySnapshot snapshot =
+                RegistrySnapshot.EMPTY.apply(
+                        Collections.emptyList(),
+                        ImmutableList.of(
+                                newDependency("mysql"),
+                                newDependency("mongo"),
+                                newDependency("search")));
+        // Slots follow the sort order of the ids, while evaluations keep registration order.
+        assertEquals(ImmutableMap.of("mongo", 0, "mysql", 1, "search", 2), snapshot.slots);
+        assertEquals(
+                ImmutableList.of("mysql", "mongo", "search"),
+                snapshot.dependencies.keySet().asList());
+
+        final RegistrySnapshot removed =
+                snapshot.apply(ImmutableList.of("mongo"), Collections.emptyList());
+        assertEquals(ImmutableMap.of("mysql", 0, "search", 1), removed.slots);
+        assertEquals(3, snapshot.slots.size());
+    }
+
+    @Test
+    public void testSubsetSlots() {
+        final Dependency mongo = newDependency("mongo");
+        final Dependency search = newDependency("search");
+        final RegistrySnapshot snapshot =
+                RegistrySnapshot.EMPTY.apply(
+                        Collections.emptyList(),
+                        ImmutableList.of(search, newDependency("mysql"), mongo));
+
+        // Numbered densely over the subset, in the order of the snapshot.
+        assertEquals(
+                ImmutableMap.of("mongo", 0, "search", 1),
+                snapshot.slotsOf(ImmutableList.of(search, mongo)));
+        assertEquals(snapshot.slots, snapshot.slotsOf(snapshot.dependencies.values().asList()));
+    }
+
+    @Test
+    public void testSlottedDetailedReport() {
+        final CheckResultSet results =
+                CheckResultSet.newBuilder()
+                        .setSlots(ImmutableMap.of("a", 0, "b", 1, "c", 2, "d", 3))
+                        .build();
+
+        record(results, newDependency("d"), CheckStatus.OK, 3000L);
+        record(results, newDependency("b"), CheckStatus.MAJOR, 1000L);
+        record(results, newDependency("a"), CheckStatus.OK, 2000L);
+        record(results, newDependency("c"), CheckStatus.MAJOR, 0L);
+
+        final CheckResultSet.DetailedSystemReport report =
+                (CheckResultSet.DetailedSystemReport) results.summarizeBySystemReporter(true);
+        assertEquals(ImmutableSet.of(CheckStatus.MAJOR, CheckStatus.OK), report.results.keySet());
+        assertEquals(ImmutableList.of("a", "d"), ids(report.results.get(CheckStatus.OK)));
+        assertEquals(ImmutableList.of("b", "c"), ids(report.results.get(CheckStatus.MAJOR)));
+        assertEquals(1000L, report.leastRecentlyExecutedTimestamp);
+    }
+
+    @Test
+    public void testSlottedResultSet() {
+        final Dependency mysql = newDependency("mysql");
+        final Dependency unindexed = newDependency("unindexed");
+        final CheckResultSet results =
+                CheckResultSet.newBuilder()
+                        .setSlots(ImmutableMap.of("mongo", 0, "mysql", 1))
+                        .build();
+
+        record(results, mysql);
+        record(results, unindexed);
+
+        assertEquals("mysql", results.get("mysql").getId());
+        assertEquals("unindexed", results.get("unindexed").getId());
+        assertNull(results.get("mongo"));
+        assertEquals(2, results.getCompleted().size());
+
+        final Set<String> ids = Sets.newHashSet();
+        for (final CheckResult result : results.getCompleted()) {
+            ids.add(result.getId());
+        }
+        assertEquals(ImmutableSet.of("mysql", "unindexed"), ids);
+    }
+
+    @Test
+    public void testSlottedChecksDoNotStack() {
+        final Dependency mysql = newDependency("mysql");
+        final CheckResultSet results =
+                CheckResultSet.newBuilder().setSlots(ImmutableMap.of("mysql", 0)).build();
+
+        results.handleInit(mysql);
+        results.handleExecute(mysql);
+        try {
+            results.handleInit(mysql);
+            fail("Expected the executing check to be detected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+
+        record(results, newDependency("other"));
+        final CheckResult result = CheckResult.newBuilder(mysql, CheckStatus.OK, "ok").build();
+        results.handleComplete(mysql, result);
+        results.handleFinalize(mysql, result);
+        try {
+            results.handleInit(mysql);
+            fail("Expected the completed check to be detected");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        assertEquals(2, results.getCompleted().size());
+    }
+
+    @Test
+    public void testManagerEvaluatesSnapshot() {
+        final AbstractDependencyManager manager =
+                new AbstractDependencyManager(
+                        ImmutableDependencyManagerParams.builder().build()) {};
+        try {
+            manager.addDependency(newDependency("mysql"));
+            manager.addDependency(newDependency("mongo"));
+
+            final CheckResultSet results = manager.evaluate();
+            assertEquals(2, results.getCompleted().size());
+            assertEquals(CheckStatus.OK, results.get("mongo").getStatus());
+            assertEquals(CheckStatus.OK, results.getSystemStatus());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static void record(final CheckResultSet results, final Dependency dependency) {
+        record(results, dependency, CheckStatus.OK, System.currentTimeMillis());
+    }
+
+    private static void record(
+            final CheckResultSet results,
+            final Dependency dependency,
+            final CheckStatus status,
+            final long timestamp) {
+        final CheckResult result =
+                CheckResult.newBuilder(dependency, status, "ok").setTimestamp(timestamp).build();
+        results.handleInit(dependency);
+        results.handleExecute(dependency);
+        results.handleComplete(dependency, result);
+        results.handleFinalize(dependency, result);
+    }
+
+    private static List<String> ids(final Collection<CheckResult> results) {
+        final List<String> ids = Lists.newArrayList();
+        for (final CheckResult result : results) {
+            ids.add(result.getId());
+        }
+        return ids;
+    }
+
+    private static Dependency newDependency(final String id) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(d -> CheckResult.newBuilder(d, CheckStatus.OK, "ok").build())
+                .build();
+    }
+}
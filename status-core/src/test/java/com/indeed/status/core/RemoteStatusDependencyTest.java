@@ -0,0 +1,142 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.Sets;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class RemoteStatusDependencyTest {
+    private HttpServer server;
+
+    private final AtomicReference<String> report = new AtomicReference<>();
+    private final AtomicInteger code = new AtomicInteger(200);
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final Set<Integer> clientPorts = Sets.newConcurrentHashSet();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/status",
+                exchange -> {
+                    final String etag = '"' + Integer.toHexString(report.get().hashCode()) + '"';
+                    if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        exchange.close();
+                        return;
+                    }
+                    exchange.getResponseHeaders().set("ETag", etag);
+                    send(exchange, report.get().getBytes(StandardCharsets.UTF_8));
+                });
+        server.createContext(
+                "/untagged",
+                exchange -> {
+                    clientPorts.add(exchange.getRemoteAddress().getPort());
+                    send(exchange, report.get().getBytes(StandardCharsets.UTF_8));
+                });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testConditionalRequests() throws Exception {
+        final RemoteStatusDependency dependency = newDependency();
+        report.set("{\"hostname\":\"billing-1\",\"duration\":1,\"condition\":\"OK\"}");
+
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+        assertEquals(1, notModified.get());
+
+        // Unhealthy services answer with an error code.
+        report.set("{\"hostname\":\"billing-1\",\"duration\":1,\"condition\":\"MAJOR\"}");
+        code.set(512);
+        assertEquals(CheckStatus.MAJOR, dependency.call().getStatus());
+        assertEquals(CheckStatus.MAJOR, dependency.call().getStatus());
+        assertEquals(2, notModified.get());
+    }
+
+    @Test
+    public void testConnectionReuse() throws Exception {
+        final RemoteStatusDependency dependency = newDependency("/untagged");
+        report.set("{\"hostname\":\"billing-1\",\"duration\":1,\"condition\":\"OK\"}");
+        assertEquals(CheckStatus.OK, dependency.call().getStatus());
+
+        report.set("{\"condition\":\"OUTAGE\",\"results\":{\"OUTAGE\":[{\"id\":\"a\"}]}}");
+        code.set(512);
+        assertEquals(CheckStatus.OUTAGE, dependency.call().getStatus());
+        assertEquals(CheckStatus.OUTAGE, dependency.call().getStatus());
+
+        // Every request was sent on the same connection.
+        assertEquals(1, clientPorts.size());
+    }
+
+    @Test
+    public void testUnreadableReport() throws Exception {
+        final RemoteStatusDependency dependency = newDependency();
+        report.set("<html>Service Unavailable</html>");
+        code.set(503);
+
+        final CheckResult result = dependency.call();
+        assertEquals(CheckStatus.OUTAGE, result.getStatus());
+        assertNotNull(result.getThrowable());
+    }
+
+    @Test
+    public void testReadsTopLevelCondition() throws IOException {
+        assertEquals(
+                CheckStatus.MINOR,
+                RemoteStatusDependency.readCondition(
+                        stream(
+                                "{\"results\":{\"OK\":[{\"condition\":\"OK\",\"id\":\"a\"}]},"
+                                        + "\"tags\":[\"condition\"],\"condition\":\"MINOR\"}")));
+        assertNull(RemoteStatusDependency.readCondition(stream("{\"hostname\":\"h\"}")));
+        assertNull(RemoteStatusDependency.readCondition(stream("[\"condition\"]")));
+    }
+
+    private RemoteStatusDependency newDependency() throws IOException {
+        return newDependency("/status");
+    }
+
+    private RemoteStatusDependency newDependency(final String path) throws IOException {
+        return RemoteStatusDependency.newBuilder()
+                .setId("billing")
+                .setDescription("Billing service")
+                .setUrl(new URL("http://127.0.0.1:" + server.getAddress().getPort() + path))
+                .setTimeout(2000)
+                .setUrgency(Urgency.REQUIRED)
+                .build();
+    }
+
+    private void send(final HttpExchange exchange, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(code.get(), body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static ByteArrayInputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -21,6 +21,18 @@ public class SlideWindowDependencyTest {
                 final double maxMinor,
                 final double maxMajor,
                 final long timeInterval) {
+            this(failedRatio, time, maxOK, maxMinor, maxMajor, timeInterval, DEFAULT_CAPACITY, 0L);
+        }
+
+        TestDependency(
+                final AtomicDouble failedRatio,
+                final AtomicLong time,
+                final double maxOK,
+                final double maxMinor,
+                final double maxMajor,
+                final long timeInterval,
+                final int capacity,
+                final long bucketMillis) {
             super(
                     "testId",
                     "testDescription",
@@ -30,7 +42,9 @@ public class SlideWindowDependencyTest {
                     maxOK,
                     maxMinor,
                     maxMajor,
-                    timeInterval);
+                    timeInterval,
+                    capacity,
+                    bucketMillis);
             this.failedRatio = failedRatio;
             this.time = time;
         }
@@ -132,4 +146,53 @@ public class SlideWindowDependencyTest {
         assertEquals(CheckStatus.OUTAGE, checkResult.getStatus());
         assertEquals(0.25, Double.valueOf(checkResult.getErrorMessage()), errorRange);
     }
+
+    @Test
+    public void testCapacityDropsOldestSamples() throws Exception {
+        final AtomicDouble failedRatio = new AtomicDouble(0);
+        final AtomicLong time = new AtomicLong(System.currentTimeMillis());
+        final double errorRange = 0.0001;
+        final TestDependency testDependency =
+                new TestDependency(failedRatio, time, 0.05, 0.1, 0.2, 600 * 1000, 2, 0L);
+
+        testDependency.call();
+        failedRatio.set(1);
+        time.addAndGet(100);
+        CheckResult checkResult = testDependency.call();
+        assertEquals(0.5, Double.valueOf(checkResult.getErrorMessage()), errorRange);
+
+        // The ring only holds two samples, so the initial healthy sample falls out of the window.
+        time.addAndGet(100);
+        checkResult = testDependency.call();
+        assertEquals(CheckStatus.OUTAGE, checkResult.getStatus());
+        assertEquals(1.0, Double.valueOf(checkResult.getErrorMessage()), errorRange);
+    }
+
+    @Test
+    public void testBucketsCoalesceSamples() throws Exception {
+        final AtomicDouble failedRatio = new AtomicDouble(0);
+        final AtomicLong time = new AtomicLong(System.currentTimeMillis());
+        final double errorRange = 0.0001;
+        final TestDependency testDependency =
+                new TestDependency(failedRatio, time, 0.05, 0.1, 0.2, 600 * 1000, 1, 1000L);
+
+        testDependency.call();
+        failedRatio.set(1);
+        time.addAndGet(100);
+        CheckResult checkResult = testDependency.call();
+        // Both samples land in the same bucket and are averaged, even with room for only one.
+        assertEquals(0.5, Double.valueOf(checkResult.getErrorMessage()), errorRange);
+
+        failedRatio.set(0);
+        time.addAndGet(100);
+        checkResult = testDependency.call();
+        assertEquals(1.0 / 3, Double.valueOf(checkResult.getErrorMessage()), errorRange);
+
+        // A sample in the next bucket replaces the single retained sample.
+        failedRatio.set(0.04);
+        time.addAndGet(1000);
+        checkResult = testDependency.call();
+        assertEquals(CheckStatus.OK, checkResult.getStatus());
+        assertEquals(0.04, Double.valueOf(checkResult.getErrorMessage()), errorRange);
+    }
 }
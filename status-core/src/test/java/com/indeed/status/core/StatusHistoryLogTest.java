@@ -0,0 +1,162 @@
+package com.indeed.status.core;
+
+import com.indeed.util.core.time.StoppedClock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatusHistoryLogTest {
+    @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final StoppedClock wallClock = new StoppedClock(TimeUnit.DAYS.toMillis(1));
+
+    @Test
+    public void testQueryByDependencyAndRange() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 100, 10)) {
+            history.append("mysql", CheckStatus.OK, 1000, 5);
+            history.append("mongo", CheckStatus.OK, 1500, 5);
+            history.append("mysql", CheckStatus.OUTAGE, 2000, 30);
+            history.append("mysql", CheckStatus.MINOR, 3000, 10);
+
+            final List<StatusHistoryLog.Entry> entries = history.query("mysql", 1000, 3000);
+            assertEquals(2, entries.size());
+            assertEquals(1000, entries.get(0).getTimestamp());
+            assertEquals(CheckStatus.OK, entries.get(0).getStatus());
+            assertEquals(2000, entries.get(1).getTimestamp());
+            assertEquals(30, entries.get(1).getDuration());
+            assertEquals(CheckStatus.OUTAGE, entries.get(1).getStatus());
+
+            assertEquals(0, history.query("redis", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    public void testListensToChecks() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 100, 10)) {
+            final DependencyPinger pinger =
+                    new DependencyPinger(
+                            SimpleDependency.newBuilder()
+                                    .setId("mysql")
+                                    .setDescription("mysql")
+                                    .setCheckMethod(
+                                            dependency ->
+                                                    CheckResult.newBuilder(
+                                                                    dependency,
+                                                                    CheckStatus.OK,
+                                                                    "ok")
+                                                            .build())
+                                    .build());
+            pinger.addListener(history);
+            pinger.run();
+            pinger.run();
+
+            assertEquals(2, history.query("mysql", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    public void testRotationAndSegmentLimit() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 4, 2)) {
+            final long now = wallClock.currentTimeMillis();
+            for (int i = 0; i < 10; i++) {
+                history.append("mysql", CheckStatus.OK, now + i, 1);
+            }
+
+            // Two segments of four records are retained: the full one and the active one.
+            final List<StatusHistoryLog.Entry> entries = history.query("mysql", 0, Long.MAX_VALUE);
+            assertEquals(6, entries.size());
+            assertEquals(now + 4, entries.get(0).getTimestamp());
+            assertEquals(2, segmentCount());
+        }
+    }
+
+    @Test
+    public void testRetentionExpiresOldSegments() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 2, 100)) {
+            history.append("mysql", CheckStatus.OK, wallClock.currentTimeMillis(), 1);
+            history.append("mysql", CheckStatus.OK, wallClock.currentTimeMillis(), 1);
+
+            wallClock.plus(2, TimeUnit.HOURS);
+            history.append("mysql", CheckStatus.OK, wallClock.currentTimeMillis(), 1);
+
+            assertEquals(1, history.query("mysql", 0, Long.MAX_VALUE).size());
+            assertEquals(1, segmentCount());
+        }
+    }
+
+    @Test
+    public void testRecoversAfterRestart() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 100, 10)) {
+            history.append("mysql", CheckStatus.OK, 1000, 5);
+            history.append("mongo", CheckStatus.MAJOR, 2000, 5);
+        }
+
+        // Tear the dictionary as if the process died while registering a new id.
+        try (final RandomAccessFile dictionary =
+                new RandomAccessFile(new File(folder.getRoot(), "dependencies.dict"), "rw")) {
+            dictionary.seek(dictionary.length());
+            dictionary.writeShort(10);
+            dictionary.write('r');
+        }
+
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 100, 10)) {
+            history.append("mysql", CheckStatus.OUTAGE, 3000, 5);
+            history.append("redis", CheckStatus.OK, 4000, 5);
+
+            final List<StatusHistoryLog.Entry> mysql = history.query("mysql", 0, Long.MAX_VALUE);
+            assertEquals(2, mysql.size());
+            assertEquals(CheckStatus.OK, mysql.get(0).getStatus());
+            assertEquals(CheckStatus.OUTAGE, mysql.get(1).getStatus());
+            assertEquals(
+                    CheckStatus.MAJOR,
+                    history.query("mongo", 0, Long.MAX_VALUE).get(0).getStatus());
+            assertEquals(1, history.query("redis", 0, Long.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    public void testTimeline() throws Exception {
+        try (final StatusHistoryLog history = newLog(folder.getRoot(), 100, 10)) {
+            final long now = wallClock.currentTimeMillis();
+            history.append("mysql", CheckStatus.OK, now - TimeUnit.HOURS.toMillis(25), 1);
+            history.append("mysql", CheckStatus.MINOR, now - TimeUnit.HOURS.toMillis(1), 1);
+            history.append("mysql", CheckStatus.OK, now, 1);
+
+            final List<StatusHistoryLog.Entry> timeline =
+                    history.timeline("mysql", TimeUnit.HOURS.toMillis(24));
+            assertEquals(2, timeline.size());
+            assertEquals(CheckStatus.MINOR, timeline.get(0).getStatus());
+            assertTrue(timeline.get(1).getTimestamp() == now);
+        }
+    }
+
+    private StatusHistoryLog newLog(
+            final File directory, final int recordsPerSegment, final int maxSegments)
+            throws Exception {
+        return StatusHistoryLog.newBuilder()
+                .setDirectory(directory)
+                .setWallClock(wallClock)
+                .setRecordsPerSegment(recordsPerSegment)
+                .setMaxSegments(maxSegments)
+                .setRetention(TimeUnit.HOURS.toMillis(1))
+                .build();
+    }
+
+    private int segmentCount() {
+        int count = 0;
+        for (final String name : folder.getRoot().list()) {
+            if (name.endsWith(".log")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,90 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TagQueryTest {
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testMatches() {
+        final Set<String> tags = ImmutableSet.of("lb", "search");
+
+        assertTrue(TagQuery.anyOf("lb", "billing").matches(tags));
+        assertFalse(TagQuery.anyOf("billing").matches(tags));
+        assertTrue(TagQuery.allOf("lb", "search").matches(tags));
+        assertFalse(TagQuery.allOf("lb", "billing").matches(tags));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyQuery() {
+        TagQuery.anyOf();
+    }
+
+    @Test
+    public void testBuilderTags() {
+        final Dependency dependency =
+                newDependency("mysql").addTag("lb").setTags(ImmutableSet.of("db")).build();
+        assertEquals(ImmutableSet.of("db"), dependency.getTags());
+    }
+
+    @Test
+    public void testEvaluateSubset() {
+        manager.addDependency(newDependency("mysql").addTag("lb").addTag("db").build());
+        manager.addDependency(newDependency("mongo").addTag("db").build());
+        manager.addDependency(newDependency("search").addTag("lb").build());
+        manager.addDependency(newDependency("billing").build());
+
+        assertEquals(ImmutableSet.of("mysql", "search"), ids(TagQuery.anyOf("lb")));
+        assertEquals(ImmutableSet.of("mysql", "mongo", "search"), ids(TagQuery.anyOf("lb", "db")));
+        assertEquals(ImmutableSet.of("mysql"), ids(TagQuery.allOf("lb", "db")));
+        assertEquals(ImmutableSet.of(), ids(TagQuery.allOf("lb", "missing")));
+
+        final CheckResultSet results = manager.evaluate(TagQuery.anyOf("db"));
+        assertEquals(2, calls.get());
+        assertEquals(2, results.getCompleted().size());
+        assertNull(results.get("search"));
+
+        manager.removeDependency("mysql");
+        assertEquals(ImmutableSet.of("search"), ids(TagQuery.anyOf("lb")));
+    }
+
+    private Set<String> ids(final TagQuery query) {
+        final Collection<Dependency> dependencies = manager.getDependencies(query);
+        final Set<String> ids = Sets.newHashSet();
+        for (final Dependency dependency : dependencies) {
+            ids.add(dependency.getId());
+        }
+        return ids;
+    }
+
+    private SimpleDependency.Builder newDependency(final String id) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(
+                        dependency -> {
+                            calls.incrementAndGet();
+                            return CheckResult.newBuilder(dependency, CheckStatus.OK, "ok").build();
+                        });
+    }
+}
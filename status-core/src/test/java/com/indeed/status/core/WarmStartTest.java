@@ -0,0 +1,100 @@
+package com.indeed.status.core;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WarmStartTest {
+    @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestoresResultsAcrossRestart() throws Exception {
+        final File snapshotFile = new File(folder.getRoot(), "results.json");
+
+        final AbstractDependencyManager before = newManager(snapshotFile);
+        try {
+            before.launchPinger(newDependency(CheckStatus.MINOR, null));
+            assertEquals(CheckStatus.MINOR, before.evaluate("mysql").getStatus());
+        } finally {
+            before.shutdown();
+        }
+        assertTrue(snapshotFile.isFile());
+
+        // The first ping after the restart hangs, but the restored result is served meanwhile.
+        final CountDownLatch release = new CountDownLatch(1);
+        final AbstractDependencyManager after = newManager(snapshotFile);
+        try {
+            after.launchPinger(newDependency(CheckStatus.OK, release));
+            final DependencyPinger pinger = (DependencyPinger) after.getDependency("mysql");
+            assertTrue(pinger.isProvisional());
+
+            final CheckResult result = after.evaluate("mysql");
+            assertEquals(CheckStatus.MINOR, result.getStatus());
+            assertTrue(result.getErrorMessage().startsWith("Stale result from before restart"));
+
+            // Results not yet replaced by a real check are carried forward.
+            after.saveSnapshot();
+            final ResultSnapshot saved = ResultSnapshot.read(snapshotFile);
+            assertEquals(CheckStatus.MINOR, saved.results.get("mysql").status);
+
+            release.countDown();
+            while (pinger.isProvisional()) {
+                Thread.sleep(10);
+            }
+            assertEquals(CheckStatus.OK, after.evaluate("mysql").getStatus());
+        } finally {
+            release.countDown();
+            after.shutdown();
+        }
+
+        assertEquals(CheckStatus.OK, ResultSnapshot.read(snapshotFile).results.get("mysql").status);
+    }
+
+    @Test
+    public void testMissingOrCorruptSnapshotIsIgnored() throws Exception {
+        final File snapshotFile = new File(folder.getRoot(), "results.json");
+        assertFalse(snapshotFile.exists());
+        newManager(snapshotFile).shutdown();
+
+        Files.write("{not json".getBytes(Charsets.UTF_8), snapshotFile);
+        final AbstractDependencyManager manager = newManager(snapshotFile);
+        try {
+            manager.launchPinger(newDependency(CheckStatus.OK, null));
+            assertFalse(((DependencyPinger) manager.getDependency("mysql")).isProvisional());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static AbstractDependencyManager newManager(final File snapshotFile) {
+        return new AbstractDependencyManager(
+                ImmutableDependencyManagerParams.builder()
+                        .snapshotFile(snapshotFile)
+                        .snapshotPeriod(0)
+                        .build()) {};
+    }
+
+    private static Dependency newDependency(final CheckStatus status, final CountDownLatch latch) {
+        return SimpleDependency.newBuilder()
+                .setId("mysql")
+                .setDescription("mysql")
+                .setCheckMethod(
+                        dependency -> {
+                            if (null != latch) {
+                                latch.await();
+                            }
+                            return CheckResult.newBuilder(dependency, status, status.name())
+                                    .build();
+                        })
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.indeed.status.core;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class WarmUpTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(
+                    ImmutableDependencyManagerParams.builder().requireWarmUp(true).build()) {};
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        manager.shutdown();
+    }
+
+    @Test
+    public void testChecksRunConcurrently() throws Exception {
+        final int count = 8;
+        for (int i = 0; i < count; i++) {
+            manager.addDependency(new DependencyPinger(newDependency("slow-" + i, null)));
+        }
+        assertFalse(manager.isWarmUpComplete());
+
+        final long start = System.currentTimeMillis();
+        assertTrue(manager.warmUp(Duration.ofSeconds(10), count));
+        final long elapsed = System.currentTimeMillis() - start;
+
+        // Run one at a time, the checks would take at least count * 300 ms.
+        assertTrue("Warm-up took " + elapsed + " ms", elapsed < 1500);
+        assertEquals(count, manager.getWarmUpCompleted());
+        assertEquals(0, manager.getWarmUpPending());
+        assertTrue(manager.isWarmUpComplete());
+        for (int i = 0; i < count; i++) {
+            assertNotNull(((DependencyPinger) manager.getDependency("slow-" + i)).getLastResult());
+        }
+    }
+
+    @Test
+    public void testDeadlineLeavesStragglersRunning() throws Exception {
+        manager.addDependency(new DependencyPinger(newDependency("fast", null)));
+        final DependencyPinger stuck = new DependencyPinger(newDependency("stuck", release));
+        manager.addDependency(stuck);
+
+        assertFalse(manager.warmUp(Duration.ofMillis(500), 2));
+        assertFalse(manager.isWarmUpComplete());
+        assertEquals(1, manager.getWarmUpCompleted());
+        assertEquals(1, manager.getWarmUpPending());
+
+        release.countDown();
+        while (null == stuck.getLastResult()) {
+            Thread.sleep(10);
+        }
+        assertEquals(CheckStatus.OK, stuck.getLastResult().getStatus());
+        assertTrue(manager.isWarmUpComplete());
+    }
+
+    @Test
+    public void testLiveChecksDuringWarmUp() throws Exception {
+        final int count = 20;
+        for (int i = 0; i < count; i++) {
+            manager.launchPinger(newDependency("stuck-" + i, release));
+        }
+        manager.addDependency(
+                SimpleDependency.newBuilder()
+                        .setId("live")
+                        .setDescription("live")
+                        .setTimeout(5000)
+                        .addTag("live")
+                        .setCheckMethod(
+                                dependency ->
+                                        CheckResult.newBuilder(dependency, CheckStatus.OK, "ok")
+                                                .build())
+                        .build());
+
+        final int maxThreads = manager.getMaxPoolSize();
+        final Thread warmUp =
+                new Thread(
+                        () -> {
+                            try {
+                                manager.warmUp(Duration.ofSeconds(10));
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        warmUp.start();
+        try {
+            // Wait for the warm-up to take its share of the checker pool.
+            final long deadline = System.currentTimeMillis() + 10000;
+            while (manager.getActiveDependencyThreads() < maxThreads / 2) {
+                assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(10);
+            }
+            Thread.sleep(100);
+
+            // Each warm-up check takes a single thread, leaving room for live checks.
+            assertTrue(manager.getActiveDependencyThreads() < maxThreads);
+            assertEquals(
+                    CheckStatus.OK, manager.evaluate(TagQuery.anyOf("live")).getSystemStatus());
+        } finally {
+            release.countDown();
+            warmUp.join();
+        }
+        for (int i = 0; i < count; i++) {
+            final CheckResult result =
+                    ((DependencyPinger) manager.getDependency("stuck-" + i)).getLastResult();
+            if (null != result) {
+                assertEquals(CheckStatus.OK, result.getStatus());
+            }
+        }
+    }
+
+    @Test
+    public void testProbedBeforePingersLaunched() {
+        // Nothing to wait for yet, but pingers launched later must still be waited for.
+        assertTrue(manager.isWarmUpComplete());
+
+        final DependencyPinger pinger = new DependencyPinger(newDependency("fast", null));
+        manager.addDependency(pinger);
+        assertFalse(manager.isWarmUpComplete());
+
+        pinger.run();
+        assertTrue(manager.isWarmUpComplete());
+    }
+
+    private static Dependency newDependency(final String id, final CountDownLatch latch) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setTimeout(5000)
+                .setCheckMethod(
+                        dependency -> {
+                            if (null == latch) {
+                                Thread.sleep(300);
+                            } else {
+                                latch.await();
+                            }
+                            return CheckResult.newBuilder(dependency, CheckStatus.OK, "ok").build();
+                        })
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.indeed.status.core;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ZombieCheckTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final DependencyChecker checker =
+            new DependencyChecker(
+                    ImmutableDependencyCheckerParams.builder()
+                            .executorService(executor)
+                            .zombieLimit(1)
+                            .build());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    // A check that ignores interruption, like one blocked in socket I/O.
+    private final Dependency dependency =
+            SimpleDependency.newBuilder()
+                    .setId("mysql")
+                    .setTimeout(50)
+                    .setUrgency(Urgency.REQUIRED)
+                    .setCheckMethod(
+                            d -> {
+                                calls.incrementAndGet();
+                                while (true) {
+                                    try {
+                                        release.await();
+                                        return CheckResult.newBuilder(d, CheckStatus.OK, "ok")
+                                                .build();
+                                    } catch (final InterruptedException e) {
+                                        // keep waiting
+                                    }
+                                }
+                            })
+                    .build();
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testHungDependencyIsRefused() throws Exception {
+        final CheckResult timedOut = checker.evaluate(dependency);
+        assertEquals("Timed out prior to completion", timedOut.getErrorMessage());
+        // Counted only once the check keeps running past the grace period.
+        assertEquals(ImmutableMap.of(), checker.getZombieCounts());
+        final long counted = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (checker.getZombieCounts().isEmpty() && System.currentTimeMillis() < counted) {
+            Thread.sleep(10);
+        }
+        assertEquals(ImmutableMap.of("mysql", 1), checker.getZombieCounts());
+
+        final CheckResult hung = checker.evaluate(dependency);
+        assertEquals(CheckStatus.OUTAGE, hung.getStatus());
+        assertEquals(
+                "Dependency is hung; earlier checks are still running after timing out",
+                hung.getErrorMessage());
+        assertTrue(hung.getThrowable() instanceof DependencyChecker.HungCheckException);
+        assertEquals(1, calls.get());
+
+        release.countDown();
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!checker.getZombieCounts().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(ImmutableMap.of(), checker.getZombieCounts());
+        assertEquals(CheckStatus.OK, checker.evaluate(dependency).getStatus());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testInterruptedCheckIsNotZombie() throws Exception {
+        final Dependency interruptible =
+                SimpleDependency.newBuilder()
+                        .setId("mongo")
+                        .setTimeout(50)
+                        .setUrgency(Urgency.REQUIRED)
+                        .setCheckMethod(
+                                d -> {
+                                    release.await();
+                                    return CheckResult.newBuilder(d, CheckStatus.OK, "ok").build();
+                                })
+                        .build();
+
+        for (int i = 0; i < 3; i++) {
+            final CheckResult timedOut = checker.evaluate(interruptible);
+            assertEquals("Timed out prior to completion", timedOut.getErrorMessage());
+        }
+
+        // Returned on the interrupt, so neither counted nor refused.
+        Thread.sleep(DependencyChecker.DependencyExecutorSet.ZOMBIE_GRACE_PERIOD + 100);
+        assertEquals(ImmutableMap.of(), checker.getZombieCounts());
+    }
+}
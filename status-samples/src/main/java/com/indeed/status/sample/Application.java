@@ -2,6 +2,7 @@ package com.indeed.status.sample;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.indeed.status.core.CachingDependency;
 import com.indeed.status.core.CheckResultSet;
 import com.indeed.status.core.Dependency;
 import com.mongodb.MongoClient;
@@ -40,7 +41,12 @@ public class Application {
 
         final Dependency mysqlDatabaseDependency =
                 new MySqlDatabaseDependency(DATABASE_NAME, testdb);
-        final Dependency dbDependency = new MongoDBDatabaseDependency(DATABASE_NAME, client);
+        // Database stats are expensive to collect, so check at most once a minute.
+        final Dependency dbDependency =
+                CachingDependency.newBuilder()
+                        .setDependency(new MongoDBDatabaseDependency(DATABASE_NAME, client))
+                        .setTtl(TimeUnit.MINUTES.toMillis(1))
+                        .build();
         final Dependency onDiskFileDependency = new OnDiskFileDependency("file");
 
         final DependencyManager dependencyManager = new DependencyManager();
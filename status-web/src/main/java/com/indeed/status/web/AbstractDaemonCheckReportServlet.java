@@ -1,33 +1,52 @@
 package com.indeed.status.web;
 
 import com.google.common.base.Function;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.net.HttpHeaders;
 import com.indeed.status.core.AbstractDependencyManager;
 import com.indeed.status.core.CheckReportHandler;
 import com.indeed.status.core.CheckResultSet;
 import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.TagQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 /** @author Matt Schemmel */
 public abstract class AbstractDaemonCheckReportServlet extends HttpServlet {
+    /// Request parameter naming the tags to evaluate, repeated or comma-separated
+    public static final String PARAM_TAG = "tag";
+    /// Request parameter that, when set to "all", requires every tag rather than any of them
+    public static final String PARAM_MATCH = "match";
+
+    private static final Splitter TAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
     private final Logger log = LoggerFactory.getLogger(getClass());
     // Set-once, read-many
     private AbstractDependencyManager manager;
+    /// Encoded reports of earlier requests, reused until the results change.
+    private final ReportCache reportCache = new ReportCache();
 
     @Override
     protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
             throws ServletException, IOException {
         try {
-            final CheckResultSet resultSet = getManager().evaluate();
+            final TagQuery query = newTagQuery(request);
+            final CheckResultSet resultSet =
+                    null == query ? getManager().evaluate() : getManager().evaluate(query);
             final CheckReportHandler handler = newHandler(request, response);
 
+            response.setHeader(
+                    HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
             handler.handle(resultSet);
 
         } catch (final Throwable t) {
@@ -67,7 +86,42 @@ public abstract class AbstractDaemonCheckReportServlet extends HttpServlet {
             HttpServletRequest request,
             HttpServletResponse response,
             Function<CheckStatus, Integer> mapper) {
-        return new PrivilegedReportHandler(mapper, response);
+        return new PrivilegedReportHandler(
+                mapper, request, response, newEncoder(request), reportCache, newTagQuery(request));
+    }
+
+    /** @return The encoder of the report best matching the Accept header of the given request. */
+    protected ReportEncoder newEncoder(final HttpServletRequest request) {
+        return getEncoders().select(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /** @return The encoders among which requests choose, of which the first is the default. */
+    protected ReportEncoders getEncoders() {
+        return ReportEncoders.DEFAULT;
+    }
+
+    /**
+     * @return The query selecting the dependencies to evaluate for the given request, or null to
+     *     evaluate all of them.
+     */
+    @Nullable
+    protected TagQuery newTagQuery(final HttpServletRequest request) {
+        final String[] values = request.getParameterValues(PARAM_TAG);
+        if (null == values) {
+            return null;
+        }
+
+        final List<String> tags = Lists.newArrayList();
+        for (final String value : values) {
+            tags.addAll(TAG_SPLITTER.splitToList(value));
+        }
+        if (tags.isEmpty()) {
+            return null;
+        }
+
+        return "all".equalsIgnoreCase(request.getParameter(PARAM_MATCH))
+                ? TagQuery.allOf(tags)
+                : TagQuery.anyOf(tags);
     }
 
     protected Function<CheckStatus, Integer> newStatusMapper(HttpServletRequest request) {
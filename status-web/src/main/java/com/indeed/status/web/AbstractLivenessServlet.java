@@ -0,0 +1,16 @@
+package com.indeed.status.web;
+
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckStatus;
+
+/**
+ * Answers liveness probes from the in-process state of the dependency manager alone.
+ *
+ * @see AbstractDependencyManager#getLivenessStatus()
+ */
+public abstract class AbstractLivenessServlet extends AbstractProbeServlet {
+    @Override
+    protected CheckStatus probe(final AbstractDependencyManager manager) {
+        return manager.getLivenessStatus();
+    }
+}
@@ -0,0 +1,266 @@
+package com.indeed.status.web;
+
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.DependencyMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Exposes the health of the background-pinged dependencies in the OpenMetrics text format, for
+ * scraping by Prometheus and compatible collectors:
+ *
+ * <ul>
+ *   <li><code>status_readiness</code>, the readiness status of the process, as a state set;
+ *   <li><code>status_dependency_status</code>, the status of each dependency, as a state set;
+ *   <li><code>status_dependency_checks_total</code>, the checks of each dependency by status;
+ *   <li><code>status_dependency_check_duration_seconds</code>, a histogram of check durations;
+ *   <li><code>status_dependency_last_check_timestamp_seconds</code>;
+ *   <li><code>status_checker_*</code>, the saturation of the checker pool.
+ * </ul>
+ *
+ * <p>Like {@link AbstractProbeServlet}, no dependency is evaluated to serve a request. The
+ * exposition is written from the counters the dependency manager keeps into a buffer reused across
+ * the requests served by each thread.
+ *
+ * @see AbstractDependencyManager#getMetrics()
+ */
+public abstract class AbstractOpenMetricsServlet extends HttpServlet {
+    public static final String CONTENT_TYPE =
+            "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private static final CheckStatus[] STATUSES = CheckStatus.values();
+    private static final long[] DURATION_BOUNDS = DependencyMetrics.getDurationBounds();
+    private static final String[] DURATION_LABELS = newDurationLabels();
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    // Set-once, read-many
+    private AbstractDependencyManager manager;
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            final StringBuilder buffer = BUFFER.get();
+            buffer.setLength(0);
+            write(getManager(), buffer);
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(CONTENT_TYPE);
+            response.setHeader("Cache-Control", "no-cache");
+            response.getWriter().append(buffer);
+
+        } catch (final Throwable t) {
+            log.error("Received an unexpected top-level throwable.", t);
+
+            response.sendError(
+                    HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Error writing metrics.");
+        }
+    }
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+
+        this.manager = newManager(config);
+    }
+
+    protected abstract AbstractDependencyManager newManager(final ServletConfig config);
+
+    protected AbstractDependencyManager getManager() {
+        return this.manager;
+    }
+
+    /** Writes the exposition of the given manager, terminated by <code># EOF</code>. */
+    protected void write(
+            @Nonnull final AbstractDependencyManager manager, @Nonnull final StringBuilder out) {
+        final Collection<DependencyMetrics.Series> series = manager.getMetrics().getSeries();
+
+        writeHeader(
+                out,
+                "status_readiness",
+                "stateset",
+                "Readiness status of the background-pinged dependencies.");
+        final CheckStatus readiness = manager.getReadinessStatus();
+        for (final CheckStatus status : STATUSES) {
+            out.append("status_readiness{status_readiness=\"")
+                    .append(status.name())
+                    .append("\"} ")
+                    .append(status == readiness ? '1' : '0')
+                    .append('\n');
+        }
+
+        writeHeader(
+                out,
+                "status_dependency_status",
+                "stateset",
+                "Status of each dependency as of its most recent check.");
+        for (final DependencyMetrics.Series dependency : series) {
+            final CheckStatus current = dependency.getStatus();
+            if (null == current) {
+                continue;
+            }
+            for (final CheckStatus status : STATUSES) {
+                writeName(out, "status_dependency_status", dependency)
+                        .append(",status_dependency_status=\"")
+                        .append(status.name())
+                        .append("\"} ")
+                        .append(status == current ? '1' : '0')
+                        .append('\n');
+            }
+        }
+
+        writeHeader(out, "status_dependency_checks", "counter", "Checks completed, by status.");
+        for (final DependencyMetrics.Series dependency : series) {
+            for (final CheckStatus status : STATUSES) {
+                writeName(out, "status_dependency_checks_total", dependency)
+                        .append(",status=\"")
+                        .append(status.name())
+                        .append("\"} ")
+                        .append(dependency.getChecks(status))
+                        .append('\n');
+            }
+        }
+
+        writeHeader(
+                out,
+                "status_dependency_check_duration_seconds",
+                "histogram",
+                "Duration of the checks of each dependency.");
+        for (final DependencyMetrics.Series dependency : series) {
+            long cumulative = 0L;
+            for (int bucket = 0; bucket <= DURATION_BOUNDS.length; bucket++) {
+                cumulative += dependency.getDurationCount(bucket);
+                writeName(out, "status_dependency_check_duration_seconds_bucket", dependency)
+                        .append(",le=\"")
+                        .append(DURATION_LABELS[bucket])
+                        .append("\"} ")
+                        .append(cumulative)
+                        .append('\n');
+            }
+            // The count is taken from the buckets, so that it matches the +Inf bucket.
+            writeName(out, "status_dependency_check_duration_seconds_count", dependency)
+                    .append("} ")
+                    .append(cumulative)
+                    .append('\n');
+            writeName(out, "status_dependency_check_duration_seconds_sum", dependency).append("} ");
+            writeSeconds(out, dependency.getDurationSum()).append('\n');
+        }
+
+        writeHeader(
+                out,
+                "status_dependency_last_check_timestamp_seconds",
+                "gauge",
+                "Start time of the most recent check of each dependency.");
+        for (final DependencyMetrics.Series dependency : series) {
+            writeName(out, "status_dependency_last_check_timestamp_seconds", dependency)
+                    .append("} ");
+            writeSeconds(out, dependency.getTimestamp()).append('\n');
+        }
+
+        writeGauge(
+                out,
+                "status_checker_active_threads",
+                "Threads of the checker pool running checks.",
+                manager.getActiveDependencyThreads());
+        writeGauge(
+                out,
+                "status_checker_max_threads",
+                "Maximum size of the checker pool.",
+                manager.getMaxPoolSize());
+        writeGauge(
+                out,
+                "status_checker_queued_checks",
+                "Checks waiting for a thread of the checker pool.",
+                manager.getQueueSize());
+        writeGauge(
+                out,
+                "status_checker_zombie_checks",
+                "Checks still running after being cancelled.",
+                manager.getZombieThreads());
+
+        out.append("# EOF\n");
+    }
+
+    private static void writeHeader(
+            @Nonnull final StringBuilder out,
+            @Nonnull final String name,
+            @Nonnull final String type,
+            @Nonnull final String help) {
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    private static void writeGauge(
+            @Nonnull final StringBuilder out,
+            @Nonnull final String name,
+            @Nonnull final String help,
+            final long value) {
+        writeHeader(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    // Writes the name and the dependency label of a sample, leaving the label set open.
+    @Nonnull
+    private static StringBuilder writeName(
+            @Nonnull final StringBuilder out,
+            @Nonnull final String name,
+            @Nonnull final DependencyMetrics.Series dependency) {
+        out.append(name).append("{dependency=\"");
+        final String id = dependency.getId();
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            switch (c) {
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out.append('"');
+    }
+
+    // Writes a duration or time in milliseconds as seconds, without formatting a double.
+    @Nonnull
+    private static StringBuilder writeSeconds(@Nonnull final StringBuilder out, final long millis) {
+        final long fraction = millis % 1000;
+        out.append(millis / 1000).append('.');
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    @Nonnull
+    private static String[] newDurationLabels() {
+        final String[] labels = new String[DURATION_BOUNDS.length + 1];
+        for (int i = 0; i < DURATION_BOUNDS.length; i++) {
+            labels[i] = writeSeconds(new StringBuilder(), DURATION_BOUNDS[i]).toString();
+        }
+        labels[DURATION_BOUNDS.length] = "+Inf";
+        return labels;
+    }
+}
@@ -0,0 +1,69 @@
+package com.indeed.status.web;
+
+import com.google.common.base.Function;
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Base of servlets answering frequent automated probes, such as those of a container orchestrator,
+ * from state the dependency manager already holds. Unlike {@link AbstractDaemonCheckReportServlet},
+ * no dependency is evaluated to serve a request; the response is just the status code and status
+ * name.
+ *
+ * @see AbstractLivenessServlet
+ * @see AbstractReadinessServlet
+ */
+public abstract class AbstractProbeServlet extends HttpServlet {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    // Set-once, read-many
+    private AbstractDependencyManager manager;
+
+    @Override
+    protected void doGet(final HttpServletRequest request, final HttpServletResponse response)
+            throws ServletException, IOException {
+        try {
+            final CheckStatus status = probe(getManager());
+            final Integer statusCode = newStatusMapper(request).apply(status);
+
+            response.setStatus(null == statusCode ? AbstractResponseWriter.SC_ERROR : statusCode);
+            response.setContentType("text/plain");
+            response.setHeader("Cache-Control", "no-cache");
+            response.getWriter().println(status);
+
+        } catch (final Throwable t) {
+            log.error("Received an unexpected top-level throwable.", t);
+
+            response.sendError(
+                    HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Error executing probe.");
+        }
+    }
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+
+        this.manager = newManager(config);
+    }
+
+    protected abstract AbstractDependencyManager newManager(final ServletConfig config);
+
+    protected AbstractDependencyManager getManager() {
+        return this.manager;
+    }
+
+    /** @return The status to report, read without evaluating any dependency. */
+    protected abstract CheckStatus probe(final AbstractDependencyManager manager);
+
+    protected Function<CheckStatus, Integer> newStatusMapper(HttpServletRequest request) {
+        return AbstractResponseWriter.FN_PUBLIC_RESPONSE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.indeed.status.web;
+
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckStatus;
+
+/**
+ * Answers readiness probes from the status the dependency manager maintains over its background
+ * pingers. Dependencies registered without a pinger do not contribute.
+ *
+ * @see AbstractDependencyManager#getReadinessStatus()
+ */
+public abstract class AbstractReadinessServlet extends AbstractProbeServlet {
+    @Override
+    protected CheckStatus probe(final AbstractDependencyManager manager) {
+        return manager.getReadinessStatus();
+    }
+}
@@ -0,0 +1,126 @@
+package com.indeed.status.web;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Splitter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/** The content codings in which report servlets can send a payload, in order of preference. */
+public enum ContentCoding {
+    GZIP("gzip") {
+        @Nonnull
+        @Override
+        protected OutputStream wrap(@Nonnull final OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+    },
+    /// The zlib format, which is what HTTP calls deflate.
+    DEFLATE("deflate") {
+        @Nonnull
+        @Override
+        protected OutputStream wrap(@Nonnull final OutputStream out) {
+            return new DeflaterOutputStream(out);
+        }
+    },
+    IDENTITY("identity") {
+        @Nonnull
+        @Override
+        protected OutputStream wrap(@Nonnull final OutputStream out) {
+            return out;
+        }
+    };
+
+    private static final ContentCoding[] CODINGS = values();
+    private static final Splitter CODING_SPLITTER =
+            Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final Splitter PARAMETER_SPLITTER = Splitter.on(';').trimResults();
+
+    @Nonnull private final String token;
+
+    ContentCoding(@Nonnull final String token) {
+        this.token = token;
+    }
+
+    /** @return The token naming the coding in the Accept-Encoding and Content-Encoding headers. */
+    @Nonnull
+    public String getToken() {
+        return token;
+    }
+
+    @Nonnull
+    protected abstract OutputStream wrap(@Nonnull OutputStream out) throws IOException;
+
+    /** @return The given bytes in this coding. */
+    @Nonnull
+    public byte[] encode(@Nonnull final byte[] bytes) throws IOException {
+        if (this == IDENTITY) {
+            return bytes;
+        }
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (final OutputStream out = wrap(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @return The coding best matching the given Accept-Encoding header, preferring compression
+     *     when codings are equally acceptable, or identity if the header accepts nothing we offer.
+     */
+    @Nonnull
+    public static ContentCoding select(@Nullable final String acceptEncoding) {
+        if (null == acceptEncoding) {
+            return IDENTITY;
+        }
+
+        // Codings other than identity are unacceptable unless listed, by name or by wildcard.
+        final float[] qualities = new float[CODINGS.length];
+        qualities[IDENTITY.ordinal()] = 1f;
+        final boolean[] listed = new boolean[CODINGS.length];
+        float wildcard = -1f;
+
+        for (final String coding : CODING_SPLITTER.split(acceptEncoding)) {
+            final List<String> parts = PARAMETER_SPLITTER.splitToList(coding);
+            final String token = Ascii.toLowerCase(parts.get(0));
+            final float quality = ReportEncoders.qualityOf(parts);
+            if (quality < 0) {
+                continue;
+            }
+
+            if ("*".equals(token)) {
+                wildcard = quality;
+            }
+            for (final ContentCoding candidate : CODINGS) {
+                if (candidate.token.equals(token)) {
+                    qualities[candidate.ordinal()] = quality;
+                    listed[candidate.ordinal()] = true;
+                }
+            }
+        }
+        if (wildcard >= 0) {
+            for (final ContentCoding candidate : CODINGS) {
+                if (!listed[candidate.ordinal()]) {
+                    qualities[candidate.ordinal()] = wildcard;
+                }
+            }
+        }
+
+        ContentCoding selected = IDENTITY;
+        float selectedQuality = 0f;
+        for (final ContentCoding candidate : CODINGS) {
+            if (qualities[candidate.ordinal()] > selectedQuality) {
+                selected = candidate;
+                selectedQuality = qualities[candidate.ordinal()];
+            }
+        }
+        return selected;
+    }
+}
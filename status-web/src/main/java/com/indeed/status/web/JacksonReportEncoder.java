@@ -0,0 +1,98 @@
+package com.indeed.status.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.base.Preconditions;
+import com.indeed.status.core.CheckResultSystemReport;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes reports with a Jackson mapper, in JSON or in one of the binary formats Jackson maps to
+ * the same data model. Reports are written straight to the response rather than through an
+ * intermediate string.
+ */
+@ThreadSafe
+public class JacksonReportEncoder implements ReportEncoder {
+    public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    @Nonnull private final String contentType;
+    @Nonnull private final ObjectMapper mapper;
+    private final boolean pretty;
+
+    /**
+     * @param contentType Content type of the encoded reports.
+     * @param mapper Mapper whose factory produces the encoding.
+     * @param pretty True to indent text encodings and end them with a newline, for people.
+     */
+    public JacksonReportEncoder(
+            @Nonnull final String contentType,
+            @Nonnull final ObjectMapper mapper,
+            final boolean pretty) {
+        Preconditions.checkArgument(
+                !pretty || !mapper.getFactory().canHandleBinaryNatively(),
+                "Binary encodings cannot be pretty-printed");
+        this.contentType = Preconditions.checkNotNull(contentType, "Missing content type");
+        this.mapper = mapper;
+        this.pretty = pretty;
+    }
+
+    /** @return An encoder of pretty-printed JSON, the encoding for people and the default. */
+    @Nonnull
+    public static JacksonReportEncoder prettyJson(@Nonnull final ObjectMapper mapper) {
+        return new JacksonReportEncoder(CONTENT_TYPE_JSON, mapper, true);
+    }
+
+    /** @return An encoder of JSON without whitespace. */
+    @Nonnull
+    public static JacksonReportEncoder json(@Nonnull final ObjectMapper mapper) {
+        return new JacksonReportEncoder(CONTENT_TYPE_JSON, mapper, false);
+    }
+
+    /** @return An encoder of Smile, Jackson's binary JSON. */
+    @Nonnull
+    public static JacksonReportEncoder smile() {
+        return new JacksonReportEncoder(
+                CONTENT_TYPE_SMILE, new ObjectMapper(new SmileFactory()), false);
+    }
+
+    /** @return An encoder of CBOR, as specified by RFC 8949. */
+    @Nonnull
+    public static JacksonReportEncoder cbor() {
+        return new JacksonReportEncoder(
+                CONTENT_TYPE_CBOR, new ObjectMapper(new CBORFactory()), false);
+    }
+
+    @Nonnull
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void encode(
+            @Nonnull final CheckResultSystemReport report, @Nonnull final OutputStream out)
+            throws IOException {
+        final JsonGenerator generator =
+                mapper.getFactory()
+                        .createGenerator(out, JsonEncoding.UTF8)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (pretty) {
+            generator.useDefaultPrettyPrinter();
+        }
+
+        mapper.writeValue(generator, report);
+        if (pretty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
@@ -2,12 +2,16 @@ package com.indeed.status.web;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.net.HttpHeaders;
 import com.indeed.status.core.CheckReportHandler;
 import com.indeed.status.core.CheckResultSet;
 import com.indeed.status.core.CheckResultSystemReport;
 import com.indeed.status.core.CheckStatus;
-import com.indeed.status.web.json.Jackson;
+import com.indeed.status.core.TagQuery;
 
+import javax.annotation.Nullable;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
@@ -17,6 +21,10 @@ public class PrivilegedReportHandler extends AbstractResponseWriter implements C
     protected final ObjectMapper mapper;
     protected final HttpServletResponse response;
     protected final Function<CheckStatus, Integer> statusCodeMapper;
+    protected final ReportEncoder encoder;
+    @Nullable protected final HttpServletRequest request;
+    @Nullable protected final ReportCache cache;
+    @Nullable protected final TagQuery query;
 
     /**
      * @deprecated use {@link #PrivilegedReportHandler(com.google.common.base.Function,
@@ -36,6 +44,44 @@ public class PrivilegedReportHandler extends AbstractResponseWriter implements C
         this.statusCodeMapper = statusCodeMapper;
         this.response = response;
         mapper = new ObjectMapper();
+        encoder = JacksonReportEncoder.prettyJson(mapper);
+        request = null;
+        cache = null;
+        query = null;
+    }
+
+    /** @param encoder Encoder of the report, typically selected by the Accept header. */
+    public PrivilegedReportHandler(
+            final Function<CheckStatus, Integer> statusCodeMapper,
+            final HttpServletResponse response,
+            final ReportEncoder encoder) {
+        this(statusCodeMapper, null, response, encoder, null, null);
+    }
+
+    /**
+     * @param request Request whose Accept-Encoding and If-None-Match headers select the coding of
+     *     the cached report and whether to send it at all.
+     * @param cache Cache of the encoded reports of earlier requests, shared by the requests to the
+     *     same servlet, or null to encode every report anew.
+     * @param query Query the reported results were selected by, or null if they cover every
+     *     dependency, so that reports of different subsets are cached side by side.
+     */
+    public PrivilegedReportHandler(
+            final Function<CheckStatus, Integer> statusCodeMapper,
+            @Nullable final HttpServletRequest request,
+            final HttpServletResponse response,
+            final ReportEncoder encoder,
+            @Nullable final ReportCache cache,
+            @Nullable final TagQuery query) {
+        Preconditions.checkArgument(
+                null == cache || null != request, "Cached reports require the request");
+        this.statusCodeMapper = statusCodeMapper;
+        this.request = request;
+        this.response = response;
+        this.mapper = new ObjectMapper();
+        this.encoder = encoder;
+        this.cache = cache;
+        this.query = query;
     }
 
     @Override
@@ -45,20 +91,54 @@ public class PrivilegedReportHandler extends AbstractResponseWriter implements C
     }
 
     protected void setResponseHeaders(final CheckResultSet resultSet) {
-        final Integer systemStatusCode = statusCodeMapper.apply(resultSet.getSystemStatus());
-        final int httpStatusCode = systemStatusCode != null ? systemStatusCode : NO_STATUS_CODE;
-
-        response.setStatus(httpStatusCode);
-        response.setContentType("application/json");
+        response.setStatus(getStatusCode(resultSet));
+        response.setContentType(encoder.getContentType());
     }
 
     // TODO should this throw IOException or not?
     protected void sendResponse(final HttpServletResponse response, final CheckResultSet resultSet)
             throws IOException {
+        if (null != cache) {
+            sendCachedResponse(
+                    response,
+                    cache.get(resultSet, query, isDetailed(), encoder),
+                    getStatusCode(resultSet));
+            return;
+        }
+
         final CheckResultSystemReport report = resultSet.summarizeBySystemReporter(isDetailed());
-        final String json = Jackson.prettyPrint(report, this.mapper);
 
-        response.getWriter().println(json);
+        encoder.encode(report, response.getOutputStream());
+    }
+
+    private int getStatusCode(final CheckResultSet resultSet) {
+        final Integer systemStatusCode = statusCodeMapper.apply(resultSet.getSystemStatus());
+        return systemStatusCode != null ? systemStatusCode : NO_STATUS_CODE;
+    }
+
+    private void sendCachedResponse(
+            final HttpServletResponse response,
+            final ReportCache.Payload payload,
+            final int httpStatusCode)
+            throws IOException {
+        final ContentCoding coding = payload.select(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.setHeader(HttpHeaders.ETAG, payload.getETag(coding));
+
+        // Preconditions apply to successful responses only (RFC 7232, section 5), so that error
+        // codes reach load balancers and monitors whether or not the report changed.
+        if (httpStatusCode >= 200
+                && httpStatusCode < 300
+                && payload.isMatchedBy(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (coding != ContentCoding.IDENTITY) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.getToken());
+        }
+        final byte[] bytes = payload.getBytes(coding);
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
     }
 
     protected boolean isDetailed() {
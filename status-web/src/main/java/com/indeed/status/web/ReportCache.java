@@ -0,0 +1,208 @@
+package com.indeed.status.web;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Iterables;
+import com.indeed.status.core.CheckResult;
+import com.indeed.status.core.CheckResultSet;
+import com.indeed.status.core.TagQuery;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Caches the encoded report of each encoder, level of detail and tag query, and its compressed
+ * forms, until the results it was built from change. Background checks cache their most recent
+ * result, so consecutive evaluations of the same dependencies usually share every result, and the
+ * cached payload is served again rather than serialized and compressed again. Results are compared
+ * by identity.
+ *
+ * <p>Because a payload is reused as long as its results are, the duration it reports is that of the
+ * evaluation that built it.
+ *
+ * <p>Each payload has its own entity tag, so that clients polling with If-None-Match can be told
+ * that nothing has changed without receiving the report again.
+ */
+@ThreadSafe
+public final class ReportCache {
+    /** Payloads smaller than this are not worth compressing, and are always sent as is. */
+    public static final int MIN_COMPRESSED_SIZE = 512;
+
+    /** Tag queries come from requests, so the number of cached payloads is bounded. */
+    public static final int MAX_PAYLOADS = 64;
+
+    private static final Splitter TAG_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    /// Most recent payload of each encoder, level of detail and tag query.
+    @Nonnull
+    private final Cache<Key, Payload> payloads =
+            CacheBuilder.newBuilder().maximumSize(MAX_PAYLOADS).build();
+
+    /// Distinguishes the versions of this cache from those of earlier processes.
+    @Nonnull private final String epoch = Long.toHexString(System.currentTimeMillis());
+
+    @Nonnull private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * @param query The query the results were selected by, or null if they cover every dependency.
+     * @return The payload of the report of the given results in the given encoding, built anew only
+     *     if the cached payload was built from different results.
+     */
+    @Nonnull
+    public Payload get(
+            @Nonnull final CheckResultSet resultSet,
+            @Nullable final TagQuery query,
+            final boolean detailed,
+            @Nonnull final ReportEncoder encoder)
+            throws IOException {
+        final Key key = new Key(encoder, detailed, query);
+        final Collection<CheckResult> results = resultSet.getCompleted();
+        final Payload cached = payloads.getIfPresent(key);
+        if (null != cached && cached.isBuiltFrom(results)) {
+            return cached;
+        }
+
+        final CheckResult[] sources = Iterables.toArray(results, CheckResult.class);
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        encoder.encode(resultSet.summarizeBySystemReporter(detailed), buffer);
+
+        final Payload payload =
+                new Payload(
+                        sources,
+                        buffer.toByteArray(),
+                        epoch + '.' + Long.toHexString(versions.incrementAndGet()));
+        payloads.put(key, payload);
+        return payload;
+    }
+
+    private static final class Key {
+        @Nonnull private final ReportEncoder encoder;
+        private final boolean detailed;
+        @Nullable private final TagQuery query;
+
+        private Key(
+                @Nonnull final ReportEncoder encoder,
+                final boolean detailed,
+                @Nullable final TagQuery query) {
+            this.encoder = encoder;
+            this.detailed = detailed;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) o;
+            return encoder.equals(that.encoder)
+                    && detailed == that.detailed
+                    && Objects.equal(query, that.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(encoder, detailed, query);
+        }
+    }
+
+    /** An encoded report, and the results it was built from. */
+    @ThreadSafe
+    public static final class Payload {
+        @Nonnull private final CheckResult[] sources;
+        @Nonnull private final String version;
+        /// Bytes of the report in each content coding, by ordinal, computed on first use.
+        @Nonnull private final AtomicReferenceArray<byte[]> encoded;
+
+        private Payload(
+                @Nonnull final CheckResult[] sources,
+                @Nonnull final byte[] bytes,
+                @Nonnull final String version) {
+            this.sources = sources;
+            this.version = version;
+            this.encoded = new AtomicReferenceArray<>(ContentCoding.values().length);
+            encoded.set(ContentCoding.IDENTITY.ordinal(), bytes);
+        }
+
+        private boolean isBuiltFrom(@Nonnull final Collection<CheckResult> results) {
+            if (sources.length != results.size()) {
+                return false;
+            }
+
+            int i = 0;
+            for (final CheckResult result : results) {
+                if (i >= sources.length || sources[i++] != result) {
+                    return false;
+                }
+            }
+            return i == sources.length;
+        }
+
+        /**
+         * @return The coding in which to send this payload to a client sending the given
+         *     Accept-Encoding header.
+         */
+        @Nonnull
+        public ContentCoding select(@Nullable final String acceptEncoding) {
+            return encoded.get(ContentCoding.IDENTITY.ordinal()).length < MIN_COMPRESSED_SIZE
+                    ? ContentCoding.IDENTITY
+                    : ContentCoding.select(acceptEncoding);
+        }
+
+        /** @return The bytes of this payload in the given coding. */
+        @Nonnull
+        public byte[] getBytes(@Nonnull final ContentCoding coding) throws IOException {
+            byte[] bytes = encoded.get(coding.ordinal());
+            if (null == bytes) {
+                // Racing requests may compress the same bytes; either result is correct.
+                bytes = coding.encode(encoded.get(ContentCoding.IDENTITY.ordinal()));
+                encoded.set(coding.ordinal(), bytes);
+            }
+            return bytes;
+        }
+
+        /** @return The entity tag of this payload in the given coding. */
+        @Nonnull
+        public String getETag(@Nonnull final ContentCoding coding) {
+            return coding == ContentCoding.IDENTITY
+                    ? '"' + version + '"'
+                    : '"' + version + '-' + coding.getToken() + '"';
+        }
+
+        /**
+         * @return true if the given If-None-Match header names this payload, in any coding, so that
+         *     the client already has it.
+         */
+        public boolean isMatchedBy(@Nullable final String ifNoneMatch) {
+            if (null == ifNoneMatch) {
+                return false;
+            }
+
+            for (String tag : TAG_SPLITTER.split(ifNoneMatch)) {
+                if ("*".equals(tag)) {
+                    return true;
+                }
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                for (final ContentCoding coding : ContentCoding.values()) {
+                    if (tag.equals(getETag(coding))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
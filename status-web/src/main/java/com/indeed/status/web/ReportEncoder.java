@@ -0,0 +1,24 @@
+package com.indeed.status.web;
+
+import com.indeed.status.core.CheckResultSystemReport;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializes system reports in one media type. Report servlets choose among the encoders of a
+ * {@link ReportEncoders} by the Accept header of each request, so that machine consumers can
+ * request a more compact encoding than the pretty-printed JSON meant for people.
+ *
+ * <p>Implementations must be thread-safe, because one encoder serves every request.
+ */
+public interface ReportEncoder {
+    /** @return The value of the Content-Type header of encoded reports. */
+    @Nonnull
+    String getContentType();
+
+    /** Writes the given report to the given stream, which the caller remains responsible for. */
+    void encode(@Nonnull CheckResultSystemReport report, @Nonnull OutputStream out)
+            throws IOException;
+}
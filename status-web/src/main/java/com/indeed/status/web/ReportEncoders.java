@@ -0,0 +1,147 @@
+package com.indeed.status.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Ascii;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An ordered set of report encoders, one per media type, of which the first is the default.
+ * Encoders are selected by the media ranges and quality values of an Accept header: the encoder
+ * with the highest quality wins, ties go to the encoder registered first, and requests accepting
+ * none of the encoders get the default rather than an error.
+ */
+@Immutable
+public final class ReportEncoders {
+    /** Pretty-printed JSON by default, or Smile or CBOR for the consumers that ask for them. */
+    public static final ReportEncoders DEFAULT =
+            of(
+                    JacksonReportEncoder.prettyJson(new ObjectMapper()),
+                    JacksonReportEncoder.smile(),
+                    JacksonReportEncoder.cbor());
+
+    private static final Splitter RANGE_SPLITTER =
+            Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final Splitter PARAMETER_SPLITTER = Splitter.on(';').trimResults();
+
+    @Nonnull private final ImmutableList<ReportEncoder> encoders;
+    /// Media type of each encoder, lower case and without parameters, by the encoder's index.
+    @Nonnull private final String[] mediaTypes;
+
+    private ReportEncoders(@Nonnull final ImmutableList<ReportEncoder> encoders) {
+        this.encoders = encoders;
+        this.mediaTypes = new String[encoders.size()];
+        for (int i = 0; i < mediaTypes.length; i++) {
+            final String mediaType = mediaTypeOf(encoders.get(i).getContentType());
+            for (int j = 0; j < i; j++) {
+                Preconditions.checkArgument(
+                        !mediaTypes[j].equals(mediaType),
+                        "Multiple encoders for the media type %s",
+                        mediaType);
+            }
+            mediaTypes[i] = mediaType;
+        }
+    }
+
+    @Nonnull
+    public static ReportEncoders of(
+            @Nonnull final ReportEncoder defaultEncoder, @Nonnull final ReportEncoder... others) {
+        return new ReportEncoders(
+                ImmutableList.<ReportEncoder>builder().add(defaultEncoder).add(others).build());
+    }
+
+    @Nonnull
+    public ReportEncoder getDefault() {
+        return encoders.get(0);
+    }
+
+    @Nonnull
+    public List<ReportEncoder> getEncoders() {
+        return encoders;
+    }
+
+    /** @return The encoder best matching the given Accept header, or the default if none does. */
+    @Nonnull
+    public ReportEncoder select(@Nullable final String accept) {
+        if (null == accept) {
+            return getDefault();
+        }
+
+        // Quality and specificity of the most specific range matching each encoder.
+        final float[] qualities = new float[mediaTypes.length];
+        final int[] specificities = new int[mediaTypes.length];
+        Arrays.fill(specificities, -1);
+
+        for (final String range : RANGE_SPLITTER.split(accept)) {
+            final List<String> parts = PARAMETER_SPLITTER.splitToList(range);
+            final String mediaType = Ascii.toLowerCase(parts.get(0));
+            final float quality = qualityOf(parts);
+            if (quality < 0) {
+                continue;
+            }
+
+            for (int i = 0; i < mediaTypes.length; i++) {
+                final int specificity = specificityOf(mediaType, mediaTypes[i]);
+                if (specificity > specificities[i]) {
+                    specificities[i] = specificity;
+                    qualities[i] = quality;
+                }
+            }
+        }
+
+        int selected = 0;
+        float selectedQuality = 0f;
+        for (int i = 0; i < mediaTypes.length; i++) {
+            if (qualities[i] > selectedQuality) {
+                selected = i;
+                selectedQuality = qualities[i];
+            }
+        }
+        return encoders.get(selected);
+    }
+
+    @Nonnull
+    private static String mediaTypeOf(@Nonnull final String contentType) {
+        final int end = contentType.indexOf(';');
+        return Ascii.toLowerCase((end < 0 ? contentType : contentType.substring(0, end)).trim());
+    }
+
+    // The q parameter of a media range or content coding, 1 if absent, or -1 if malformed.
+    static float qualityOf(@Nonnull final List<String> parts) {
+        for (int i = 1; i < parts.size(); i++) {
+            final String parameter = parts.get(i);
+            if (parameter.length() > 2
+                    && Ascii.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.charAt(1) == '=') {
+                try {
+                    final float quality = Float.parseFloat(parameter.substring(2));
+                    return quality >= 0f && quality <= 1f ? quality : -1f;
+                } catch (final NumberFormatException e) {
+                    return -1f;
+                }
+            }
+        }
+        return 1f;
+    }
+
+    // 2 for an exact match, 1 for a subtype wildcard, 0 for */*, or -1 if the range does not match.
+    private static int specificityOf(@Nonnull final String range, @Nonnull final String mediaType) {
+        if (range.equals(mediaType)) {
+            return 2;
+        }
+        if ("*/*".equals(range)) {
+            return 0;
+        }
+        if (range.endsWith("/*") && mediaType.regionMatches(0, range, 0, range.length() - 1)) {
+            return 1;
+        }
+        return -1;
+    }
+}
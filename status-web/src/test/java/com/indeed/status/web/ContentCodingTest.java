@@ -0,0 +1,57 @@
+package com.indeed.status.web;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ContentCodingTest {
+    @Test
+    public void testSelect() {
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select(null));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select(""));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select("br"));
+
+        // Equally acceptable codings prefer compression.
+        assertEquals(ContentCoding.GZIP, ContentCoding.select("deflate, gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.select("identity, GZIP"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.select("gzip;q=0.5, deflate"));
+
+        // Identity is acceptable unless excluded, and beats codings of lower quality.
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select("gzip;q=0"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.select("gzip;q=0.1, identity;q=0"));
+
+        // Wildcards cover the codings not listed.
+        assertEquals(ContentCoding.GZIP, ContentCoding.select("*"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.select("*, gzip;q=0"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select("*;q=0.5, identity"));
+
+        // Malformed quality values are ignored.
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select("gzip;q=high"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.select("gzip;q=2"));
+    }
+
+    @Test
+    public void testEncode() throws IOException {
+        final byte[] bytes = "{\"condition\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+        assertSame(bytes, ContentCoding.IDENTITY.encode(bytes));
+        assertArrayEquals(
+                bytes,
+                ByteStreams.toByteArray(
+                        new GZIPInputStream(
+                                new ByteArrayInputStream(ContentCoding.GZIP.encode(bytes)))));
+        assertArrayEquals(
+                bytes,
+                ByteStreams.toByteArray(
+                        new InflaterInputStream(
+                                new ByteArrayInputStream(ContentCoding.DEFLATE.encode(bytes)))));
+    }
+}
@@ -0,0 +1,214 @@
+package com.indeed.status.web;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckResult;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.DependencyMetrics;
+import com.indeed.status.core.ImmutableDependencyManagerParams;
+import com.indeed.status.core.SimpleDependency;
+import com.indeed.status.core.Urgency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.ServletConfig;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OpenMetricsServletTest {
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+    private final AbstractOpenMetricsServlet servlet =
+            new AbstractOpenMetricsServlet() {
+                @Override
+                protected AbstractDependencyManager newManager(final ServletConfig config) {
+                    return manager;
+                }
+            };
+
+    private SimpleDependency mysql;
+    private SimpleDependency quoted;
+
+    @Before
+    public void setUp() {
+        mysql = newDependency("mysql");
+        quoted = newDependency("a\"b\\c\nd");
+        final DependencyMetrics metrics = manager.getMetrics();
+        metrics.onAdded(mysql);
+        metrics.onAdded(quoted);
+        metrics.onAdded(newDependency("unchecked"));
+
+        metrics.onChecked(mysql, newResult(mysql, CheckStatus.OK, 3, 1500));
+        metrics.onChecked(mysql, newResult(mysql, CheckStatus.OK, 30, 2000));
+        metrics.onChecked(mysql, newResult(mysql, CheckStatus.OUTAGE, 40000, 61234));
+        metrics.onChecked(quoted, newResult(quoted, CheckStatus.MINOR, 10, 5000));
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testStateSets() {
+        final Map<String, String> samples = samples(write());
+
+        // The label of a state set is named after the metric, and exactly one state is set.
+        assertEquals(
+                "1",
+                samples.get(
+                        "status_dependency_status{dependency=\"mysql\","
+                                + "status_dependency_status=\"OUTAGE\"}"));
+        for (final CheckStatus status : CheckStatus.values()) {
+            assertEquals(
+                    status == CheckStatus.OUTAGE ? "1" : "0",
+                    samples.get(
+                            "status_dependency_status{dependency=\"mysql\","
+                                    + "status_dependency_status=\""
+                                    + status.name()
+                                    + "\"}"));
+        }
+
+        int set = 0;
+        for (final CheckStatus status : CheckStatus.values()) {
+            final String value =
+                    samples.get("status_readiness{status_readiness=\"" + status.name() + "\"}");
+            set += Integer.parseInt(value);
+        }
+        assertEquals(1, set);
+
+        // Dependencies never checked have no status, but count their checks.
+        for (final String name : samples.keySet()) {
+            assertFalse(name.startsWith("status_dependency_status{dependency=\"unchecked\""));
+        }
+        assertEquals(
+                "0",
+                samples.get(
+                        "status_dependency_checks_total{dependency=\"unchecked\",status=\"OK\"}"));
+        assertEquals(
+                "2",
+                samples.get("status_dependency_checks_total{dependency=\"mysql\",status=\"OK\"}"));
+        assertEquals(
+                "1",
+                samples.get(
+                        "status_dependency_checks_total{dependency=\"mysql\",status=\"OUTAGE\"}"));
+    }
+
+    @Test
+    public void testHistogram() {
+        final List<String> lines = write();
+        final Map<String, String> samples = samples(lines);
+
+        final String name = "status_dependency_check_duration_seconds";
+        final String mysqlLabel = "{dependency=\"mysql\"";
+        assertEquals("1", samples.get(name + "_bucket" + mysqlLabel + ",le=\"0.005\"}"));
+        assertEquals("1", samples.get(name + "_bucket" + mysqlLabel + ",le=\"0.025\"}"));
+        assertEquals("2", samples.get(name + "_bucket" + mysqlLabel + ",le=\"0.050\"}"));
+        assertEquals("2", samples.get(name + "_bucket" + mysqlLabel + ",le=\"30.000\"}"));
+        assertEquals("3", samples.get(name + "_bucket" + mysqlLabel + ",le=\"+Inf\"}"));
+        assertEquals("3", samples.get(name + "_count" + mysqlLabel + "}"));
+        assertEquals("40.033", samples.get(name + "_sum" + mysqlLabel + "}"));
+        assertEquals(
+                "61.234",
+                samples.get("status_dependency_last_check_timestamp_seconds" + mysqlLabel + "}"));
+
+        // Buckets are cumulative, and the count of every dependency matches its +Inf bucket.
+        final Map<String, Long> previous = Maps.newHashMap();
+        int counts = 0;
+        for (final String line : lines) {
+            if (line.startsWith(name + "_bucket{")) {
+                final String series = line.substring(0, line.indexOf(",le="));
+                final long value = Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+                final Long last = previous.put(series, value);
+                assertTrue(line, null == last || last <= value);
+                if (line.contains("le=\"+Inf\"")) {
+                    final String count = series.replace("_bucket{", "_count{") + "}";
+                    assertEquals(line, String.valueOf(value), samples.get(count));
+                    counts++;
+                }
+            }
+        }
+        assertEquals(3, counts);
+    }
+
+    @Test
+    public void testLabelEscaping() {
+        final Map<String, String> samples = samples(write());
+        assertEquals(
+                "1",
+                samples.get(
+                        "status_dependency_checks_total{dependency=\"a\\\"b\\\\c\\nd\","
+                                + "status=\"MINOR\"}"));
+    }
+
+    @Test
+    public void testFraming() {
+        final StringBuilder out = new StringBuilder();
+        servlet.write(manager, out);
+        assertTrue(out.toString().endsWith("\n# EOF\n"));
+
+        // Every metric family is described once, by its type and then its help.
+        final List<String> lines = Arrays.asList(out.toString().split("\n"));
+        final List<String> families = Lists.newArrayList();
+        for (int i = 0; i < lines.size(); i++) {
+            final String line = lines.get(i);
+            if (line.startsWith("# TYPE ")) {
+                final String family = line.split(" ")[2];
+                assertFalse(family, families.contains(family));
+                families.add(family);
+                assertTrue(lines.get(i + 1).startsWith("# HELP " + family + ' '));
+            } else if (!line.startsWith("# HELP ") && !"# EOF".equals(line)) {
+                assertFalse(families.isEmpty());
+                assertTrue(line, line.startsWith(families.get(families.size() - 1)));
+            }
+        }
+        assertEquals("# EOF", lines.get(lines.size() - 1));
+    }
+
+    private List<String> write() {
+        final StringBuilder out = new StringBuilder();
+        servlet.write(manager, out);
+        return Arrays.asList(out.toString().split("\n"));
+    }
+
+    // Values of the samples of the given exposition, keyed by name and labels.
+    private static Map<String, String> samples(final List<String> lines) {
+        final Map<String, String> samples = Maps.newHashMap();
+        for (final String line : lines) {
+            if (!line.startsWith("#")) {
+                final int space = line.lastIndexOf(' ');
+                samples.put(line.substring(0, space), line.substring(space + 1));
+            }
+        }
+        return samples;
+    }
+
+    private static CheckResult newResult(
+            final SimpleDependency dependency,
+            final CheckStatus status,
+            final long duration,
+            final long timestamp) {
+        return CheckResult.newBuilder(dependency, status, "checked")
+                .setDuration(duration)
+                .setTimestamp(timestamp)
+                .build();
+    }
+
+    private static SimpleDependency newDependency(final String id) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setUrgency(Urgency.REQUIRED)
+                .setCheckMethod(
+                        dependency ->
+                                CheckResult.newBuilder(dependency, CheckStatus.OK, "ok").build())
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.indeed.status.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.net.HttpHeaders;
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckResult;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.DependencyPinger;
+import com.indeed.status.core.ImmutableDependencyManagerParams;
+import com.indeed.status.core.SimpleDependency;
+import com.indeed.status.core.Urgency;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrivilegedReportHandlerTest {
+    private static final ReportEncoder JSON = JacksonReportEncoder.json(new ObjectMapper());
+
+    private final AtomicReference<CheckStatus> status = new AtomicReference<>(CheckStatus.OK);
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+    private final ReportCache cache = new ReportCache();
+
+    private DependencyPinger pinger;
+
+    @Before
+    public void setUp() {
+        pinger =
+                new DependencyPinger(
+                        SimpleDependency.newBuilder()
+                                .setId("mysql")
+                                .setDescription("mysql")
+                                .setUrgency(Urgency.REQUIRED)
+                                .setCheckMethod(
+                                        dependency ->
+                                                CheckResult.newBuilder(
+                                                                dependency, status.get(), "checked")
+                                                        .build())
+                                .build());
+        manager.addDependency(pinger);
+        pinger.run();
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testNotModified() throws Exception {
+        final Response first = handle(null);
+        assertEquals(HttpServletResponse.SC_OK, first.status.getValue().intValue());
+        assertTrue(first.body.size() > 0);
+
+        final Response second = handle(first.etag.getValue());
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, second.status.getValue().intValue());
+        assertEquals(first.etag.getValue(), second.etag.getValue());
+        assertEquals(0, second.body.size());
+    }
+
+    @Test
+    public void testErrorsNeverNotModified() throws Exception {
+        status.set(CheckStatus.OUTAGE);
+        pinger.run();
+
+        final Response first = handle(null);
+        assertEquals(AbstractResponseWriter.SC_ERROR, first.status.getValue().intValue());
+
+        // An unchanged report of an unhealthy system is sent again, with its error code.
+        final Response second = handle(first.etag.getValue());
+        assertEquals(AbstractResponseWriter.SC_ERROR, second.status.getValue().intValue());
+        assertEquals(first.body.toString("UTF-8"), second.body.toString("UTF-8"));
+    }
+
+    private Response handle(final String ifNoneMatch) throws IOException {
+        final HttpServletRequest request = EasyMock.createNiceMock(HttpServletRequest.class);
+        EasyMock.expect(request.getHeader(HttpHeaders.IF_NONE_MATCH))
+                .andReturn(ifNoneMatch)
+                .anyTimes();
+        EasyMock.replay(request);
+
+        final Response response = new Response();
+        final HttpServletResponse servletResponse =
+                EasyMock.createNiceMock(HttpServletResponse.class);
+        servletResponse.setStatus(EasyMock.captureInt(response.status));
+        EasyMock.expectLastCall().anyTimes();
+        servletResponse.setHeader(EasyMock.eq(HttpHeaders.ETAG), EasyMock.capture(response.etag));
+        EasyMock.expectLastCall().anyTimes();
+        EasyMock.expect(servletResponse.getOutputStream())
+                .andReturn(
+                        new ServletOutputStream() {
+                            @Override
+                            public void write(final int b) {
+                                response.body.write(b);
+                            }
+                        })
+                .anyTimes();
+        EasyMock.replay(servletResponse);
+
+        new PrivilegedReportHandler(
+                        AbstractResponseWriter.FN_PRIVATE_RESPONSE,
+                        request,
+                        servletResponse,
+                        JSON,
+                        cache,
+                        null)
+                .handle(manager.evaluate());
+        return response;
+    }
+
+    private static class Response {
+        private final Capture<Integer> status = Capture.newInstance(CaptureType.LAST);
+        private final Capture<String> etag = Capture.newInstance(CaptureType.LAST);
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    }
+}
@@ -0,0 +1,115 @@
+package com.indeed.status.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.indeed.status.core.AbstractDependencyManager;
+import com.indeed.status.core.CheckResult;
+import com.indeed.status.core.CheckStatus;
+import com.indeed.status.core.DependencyPinger;
+import com.indeed.status.core.ImmutableDependencyManagerParams;
+import com.indeed.status.core.SimpleDependency;
+import com.indeed.status.core.TagQuery;
+import com.indeed.status.core.Urgency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ReportCacheTest {
+    private static final ReportEncoder JSON = JacksonReportEncoder.json(new ObjectMapper());
+
+    private final AtomicReference<CheckStatus> status = new AtomicReference<>(CheckStatus.OK);
+    private final AbstractDependencyManager manager =
+            new AbstractDependencyManager(ImmutableDependencyManagerParams.builder().build()) {};
+    private final ReportCache cache = new ReportCache();
+
+    private DependencyPinger mysql;
+
+    @Before
+    public void setUp() {
+        mysql = new DependencyPinger(newDependency("mysql", "db"));
+        manager.addDependency(mysql);
+        manager.addDependency(new DependencyPinger(newDependency("search", "service")));
+        for (final String id : manager.getDependencyIds()) {
+            ((DependencyPinger) manager.getDependency(id)).run();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    public void testReusedUntilResultsChange() throws Exception {
+        final ReportCache.Payload payload = cache.get(manager.evaluate(), null, true, JSON);
+        assertSame(payload, cache.get(manager.evaluate(), null, true, JSON));
+
+        mysql.run();
+        final ReportCache.Payload changed = cache.get(manager.evaluate(), null, true, JSON);
+        assertNotSame(payload, changed);
+        assertNotEquals(
+                payload.getETag(ContentCoding.IDENTITY), changed.getETag(ContentCoding.IDENTITY));
+    }
+
+    @Test
+    public void testCachedPerQueryAndDetail() throws Exception {
+        final TagQuery db = TagQuery.anyOf("db");
+        final ReportCache.Payload full = cache.get(manager.evaluate(), null, true, JSON);
+        final ReportCache.Payload subset = cache.get(manager.evaluate(db), db, true, JSON);
+        final ReportCache.Payload summary = cache.get(manager.evaluate(), null, false, JSON);
+        assertNotSame(full, subset);
+        assertNotSame(full, summary);
+
+        // Alternating requests do not evict each other.
+        assertSame(full, cache.get(manager.evaluate(), null, true, JSON));
+        assertSame(subset, cache.get(manager.evaluate(db), TagQuery.anyOf("db"), true, JSON));
+        assertSame(summary, cache.get(manager.evaluate(), null, false, JSON));
+    }
+
+    @Test
+    public void testETags() throws Exception {
+        final ReportCache.Payload payload = cache.get(manager.evaluate(), null, true, JSON);
+        final String identity = payload.getETag(ContentCoding.IDENTITY);
+        final String gzip = payload.getETag(ContentCoding.GZIP);
+        assertNotEquals(identity, gzip);
+
+        assertTrue(payload.isMatchedBy(identity));
+        assertTrue(payload.isMatchedBy(gzip));
+        assertTrue(payload.isMatchedBy("\"other\", " + gzip));
+        assertTrue(payload.isMatchedBy("W/" + identity));
+        assertTrue(payload.isMatchedBy("*"));
+        assertFalse(payload.isMatchedBy(null));
+        assertFalse(payload.isMatchedBy("\"other\""));
+
+        mysql.run();
+        assertFalse(cache.get(manager.evaluate(), null, true, JSON).isMatchedBy(identity));
+    }
+
+    @Test
+    public void testSmallPayloadsUncompressed() throws Exception {
+        final ReportCache.Payload payload = cache.get(manager.evaluate(), null, false, JSON);
+        assertTrue(
+                payload.getBytes(ContentCoding.IDENTITY).length < ReportCache.MIN_COMPRESSED_SIZE);
+        assertEquals(ContentCoding.IDENTITY, payload.select("gzip"));
+    }
+
+    private SimpleDependency newDependency(final String id, final String tag) {
+        return SimpleDependency.newBuilder()
+                .setId(id)
+                .setDescription(id)
+                .setUrgency(Urgency.REQUIRED)
+                .addTag(tag)
+                .setCheckMethod(
+                        dependency ->
+                                CheckResult.newBuilder(dependency, status.get(), "checked").build())
+                .build();
+    }
+}
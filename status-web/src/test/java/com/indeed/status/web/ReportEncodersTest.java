@@ -0,0 +1,63 @@
+package com.indeed.status.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ReportEncodersTest {
+    private static final String JSON = JacksonReportEncoder.CONTENT_TYPE_JSON;
+    private static final String SMILE = JacksonReportEncoder.CONTENT_TYPE_SMILE;
+    private static final String CBOR = JacksonReportEncoder.CONTENT_TYPE_CBOR;
+
+    @Test
+    public void testDefault() {
+        assertEquals(JSON, select(null));
+        assertEquals(JSON, select(""));
+        assertEquals(JSON, select("text/html"));
+        assertEquals(JSON, select("*/*"));
+        assertEquals(JSON, select("text/html, application/xml;q=0.9, */*;q=0.8"));
+    }
+
+    @Test
+    public void testExactMatch() {
+        assertEquals(SMILE, select(SMILE));
+        assertEquals(CBOR, select("Application/CBOR"));
+        assertEquals(CBOR, select(CBOR + "; charset=binary"));
+    }
+
+    @Test
+    public void testQuality() {
+        assertEquals(CBOR, select(SMILE + ";q=0.8, " + CBOR + ";q=0.9"));
+        assertEquals(CBOR, select("application/*;q=0.5, " + CBOR));
+
+        // Ties go to the encoder registered first.
+        assertEquals(SMILE, select(CBOR + ", " + SMILE));
+        assertEquals(SMILE, select("application/json;q=0, application/*"));
+    }
+
+    @Test
+    public void testSpecificity() {
+        // The most specific range matching an encoder sets its quality, whatever the order.
+        assertEquals(SMILE, select(CBOR + ";q=0.1, application/*;q=0.5, " + JSON + ";q=0.2"));
+        assertEquals(JSON, select("application/*;q=0, */*"));
+    }
+
+    @Test
+    public void testMalformedQuality() {
+        assertEquals(JSON, select(CBOR + ";q=high"));
+        assertEquals(JSON, select(CBOR + ";q=1.5"));
+        assertEquals(CBOR, select(SMILE + ";q=-1, " + CBOR + ";q=0.3"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateMediaTypes() {
+        ReportEncoders.of(
+                JacksonReportEncoder.json(new ObjectMapper()),
+                JacksonReportEncoder.prettyJson(new ObjectMapper()));
+    }
+
+    private static String select(final String accept) {
+        return ReportEncoders.DEFAULT.select(accept).getContentType();
+    }
+}